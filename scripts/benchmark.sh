@@ -0,0 +1,22 @@
+#!/usr/bin/env bash
+#
+# Runs the JMH microbenchmarks under src/test/java whose names match the given
+# pattern, e.g. RejectionBenchmark or ProductFilterBenchmark.
+#
+# Usage: scripts/benchmark.sh <benchmark pattern> [extra JMH options]
+#   MVN=mvn  Maven command used for the build
+set -euo pipefail
+
+if [ $# -lt 1 ]; then
+	echo "Usage: $0 <benchmark pattern> [extra JMH options]" >&2
+	exit 1
+fi
+
+JAVA="${JAVA_HOME:+${JAVA_HOME}/bin/}java"
+
+cd "$(dirname "$0")/.."
+
+"${MVN:-mvn}" -B -q -DskipTests test-compile dependency:build-classpath \
+	-Dmdep.includeScope=test -Dmdep.outputFile=target/benchmark.classpath
+"$JAVA" -cp "target/test-classes:target/classes:$(cat target/benchmark.classpath)" \
+	org.openjdk.jmh.Main "$@"
@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+#
+# Measures time-to-first-successful-request: from launching the JVM until
+# GET /product/get-products answers 200. Compares the regular jar with the
+# fast-startup build (Spring AOT + AppCDS archive + lazy initialization).
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+#   SKIP_BUILD=1  reuse target/startup-baseline.jar and target/fast-startup
+#   PORT=8097     port used for the measured instances
+#   MVN=mvn       Maven command used for the builds
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8097}
+URL="http://localhost:${PORT}/product/get-products"
+JAVA="${JAVA_HOME:+${JAVA_HOME}/bin/}java"
+JAR_NAME=inventory-0.0.1-SNAPSHOT.jar
+
+cd "$(dirname "$0")/.."
+
+if [[ "${SKIP_BUILD:-0}" != 1 ]]; then
+	"${MVN:-mvn}" -B -q -DskipTests package
+	cp "target/${JAR_NAME}" target/startup-baseline.jar
+	"${MVN:-mvn}" -B -q -DskipTests -Pfast-startup package
+fi
+
+measure() {
+	local label=$1 dir=$2
+	shift 2
+	local times=()
+	for ((run = 1; run <= RUNS; run++)); do
+		local start end pid
+		start=$(date +%s%N)
+		(cd "$dir" && exec "$JAVA" -Dserver.port="$PORT" "$@" >/dev/null 2>&1) &
+		pid=$!
+		until curl -sf -o /dev/null "$URL"; do
+			if ! kill -0 "$pid" 2>/dev/null; then
+				echo "${label}: application exited before answering" >&2
+				exit 1
+			fi
+			sleep 0.01
+		done
+		end=$(date +%s%N)
+		times+=($(((end - start) / 1000000)))
+		kill "$pid"
+		for _ in {1..100}; do
+			kill -0 "$pid" 2>/dev/null || break
+			sleep 0.1
+		done
+		kill -9 "$pid" 2>/dev/null || true
+		wait "$pid" 2>/dev/null || true
+	done
+	local sorted
+	sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+	printf '%-14s median %6d ms   min %6d ms   max %6d ms   (%s)\n' "$label" \
+		"${sorted[$((RUNS / 2))]}" "${sorted[0]}" "${sorted[$((RUNS - 1))]}" "${times[*]}"
+}
+
+echo "time to first successful request, ${RUNS} runs each"
+measure baseline target -jar startup-baseline.jar
+measure fast-startup target/fast-startup \
+	-XX:SharedArchiveFile=application.jsa -Xlog:cds=off -Xlog:cds+dynamic=off \
+	-Dspring.aot.enabled=true -Dspring.profiles.active=fast-startup \
+	-jar "${JAR_NAME}"
@@ -1,7 +1,12 @@
 package com.ram.inventory;
 
+import java.time.Duration;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -9,15 +14,35 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.exception.InsufficientStockException;
 import com.ram.inventory.util.ApiResponse;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final String retryAfterSeconds;
+
+    /**
+     * A 429 asks the client to come back as late as a request shed by admission control.
+     */
+    public GlobalExceptionHandler(@Value("${inventory.admission.retry-after:1s}") Duration retryAfter) {
+        this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+    }
+
     @ExceptionHandler(ApiException.class)
     public ResponseEntity<ApiResponse<Object>> handleApiException(ApiException ex) {
-        return ResponseEntity.status(ex.getStatus())
-                .body(new ApiResponse<>(ex.getStatus(), ex.getMessage(), null));
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(ex.getStatus());
+        if (ex.getStatus() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            response.header(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        }
+        return response.body(new ApiResponse<>(ex.getStatus(), ex.getMessage(), null));
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ApiResponse<InsufficientStockException.Shortage>> handleInsufficientStock(
+            InsufficientStockException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiResponse<>(409, ex.getMessage(), ex.getShortage()));
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -31,6 +56,21 @@ public class GlobalExceptionHandler {
                 .body(new ApiResponse<>(400, "Validation failed", errors));
     }
 
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiResponse<Object>> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiResponse<>(409, "Request violates a data constraint", null));
+    }
+
+    /**
+     * A row lock timed out or a deadlock was broken; the request did nothing and can be retried.
+     */
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Object>> handlePessimisticLockingFailure(PessimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiResponse<>(409, "Stock is contended, please retry", null));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Object>> handleGenericException(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
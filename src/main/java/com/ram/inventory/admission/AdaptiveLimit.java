@@ -0,0 +1,83 @@
+package com.ram.inventory.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrency limit adjusted by AIMD on observed latency. Every request finishing within
+ * the latency target while the limit is at least half used raises the limit by
+ * {@code 1 / limit}, about one per limit's worth of requests; a request finishing above
+ * the target multiplies it by {@link #BACKOFF}, at most once per target period, so one
+ * slow burst does not collapse it.
+ */
+public class AdaptiveLimit {
+
+    static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private volatile double limit;
+    private long lastDecrease = System.nanoTime();
+
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, long targetNanos) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetNanos = targetNanos;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Admits a request unless the limit is reached; an admitted request must be released.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                shed.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.increment();
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        int before = inFlight.getAndDecrement();
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (latencyNanos > targetNanos) {
+                if (now - lastDecrease >= targetNanos) {
+                    limit = Math.max(minLimit, limit * BACKOFF);
+                    lastDecrease = now;
+                }
+            } else if (before * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getShed() {
+        return shed.sum();
+    }
+}
@@ -0,0 +1,19 @@
+package com.ram.inventory.admission;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+@ConditionalOnProperty(prefix = "inventory.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig {
+
+    @Bean
+    AdmissionFilter admissionFilter(AdmissionProperties properties, ObjectMapper objectMapper) {
+        return new AdmissionFilter(properties, objectMapper);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ram.inventory.admission;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ram.inventory.util.ApiResponse;
+
+@RestController
+@RequestMapping("/admission")
+public class AdmissionController {
+
+	private final ObjectProvider<AdmissionFilter> admissionFilter;
+
+	public AdmissionController(ObjectProvider<AdmissionFilter> admissionFilter) {
+		this.admissionFilter = admissionFilter;
+	}
+
+	/**
+	 * Current limit, requests in flight, and admitted and shed counts per endpoint group;
+	 * empty when admission control is disabled.
+	 */
+	@GetMapping(value = "/metrics")
+	public ResponseEntity<ApiResponse<List<AdmissionMetrics>>> getMetrics() {
+		AdmissionFilter filter = admissionFilter.getIfAvailable();
+		return ResponseEntity.ok(new ApiResponse<>(200, "Admission Metrics Found",
+				filter == null ? List.of() : filter.metrics()));
+	}
+}
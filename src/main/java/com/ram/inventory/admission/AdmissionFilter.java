@@ -0,0 +1,87 @@
+package com.ram.inventory.admission;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ram.inventory.util.ApiResponse;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admits each request against the adaptive limit of its endpoint group and sheds the
+ * excess with a fast 429 and Retry-After, before it can take a database connection. The
+ * groups have separate limits, so a rush of orders cannot starve reads. The admission
+ * metrics themselves are never limited.
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    static final String ORDERS = "orders";
+    static final String WRITES = "writes";
+    static final String READS = "reads";
+
+    private final Map<String, AdaptiveLimit> limits;
+    private final String retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+
+    public AdmissionFilter(AdmissionProperties properties, ObjectMapper objectMapper) {
+        this.limits = Map.of(
+                ORDERS, properties.getOrders().toLimit(),
+                WRITES, properties.getWrites().toLimit(),
+                READS, properties.getReads().toLimit());
+        this.retryAfterSeconds = Long.toString(Math.max(1, properties.getRetryAfter().toSeconds()));
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/admission");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdaptiveLimit limit = limits.get(group(request));
+        if (!limit.tryAcquire()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", retryAfterSeconds);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ApiResponse<>(429, "Too many requests, please retry later", null));
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limit.release(System.nanoTime() - start);
+        }
+    }
+
+    List<AdmissionMetrics> metrics() {
+        return List.of(ORDERS, WRITES, READS).stream()
+                .map(group -> {
+                    AdaptiveLimit limit = limits.get(group);
+                    return new AdmissionMetrics(group, limit.getLimit(), limit.getInFlight(), limit.getAdmitted(),
+                            limit.getShed());
+                })
+                .toList();
+    }
+
+    static String group(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS")) {
+            return READS;
+        }
+        String path = request.getRequestURI();
+        return path.startsWith("/order") || path.startsWith("/reservation") ? ORDERS : WRITES;
+    }
+}
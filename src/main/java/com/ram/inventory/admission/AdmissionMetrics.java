@@ -0,0 +1,8 @@
+package com.ram.inventory.admission;
+
+/**
+ * The current limit of an endpoint group, the requests it is running, and how many it
+ * admitted and shed since startup.
+ */
+public record AdmissionMetrics(String group, int limit, int inFlight, long admitted, long shed) {
+}
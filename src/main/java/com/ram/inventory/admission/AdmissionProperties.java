@@ -0,0 +1,42 @@
+package com.ram.inventory.admission;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Concurrency limits of the endpoint groups. Each group starts at its initial limit and
+ * adapts between min and max to keep its requests within the latency target.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+    /** Sent as Retry-After with every shed request, and with every other 429. */
+    private Duration retryAfter = Duration.ofSeconds(1);
+    /** Orders, carts and reservations. */
+    private Group orders = new Group(20, 2, 200, Duration.ofMillis(250));
+    /** Every other mutating request. */
+    private Group writes = new Group(20, 2, 200, Duration.ofMillis(250));
+    /** GET and HEAD requests, so reads keep capacity while writes are shed. */
+    private Group reads = new Group(50, 5, 500, Duration.ofMillis(500));
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Group {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+        private Duration latencyTarget;
+
+        AdaptiveLimit toLimit() {
+            return new AdaptiveLimit(initialLimit, minLimit, maxLimit, latencyTarget.toNanos());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.ram.inventory.alert;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * One alert stream consumer with a bounded, coalescing buffer.
+ *
+ * Publishing never blocks: a newer alert for a product already waiting in the buffer
+ * replaces the older one, and when the buffer is full the oldest pending alert is
+ * dropped. A single drain task per subscriber writes pending alerts to the sink.
+ */
+class AlertSubscriber {
+
+    interface Sink {
+        void send(LowStockAlert alert) throws IOException;
+    }
+
+    private final Sink sink;
+    private final int capacity;
+    private final Executor executor;
+    private final Consumer<AlertSubscriber> onFailure;
+    private final LinkedHashMap<UUID, LowStockAlert> pending = new LinkedHashMap<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean closed;
+
+    AlertSubscriber(Sink sink, int capacity, Executor executor, Consumer<AlertSubscriber> onFailure) {
+        this.sink = sink;
+        this.capacity = capacity;
+        this.executor = executor;
+        this.onFailure = onFailure;
+    }
+
+    void offer(LowStockAlert alert) {
+        if (closed) {
+            return;
+        }
+        synchronized (pending) {
+            if (pending.containsKey(alert.getProductId())) {
+                coalesced.incrementAndGet();
+            } else if (pending.size() >= capacity) {
+                Iterator<UUID> oldest = pending.keySet().iterator();
+                oldest.next();
+                oldest.remove();
+                dropped.incrementAndGet();
+            }
+            pending.put(alert.getProductId(), alert);
+        }
+        scheduleDrain();
+    }
+
+    void close() {
+        closed = true;
+        synchronized (pending) {
+            pending.clear();
+        }
+    }
+
+    long getCoalesced() {
+        return coalesced.get();
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            LowStockAlert alert;
+            while (!closed && (alert = poll()) != null) {
+                sink.send(alert);
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            onFailure.accept(this);
+        } finally {
+            draining.set(false);
+        }
+        if (!closed && hasPending()) {
+            scheduleDrain();
+        }
+    }
+
+    private LowStockAlert poll() {
+        synchronized (pending) {
+            Iterator<Map.Entry<UUID, LowStockAlert>> iterator = pending.entrySet().iterator();
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            LowStockAlert alert = iterator.next().getValue();
+            iterator.remove();
+            return alert;
+        }
+    }
+
+    private boolean hasPending() {
+        synchronized (pending) {
+            return !pending.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ram.inventory.alert;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockAlert {
+    private UUID productId;
+    private String productName;
+    private int currentQuantity;
+    private int reorderThreshold;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,23 @@
+package com.ram.inventory.alert;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/alert")
+public class LowStockAlertController {
+
+	private final LowStockAlertService alertService;
+
+	public LowStockAlertController(LowStockAlertService alertService) {
+		this.alertService = alertService;
+	}
+
+	@GetMapping(value = "/low-stock", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamLowStockAlerts() {
+		return alertService.subscribe();
+	}
+}
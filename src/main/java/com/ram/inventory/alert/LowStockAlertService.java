@@ -0,0 +1,85 @@
+package com.ram.inventory.alert;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.ram.inventory.product.StockLevelChangedEvent;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Detects reorder-threshold crossings from committed stock changes and fans the
+ * resulting alerts out to Server-Sent Event subscribers.
+ */
+@Slf4j
+@Service
+public class LowStockAlertService {
+
+    private final Set<AlertSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final int bufferSize;
+    private final long timeoutMillis;
+
+    public LowStockAlertService(@Value("${inventory.alerts.buffer-size:256}") int bufferSize,
+            @Value("${inventory.alerts.sse-timeout-ms:1800000}") long timeoutMillis) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        if (event.crossedBelowThreshold()) {
+            publish(new LowStockAlert(event.getProductId(), event.getProductName(), event.getCurrentQuantity(),
+                    event.getReorderThreshold(), LocalDateTime.now()));
+        }
+    }
+
+    SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        AlertSubscriber subscriber = new AlertSubscriber(
+                alert -> emitter.send(SseEmitter.event().name("low-stock").data(alert, MediaType.APPLICATION_JSON)),
+                bufferSize, senders, this::unsubscribe);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        register(subscriber);
+        return emitter;
+    }
+
+    void register(AlertSubscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    void publish(LowStockAlert alert) {
+        for (AlertSubscriber subscriber : subscribers) {
+            subscriber.offer(alert);
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void unsubscribe(AlertSubscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.close();
+            log.debug("Low stock subscriber left after {} coalesced and {} dropped alerts",
+                    subscriber.getCoalesced(), subscriber.getDropped());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+    }
+}
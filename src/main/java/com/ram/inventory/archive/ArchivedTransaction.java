@@ -0,0 +1,13 @@
+package com.ram.inventory.archive;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.ram.inventory.inventorytransaction.InventoryTransactionType;
+
+/**
+ * An inventory transaction as it is kept in an archive segment.
+ */
+public record ArchivedTransaction(UUID transactionId, UUID productId, InventoryTransactionType type, int quantity,
+        LocalDateTime createdAt) {
+}
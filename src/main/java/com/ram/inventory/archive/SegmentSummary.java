@@ -0,0 +1,22 @@
+package com.ram.inventory.archive;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Header of a segment file: its row count and the time and productId range it covers.
+ * Queries skip segments whose ranges cannot match without decompressing anything.
+ */
+public record SegmentSummary(Path file, int rows, LocalDateTime minCreatedAt, LocalDateTime maxCreatedAt,
+        UUID minProductId, UUID maxProductId) {
+
+    boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        return !maxCreatedAt.isBefore(from) && minCreatedAt.isBefore(to);
+    }
+
+    boolean mayContainProduct(UUID productId) {
+        return TransactionSegment.compare(productId, minProductId) >= 0
+                && TransactionSegment.compare(productId, maxProductId) <= 0;
+    }
+}
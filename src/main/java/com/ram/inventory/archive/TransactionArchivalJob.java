@@ -0,0 +1,141 @@
+package com.ram.inventory.archive;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ram.inventory.inventorytransaction.InventoryTransactionRepository;
+import com.ram.inventory.shard.ShardRouter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves inventory transactions older than the retention period out of the database into
+ * archive segments, one segment per batch and shard.
+ * <p>
+ * A batch is first written to a pending segment, then deleted from the database in one
+ * transaction, and only then published. A run that dies in between leaves a pending
+ * segment behind; the next run publishes it if its rows are gone from the database and
+ * discards it otherwise, so no row is ever lost or visible twice.
+ */
+@Slf4j
+@Component
+public class TransactionArchivalJob {
+
+    private static final int DELETE_CHUNK = 1000;
+
+    private final TransactionArchive archive;
+    private final InventoryTransactionRepository inventoryTransactionRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transaction;
+    private final Duration retention;
+    private final int segmentRows;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public TransactionArchivalJob(TransactionArchive archive,
+            InventoryTransactionRepository inventoryTransactionRepository, ShardRouter shardRouter,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.archive.retention:90d}") Duration retention,
+            @Value("${inventory.archive.segment-rows:50000}") int segmentRows) {
+        this.archive = archive;
+        this.inventoryTransactionRepository = inventoryTransactionRepository;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.segmentRows = segmentRows;
+    }
+
+    @Scheduled(cron = "${inventory.archive.cron:0 30 2 * * *}")
+    public void archiveExpired() {
+        archiveOlderThan(LocalDateTime.now().minus(retention));
+    }
+
+    /**
+     * Archives every transaction created before the cutoff and returns how many were moved.
+     */
+    public int archiveOlderThan(LocalDateTime cutoff) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Archival already running, skipping");
+            return 0;
+        }
+        try {
+            return archive.exclusively(() -> {
+                recoverPending();
+                int archived = 0;
+                for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                    archived += archiveShard(shard, cutoff);
+                }
+                if (archived > 0) {
+                    log.info("Archived {} inventory transactions created before {}", archived, cutoff);
+                }
+                return archived;
+            });
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int archiveShard(int shard, LocalDateTime cutoff) {
+        int archived = 0;
+        while (true) {
+            List<ArchivedTransaction> rows = shardRouter.onShard(shard, () -> transaction.execute(status ->
+                    inventoryTransactionRepository.findArchivable(cutoff, Limit.of(segmentRows)).stream()
+                            .map(row -> new ArchivedTransaction(row.getTransactionId(), row.getProductId(),
+                                    row.getType(), row.getQuantity(), row.getCreatedAt()))
+                            .toList()));
+            if (rows.isEmpty()) {
+                return archived;
+            }
+            Path pending = archive.stage(rows);
+            try {
+                shardRouter.runOnShard(shard, () -> transaction.executeWithoutResult(status -> delete(rows)));
+            } catch (RuntimeException e) {
+                archive.discard(pending);
+                throw e;
+            }
+            archive.publish(pending);
+            archived += rows.size();
+            if (rows.size() < segmentRows) {
+                return archived;
+            }
+        }
+    }
+
+    private void delete(List<ArchivedTransaction> rows) {
+        List<UUID> ids = rows.stream().map(ArchivedTransaction::transactionId).toList();
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += DELETE_CHUNK) {
+            deleted += inventoryTransactionRepository
+                    .deleteAllByIdIn(ids.subList(from, Math.min(ids.size(), from + DELETE_CHUNK)));
+        }
+        if (deleted != ids.size()) {
+            // a row went away while the segment was written; try again on the next run
+            throw new IllegalStateException("Expected to archive " + ids.size() + " transactions but deleted " + deleted);
+        }
+    }
+
+    private void recoverPending() {
+        for (Path pending : archive.pending()) {
+            ArchivedTransaction first = archive.read(pending).get(0);
+            boolean stillInDatabase = shardRouter.onShard(shardRouter.shardFor(first.productId()),
+                    () -> transaction.execute(status -> inventoryTransactionRepository.existsById(first.transactionId())));
+            if (stillInDatabase) {
+                log.warn("Discarding archive segment {} whose rows were not deleted", pending);
+                archive.discard(pending);
+            } else {
+                log.warn("Publishing archive segment {} left by an interrupted run", pending);
+                archive.publish(pending);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.ram.inventory.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The cold tier of the inventory transaction history: a directory of immutable segment
+ * files. A segment is written under a {@code .pending} name first and only becomes visible
+ * to queries once {@link #publish(Path)} renames it, after its rows have left the database.
+ * <p>
+ * The summaries of all published segments stay in memory, so a query opens only the
+ * segments whose time and productId ranges can match.
+ */
+@Slf4j
+@Component
+public class TransactionArchive {
+
+    static final String SEGMENT_SUFFIX = ".seg";
+    static final String PENDING_SUFFIX = ".pending";
+
+    private final Path directory;
+    private final List<TransactionSegment> segments = new CopyOnWriteArrayList<>();
+    private final ReentrantLock maintenance = new ReentrantLock();
+
+    public TransactionArchive(@Value("${inventory.archive.directory:data/archive}") Path directory) {
+        this.directory = directory;
+    }
+
+    @PostConstruct
+    void load() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> file.toString().endsWith(SEGMENT_SUFFIX)).sorted().toList()) {
+                segments.add(TransactionSegment.open(file));
+            }
+        }
+        log.info("Loaded {} archived transactions from {} segments in {}", rows(), segments.size(), directory);
+    }
+
+    /**
+     * Runs work while no other job moves rows between the database and the archive. While
+     * a batch is being archived its rows are briefly in neither place.
+     */
+    public <T> T exclusively(Supplier<T> work) {
+        maintenance.lock();
+        try {
+            return work.get();
+        } finally {
+            maintenance.unlock();
+        }
+    }
+
+    /**
+     * Writes rows to a pending segment that queries do not see yet.
+     */
+    public Path stage(List<ArchivedTransaction> transactions) {
+        try {
+            Files.createDirectories(directory);
+            Path pending = directory.resolve(
+                    "segment-" + System.currentTimeMillis() + "-" + UUID.randomUUID() + PENDING_SUFFIX);
+            TransactionSegment.write(pending, transactions);
+            return pending;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write archive segment", e);
+        }
+    }
+
+    /**
+     * Atomically renames a pending segment to its final name and adds it to the queried
+     * segments.
+     */
+    public SegmentSummary publish(Path pending) {
+        String name = pending.getFileName().toString();
+        Path published = pending.resolveSibling(
+                name.substring(0, name.length() - PENDING_SUFFIX.length()) + SEGMENT_SUFFIX);
+        try {
+            Files.move(pending, published, StandardCopyOption.ATOMIC_MOVE);
+            TransactionSegment segment = TransactionSegment.open(published);
+            segments.add(segment);
+            return segment.summary();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not publish archive segment " + pending, e);
+        }
+    }
+
+    public void discard(Path pending) {
+        try {
+            Files.deleteIfExists(pending);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete archive segment " + pending, e);
+        }
+    }
+
+    /**
+     * Segments staged by a run that did not finish.
+     */
+    public List<Path> pending() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(PENDING_SUFFIX)).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list " + directory, e);
+        }
+    }
+
+    /**
+     * Reads the rows of a segment that has not been published.
+     */
+    public List<ArchivedTransaction> read(Path pending) {
+        try {
+            List<ArchivedTransaction> rows = new ArrayList<>();
+            TransactionSegment.open(pending).forEach(rows::add);
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archive segment " + pending, e);
+        }
+    }
+
+    /**
+     * Archived transactions of a product created in {@code [from, to)}, oldest first.
+     */
+    public List<ArchivedTransaction> findByProduct(UUID productId, LocalDateTime from, LocalDateTime to) {
+        List<ArchivedTransaction> result = new ArrayList<>();
+        for (TransactionSegment segment : segments) {
+            result.addAll(segment.findByProduct(productId, from, to));
+        }
+        result.sort(Comparator.comparing(ArchivedTransaction::createdAt));
+        return result;
+    }
+
+    public Optional<ArchivedTransaction> findById(UUID transactionId) {
+        for (TransactionSegment segment : segments) {
+            Optional<ArchivedTransaction> transaction = segment.findById(transactionId);
+            if (transaction.isPresent()) {
+                return transaction;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Streams every archived transaction, segment by segment.
+     */
+    public void forEach(Consumer<ArchivedTransaction> consumer) {
+        segments.forEach(segment -> segment.forEach(consumer));
+    }
+
+    public List<SegmentSummary> segments() {
+        return segments.stream().map(TransactionSegment::summary).toList();
+    }
+
+    public long rows() {
+        return segments.stream().mapToLong(segment -> segment.summary().rows()).sum();
+    }
+}
@@ -0,0 +1,447 @@
+package com.ram.inventory.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.ram.inventory.inventorytransaction.InventoryTransactionType;
+
+/**
+ * An immutable, column-oriented file of archived inventory transactions.
+ * <p>
+ * Rows are sorted by productId and creation time, so all rows of a product form one run.
+ * Every column is stored as its own Deflate block: the productIds as a dictionary of runs,
+ * creation times as varint deltas in microseconds, signed quantities as zigzag varints,
+ * types as one code byte each and transaction ids as raw 16 bytes. A header in front of the columns
+ * holds the {@link SegmentSummary} ranges and a Bloom filter over the transaction ids,
+ * which is left uncompressed so lookups by id probe it straight from the mapping.
+ * <p>
+ * Readers map the file read-only and inflate a column only when a query needs it. Version 1
+ * files, written before quantities could be negative, hold quantities as plain varints and
+ * are still read.
+ */
+final class TransactionSegment {
+
+    static final int MAGIC = 0x494E5653;
+    static final int VERSION = 2;
+    private static final int UNSIGNED_QUANTITIES = 1;
+
+    private static final int PRODUCT = 0;
+    private static final int CREATED_AT = 1;
+    private static final int QUANTITY = 2;
+    private static final int TYPE = 3;
+    private static final int TRANSACTION_ID = 4;
+    private static final int ID_BLOOM = 5;
+    private static final int COLUMNS = 6;
+
+    private static final byte STORED = 0;
+    private static final byte DEFLATED = 1;
+
+    private static final int FIXED_HEADER = 4 + 4 + 4 + 8 + 8 + 4 * 8;
+    private static final int DIRECTORY_ENTRY = 8 + 4 + 4 + 1;
+    private static final int HEADER = FIXED_HEADER + COLUMNS * DIRECTORY_ENTRY;
+    private static final int BLOOM_BITS_PER_ROW = 10;
+    private static final int BLOOM_HASHES = 3;
+
+    private static final Comparator<ArchivedTransaction> ROW_ORDER = Comparator
+            .comparing(ArchivedTransaction::productId, TransactionSegment::compare)
+            .thenComparing(ArchivedTransaction::createdAt)
+            .thenComparing(ArchivedTransaction::transactionId, TransactionSegment::compare);
+
+    private final SegmentSummary summary;
+    private final MappedByteBuffer buffer;
+    private final int version;
+    private final long[] offsets = new long[COLUMNS];
+    private final int[] storedLengths = new int[COLUMNS];
+    private final int[] rawLengths = new int[COLUMNS];
+    private final byte[] codecs = new byte[COLUMNS];
+
+    private TransactionSegment(Path file, MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        this.version = buffer.getInt(4);
+        if (buffer.getInt(0) != MAGIC || version < UNSIGNED_QUANTITIES || version > VERSION) {
+            throw new IllegalStateException("Not a transaction segment: " + file);
+        }
+        int rows = buffer.getInt(8);
+        LocalDateTime minCreatedAt = fromMicros(buffer.getLong(12));
+        LocalDateTime maxCreatedAt = fromMicros(buffer.getLong(20));
+        UUID minProductId = new UUID(buffer.getLong(28), buffer.getLong(36));
+        UUID maxProductId = new UUID(buffer.getLong(44), buffer.getLong(52));
+        for (int column = 0; column < COLUMNS; column++) {
+            int entry = FIXED_HEADER + column * DIRECTORY_ENTRY;
+            offsets[column] = buffer.getLong(entry);
+            storedLengths[column] = buffer.getInt(entry + 8);
+            rawLengths[column] = buffer.getInt(entry + 12);
+            codecs[column] = buffer.get(entry + 16);
+        }
+        this.summary = new SegmentSummary(file, rows, minCreatedAt, maxCreatedAt, minProductId, maxProductId);
+    }
+
+    /**
+     * Maps an existing segment file. The mapping stays valid after the channel is closed.
+     */
+    static TransactionSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new TransactionSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes the rows to a new file and forces it to disk. The file must not exist yet.
+     */
+    static void write(Path file, List<ArchivedTransaction> transactions) throws IOException {
+        if (transactions.isEmpty()) {
+            throw new IllegalArgumentException("A segment needs at least one row");
+        }
+        List<ArchivedTransaction> rows = new ArrayList<>(transactions);
+        rows.sort(ROW_ORDER);
+
+        ByteArrayOutputStream products = new ByteArrayOutputStream();
+        ByteArrayOutputStream createdAt = new ByteArrayOutputStream();
+        ByteArrayOutputStream quantities = new ByteArrayOutputStream();
+        byte[] types = new byte[rows.size()];
+        ByteBuffer transactionIds = ByteBuffer.allocate(rows.size() * 16);
+        long[] bloom = new long[Math.max(1, (rows.size() * BLOOM_BITS_PER_ROW + 63) / 64)];
+
+        List<UUID> dictionary = new ArrayList<>();
+        List<Integer> runs = new ArrayList<>();
+        long previousMicros = 0;
+        long minMicros = Long.MAX_VALUE;
+        long maxMicros = Long.MIN_VALUE;
+        for (int i = 0; i < rows.size(); i++) {
+            ArchivedTransaction row = rows.get(i);
+            if (dictionary.isEmpty() || !dictionary.get(dictionary.size() - 1).equals(row.productId())) {
+                dictionary.add(row.productId());
+                runs.add(0);
+            }
+            runs.set(runs.size() - 1, runs.get(runs.size() - 1) + 1);
+
+            long micros = toMicros(row.createdAt());
+            writeVarLong(createdAt, (micros - previousMicros) << 1 ^ (micros - previousMicros) >> 63);
+            previousMicros = micros;
+            minMicros = Math.min(minMicros, micros);
+            maxMicros = Math.max(maxMicros, micros);
+
+            writeVarLong(quantities, (long) row.quantity() << 1 ^ row.quantity() >> 31);
+            types[i] = (byte) row.type().getCode().charAt(0);
+            transactionIds.putLong(row.transactionId().getMostSignificantBits())
+                    .putLong(row.transactionId().getLeastSignificantBits());
+            addToBloom(bloom, row.transactionId());
+        }
+        writeVarLong(products, dictionary.size());
+        ByteBuffer id = ByteBuffer.allocate(16);
+        for (int i = 0; i < dictionary.size(); i++) {
+            id.clear();
+            id.putLong(dictionary.get(i).getMostSignificantBits()).putLong(dictionary.get(i).getLeastSignificantBits());
+            products.write(id.array(), 0, 16);
+            writeVarLong(products, runs.get(i));
+        }
+        ByteBuffer bloomBytes = ByteBuffer.allocate(bloom.length * 8);
+        bloomBytes.asLongBuffer().put(bloom);
+
+        byte[][] raw = { products.toByteArray(), createdAt.toByteArray(), quantities.toByteArray(), types,
+                transactionIds.array(), bloomBytes.array() };
+        byte[][] stored = new byte[COLUMNS][];
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        UUID minProductId = dictionary.get(0);
+        UUID maxProductId = dictionary.get(dictionary.size() - 1);
+        header.putInt(MAGIC).putInt(VERSION).putInt(rows.size())
+                .putLong(minMicros).putLong(maxMicros)
+                .putLong(minProductId.getMostSignificantBits()).putLong(minProductId.getLeastSignificantBits())
+                .putLong(maxProductId.getMostSignificantBits()).putLong(maxProductId.getLeastSignificantBits());
+        long offset = HEADER;
+        for (int column = 0; column < COLUMNS; column++) {
+            byte codec = column == ID_BLOOM ? STORED : DEFLATED;
+            stored[column] = codec == STORED ? raw[column] : deflate(raw[column]);
+            header.putLong(offset).putInt(stored[column].length).putInt(raw[column].length).put(codec);
+            offset += stored[column].length;
+        }
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            writeFully(channel, header);
+            for (byte[] column : stored) {
+                writeFully(channel, ByteBuffer.wrap(column));
+            }
+            channel.force(true);
+        }
+    }
+
+    SegmentSummary summary() {
+        return summary;
+    }
+
+    /**
+     * Returns the rows of one product created in {@code [from, to)}, oldest first.
+     */
+    List<ArchivedTransaction> findByProduct(UUID productId, LocalDateTime from, LocalDateTime to) {
+        if (!summary.mayContainProduct(productId) || !summary.overlaps(from, to)) {
+            return List.of();
+        }
+        ProductRuns products = readProducts();
+        int index = products.indexOf(productId);
+        if (index < 0) {
+            return List.of();
+        }
+        int start = products.starts[index];
+        int end = start + products.lengths[index];
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+
+        ByteBuffer createdAt = column(CREATED_AT);
+        ByteBuffer quantities = column(QUANTITY);
+        ByteBuffer types = column(TYPE);
+        ByteBuffer transactionIds = column(TRANSACTION_ID);
+        List<ArchivedTransaction> result = new ArrayList<>();
+        long micros = 0;
+        for (int row = 0; row < end; row++) {
+            micros += zigZag(readVarLong(createdAt));
+            int quantity = readQuantity(quantities);
+            if (row >= start && micros >= fromMicros && micros < toMicros) {
+                result.add(row(transactionIds, row, productId, types, quantity, micros));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Looks one transaction up by id. The Bloom filter rules most segments out without
+     * inflating any column.
+     */
+    Optional<ArchivedTransaction> findById(UUID transactionId) {
+        if (!mightContain(transactionId)) {
+            return Optional.empty();
+        }
+        ByteBuffer transactionIds = column(TRANSACTION_ID);
+        int match = -1;
+        for (int row = 0; row < summary.rows(); row++) {
+            if (transactionIds.getLong(row * 16) == transactionId.getMostSignificantBits()
+                    && transactionIds.getLong(row * 16 + 8) == transactionId.getLeastSignificantBits()) {
+                match = row;
+                break;
+            }
+        }
+        if (match < 0) {
+            return Optional.empty();
+        }
+        ProductRuns products = readProducts();
+        ByteBuffer createdAt = column(CREATED_AT);
+        ByteBuffer quantities = column(QUANTITY);
+        long micros = 0;
+        int quantity = 0;
+        for (int row = 0; row <= match; row++) {
+            micros += zigZag(readVarLong(createdAt));
+            quantity = readQuantity(quantities);
+        }
+        return Optional.of(row(transactionIds, match, products.productAt(match), column(TYPE), quantity, micros));
+    }
+
+    /**
+     * Streams every row in file order, that is by productId and creation time.
+     */
+    void forEach(Consumer<ArchivedTransaction> consumer) {
+        ProductRuns products = readProducts();
+        ByteBuffer createdAt = column(CREATED_AT);
+        ByteBuffer quantities = column(QUANTITY);
+        ByteBuffer types = column(TYPE);
+        ByteBuffer transactionIds = column(TRANSACTION_ID);
+        long micros = 0;
+        int row = 0;
+        for (int run = 0; run < products.ids.length; run++) {
+            for (int i = 0; i < products.lengths[run]; i++, row++) {
+                micros += zigZag(readVarLong(createdAt));
+                int quantity = readQuantity(quantities);
+                consumer.accept(row(transactionIds, row, products.ids[run], types, quantity, micros));
+            }
+        }
+    }
+
+    boolean mightContain(UUID transactionId) {
+        int words = rawLengths[ID_BLOOM] / 8;
+        long base = offsets[ID_BLOOM];
+        long hash = mix(transactionId);
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            long bit = Math.floorMod(hash + i * (hash >>> 32 | 1), (long) words * 64);
+            if ((buffer.getLong((int) (base + bit / 64 * 8)) & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Orders UUIDs by their unsigned bytes, the order of the database and of the files.
+     */
+    static int compare(UUID left, UUID right) {
+        int result = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return result != 0 ? result : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    }
+
+    private static ArchivedTransaction row(ByteBuffer transactionIds, int row, UUID productId, ByteBuffer types,
+            int quantity, long micros) {
+        UUID transactionId = new UUID(transactionIds.getLong(row * 16), transactionIds.getLong(row * 16 + 8));
+        return new ArchivedTransaction(transactionId, productId, type(types.get(row)), quantity, fromMicros(micros));
+    }
+
+    private static InventoryTransactionType type(byte code) {
+        for (InventoryTransactionType type : InventoryTransactionType.values()) {
+            if (type.getCode().charAt(0) == code) {
+                return type;
+            }
+        }
+        throw new IllegalStateException("Unknown transaction type code " + (char) code);
+    }
+
+    private int readQuantity(ByteBuffer quantities) {
+        long value = readVarLong(quantities);
+        return (int) (version == UNSIGNED_QUANTITIES ? value : zigZag(value));
+    }
+
+    private ProductRuns readProducts() {
+        ByteBuffer products = column(PRODUCT);
+        int count = (int) readVarLong(products);
+        UUID[] ids = new UUID[count];
+        int[] starts = new int[count];
+        int[] lengths = new int[count];
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            ids[i] = new UUID(products.getLong(), products.getLong());
+            starts[i] = start;
+            lengths[i] = (int) readVarLong(products);
+            start += lengths[i];
+        }
+        return new ProductRuns(ids, starts, lengths);
+    }
+
+    private ByteBuffer column(int column) {
+        ByteBuffer stored = buffer.slice((int) offsets[column], storedLengths[column]);
+        if (codecs[column] == STORED) {
+            return stored;
+        }
+        byte[] raw = new byte[rawLengths[column]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int read = inflater.inflate(raw, length, raw.length - length);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += read;
+            }
+            if (length != raw.length) {
+                throw new IllegalStateException("Truncated column " + column + " in " + summary.file());
+            }
+            return ByteBuffer.wrap(raw);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt column " + column + " in " + summary.file(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 2));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void addToBloom(long[] bloom, UUID transactionId) {
+        long hash = mix(transactionId);
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            long bit = Math.floorMod(hash + i * (hash >>> 32 | 1), (long) bloom.length * 64);
+            bloom[(int) (bit / 64)] |= 1L << bit;
+        }
+    }
+
+    private static long mix(UUID id) {
+        long h = id.getMostSignificantBits() * 31 + id.getLeastSignificantBits();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0;; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static long zigZag(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * The productId dictionary: one entry per run of rows, in file order.
+     */
+    private record ProductRuns(UUID[] ids, int[] starts, int[] lengths) {
+
+        int indexOf(UUID productId) {
+            int index = Arrays.binarySearch(ids, productId, TransactionSegment::compare);
+            return index < 0 ? -1 : index;
+        }
+
+        UUID productAt(int row) {
+            int index = Arrays.binarySearch(starts, row);
+            return ids[index >= 0 ? index : -index - 2];
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.ram.inventory.changefeed;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A page of the change feed. {@code epoch} changes whenever the feed is reset (e.g. on
+ * restart); a consumer seeing a new epoch must resynchronise instead of resuming.
+ * {@code nextSince} is the cursor to pass on the following request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeBatch {
+    private String epoch;
+    private List<ChangeRecord> changes;
+    private long nextSince;
+    private boolean hasMore;
+}
@@ -0,0 +1,53 @@
+package com.ram.inventory.changefeed;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.ram.inventory.util.ApiResponse;
+
+@RestController
+@RequestMapping("/changes")
+public class ChangeFeedController {
+
+	static final long MAX_WAIT_MILLIS = 60_000;
+
+	private final ChangeFeedService changeFeedService;
+
+	public ChangeFeedController(ChangeFeedService changeFeedService) {
+		this.changeFeedService = changeFeedService;
+	}
+
+	@GetMapping
+	public ResponseEntity<ApiResponse<ChangeBatch>> getChanges(
+			@RequestParam(defaultValue = "0") long since,
+			@RequestParam(defaultValue = "100") int limit) {
+		return ResponseEntity
+				.ok(new ApiResponse<>(200, "Changes Found", changeFeedService.getChanges(since, limit)));
+	}
+
+	/**
+	 * Long-poll variant: holds the request until a change after {@code since} is committed
+	 * or {@code waitMillis} elapses, in which case an empty batch is returned.
+	 */
+	@GetMapping(value = "/poll")
+	public DeferredResult<ResponseEntity<ApiResponse<ChangeBatch>>> pollChanges(
+			@RequestParam(defaultValue = "0") long since,
+			@RequestParam(defaultValue = "100") int limit,
+			@RequestParam(defaultValue = "30000") long waitMillis) {
+		long timeout = Math.min(Math.max(waitMillis, 1), MAX_WAIT_MILLIS);
+		DeferredResult<ResponseEntity<ApiResponse<ChangeBatch>>> result = new DeferredResult<>(timeout);
+		Runnable cancel = changeFeedService.awaitChanges(since, limit,
+				batch -> result.setResult(ResponseEntity.ok(new ApiResponse<>(200, "Changes Found", batch))));
+		result.onTimeout(() -> {
+			cancel.run();
+			result.setResult(ResponseEntity
+					.ok(new ApiResponse<>(200, "No Changes", changeFeedService.getChanges(since, limit))));
+		});
+		result.onCompletion(cancel);
+		return result;
+	}
+}
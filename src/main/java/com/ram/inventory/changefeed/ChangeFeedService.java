@@ -0,0 +1,139 @@
+package com.ram.inventory.changefeed;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.product.ProductChangedEvent;
+import com.ram.inventory.product.StockLevelChangedEvent;
+
+/**
+ * In-memory feed of committed catalog and stock changes.
+ *
+ * Records are appended after their transaction commits and get the next sequence number
+ * at that point, so sequence order equals visibility order and a consumer resuming from
+ * its last sequence never misses a record. The most recent {@code capacity} records are
+ * kept in a ring; older cursors get 410 and must resynchronise from the product list.
+ */
+@Service
+public class ChangeFeedService {
+
+    static final int MAX_LIMIT = 1000;
+
+    private final ChangeRecord[] ring;
+    private final int mask;
+    private final String epoch = UUID.randomUUID().toString();
+    private final List<Waiter> waiters = new ArrayList<>();
+    private long lastSequence;
+
+    public ChangeFeedService(@Value("${inventory.changes.capacity:65536}") int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.ring = new ChangeRecord[size];
+        this.mask = size - 1;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        append(typeOf(event), event.getProductId(), event.getReferenceId(), event.getDelta(),
+                event.getCurrentQuantity());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ChangeType type = switch (event.getType()) {
+            case CREATED -> ChangeType.PRODUCT_CREATED;
+            case UPDATED -> ChangeType.PRODUCT_UPDATED;
+            case DELETED -> ChangeType.PRODUCT_DELETED;
+        };
+        append(type, event.getProductId(), null, null, null);
+    }
+
+    ChangeBatch getChanges(long since, int limit) {
+        int max = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        synchronized (this) {
+            long oldest = Math.max(1, lastSequence - ring.length + 1);
+            if (since < oldest - 1) {
+                throw new ApiException("Cursor " + since + " is older than the retained feed; resync required", 410);
+            }
+            List<ChangeRecord> changes = new ArrayList<>();
+            long sequence = Math.max(since, 0) + 1;
+            for (; sequence <= lastSequence && changes.size() < max; sequence++) {
+                changes.add(ring[(int) (sequence & mask)]);
+            }
+            long nextSince = changes.isEmpty() ? Math.max(since, 0) : changes.get(changes.size() - 1).getSequence();
+            return new ChangeBatch(epoch, changes, nextSince, nextSince < lastSequence);
+        }
+    }
+
+    /**
+     * Delivers the next batch after {@code since} to {@code callback}: immediately when
+     * records are already available, otherwise as soon as one is appended.
+     *
+     * @return a handle that removes the waiter, e.g. when the long-poll times out
+     */
+    Runnable awaitChanges(long since, int limit, Consumer<ChangeBatch> callback) {
+        Waiter waiter = new Waiter(since, limit, callback);
+        synchronized (this) {
+            if (lastSequence <= since) {
+                waiters.add(waiter);
+                return () -> {
+                    synchronized (this) {
+                        waiters.remove(waiter);
+                    }
+                };
+            }
+        }
+        callback.accept(getChanges(since, limit));
+        return () -> { };
+    }
+
+    long getLastSequence() {
+        synchronized (this) {
+            return lastSequence;
+        }
+    }
+
+    private void append(ChangeType type, UUID productId, UUID referenceId, Integer delta,
+            Integer currentQuantity) {
+        List<Waiter> ready = new ArrayList<>();
+        synchronized (this) {
+            long sequence = ++lastSequence;
+            ring[(int) (sequence & mask)] = new ChangeRecord(sequence, type, productId, referenceId, delta,
+                    currentQuantity, LocalDateTime.now());
+            Iterator<Waiter> iterator = waiters.iterator();
+            while (iterator.hasNext()) {
+                Waiter waiter = iterator.next();
+                if (waiter.since < sequence) {
+                    iterator.remove();
+                    ready.add(waiter);
+                }
+            }
+        }
+        for (Waiter waiter : ready) {
+            waiter.callback.accept(getChanges(waiter.since, waiter.limit));
+        }
+    }
+
+    private static ChangeType typeOf(StockLevelChangedEvent event) {
+        if (event.getReason() == null) {
+            return ChangeType.STOCK_ADJUSTED;
+        }
+        return switch (event.getReason()) {
+            case ORDER -> ChangeType.STOCK_ORDERED;
+            case TOPUP -> ChangeType.STOCK_TOPPED_UP;
+            case WITHDRAW -> ChangeType.STOCK_WITHDRAWN;
+            case ADJUSTMENT, RECONCILIATION, CORRECTION -> ChangeType.STOCK_ADJUSTED;
+        };
+    }
+
+    private record Waiter(long since, int limit, Consumer<ChangeBatch> callback) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.ram.inventory.changefeed;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeRecord {
+    private long sequence;
+    private ChangeType type;
+    private UUID productId;
+    private UUID referenceId;
+    private Integer quantityDelta;
+    private Integer currentQuantity;
+    private LocalDateTime occurredAt;
+}
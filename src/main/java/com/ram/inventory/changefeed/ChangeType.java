@@ -0,0 +1,11 @@
+package com.ram.inventory.changefeed;
+
+public enum ChangeType {
+    PRODUCT_CREATED,
+    PRODUCT_UPDATED,
+    PRODUCT_DELETED,
+    STOCK_ORDERED,
+    STOCK_TOPPED_UP,
+    STOCK_WITHDRAWN,
+    STOCK_ADJUSTED
+}
@@ -8,7 +8,16 @@ public class ApiException extends RuntimeException {
         this.status = status;
     }
 
+    /**
+     * For expected business rejections: without a stack trace the exception costs about as
+     * much as any other object to create.
+     */
+    protected ApiException(String message, int status, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.status = status;
+    }
+
     public int getStatus() {
         return status;
     }
-}
\ No newline at end of file
+}
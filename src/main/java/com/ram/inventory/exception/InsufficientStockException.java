@@ -0,0 +1,24 @@
+package com.ram.inventory.exception;
+
+import java.util.UUID;
+
+/**
+ * An order or withdrawal asked for more units than a product has available. Thrown on
+ * every rejected request of a sold-out product, so it carries no stack trace.
+ */
+public class InsufficientStockException extends ApiException {
+
+    private final Shortage shortage;
+
+    public InsufficientStockException(UUID productId, int requested, int available) {
+        super("Insufficient stock for product " + productId, 409, false);
+        this.shortage = new Shortage(productId, requested, available);
+    }
+
+    public Shortage getShortage() {
+        return shortage;
+    }
+
+    public record Shortage(UUID productId, int requested, int available) {
+    }
+}
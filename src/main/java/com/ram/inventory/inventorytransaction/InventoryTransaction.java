@@ -8,6 +8,7 @@ import com.ram.inventory.product.Product;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import lombok.AllArgsConstructor;
@@ -26,11 +27,17 @@ public class InventoryTransaction {
     private UUID transactionId;
 
     @ManyToOne
+    @JoinColumn(name = "product_id")
     private Product product;
 
     private InventoryTransactionType type;
 
     private int quantity;
+    /**
+     * Counts the edits of the transaction, its entity tag.
+     */
+    @Builder.Default
+    private Long version = 0L;
     private LocalDateTime createdAt;
 
     @PrePersist
@@ -1,17 +1,24 @@
 package com.ram.inventory.inventorytransaction;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ram.inventory.util.ApiResponse;
+import com.ram.inventory.util.ETags;
 import com.ram.inventory.util.PaginationResponse;
 
 @RestController
@@ -41,8 +48,20 @@ public class InventoryTransactionController {
 
     @GetMapping(value = "/get-transaction")
     public ResponseEntity<ApiResponse<InventoryTransactionDTO>> getTransaction(@RequestParam UUID id) throws Exception {
+        InventoryTransactionDTO transaction = transactionService.getTransaction(id);
+        return ResponseEntity.ok().eTag(ETags.of(transaction.getVersion()))
+				.body(new ApiResponse<>(200, "Transaction Found", transaction));
+    }
+
+    @GetMapping(value = "/history")
+    public ResponseEntity<ApiResponse<List<InventoryTransactionDTO>>> getHistory(@RequestParam UUID productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now().plusSeconds(1);
+        LocalDateTime start = from != null ? from : LocalDateTime.of(1970, 1, 1, 0, 0);
         return ResponseEntity
-				.ok(new ApiResponse<>(200, "Transaction Found", transactionService.getTransaction(id)));
+				.ok(new ApiResponse<>(200, "Transactions Found", transactionService.getHistory(productId, start, end, limit)));
     }
 
     @PostMapping(value = "/update")
@@ -51,6 +70,19 @@ public class InventoryTransactionController {
 				.ok(new ApiResponse<>(200, "Transaction Updated", transactionService.updateTransaction(product)));
     }
 
+    /**
+     * Changes only the fields given, if the transaction still has the version in If-Match.
+     */
+    @PatchMapping
+    public ResponseEntity<ApiResponse<InventoryTransactionDTO>> patchTransaction(@RequestParam UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody InventoryTransactionPatch patch) {
+        InventoryTransactionDTO transaction = transactionService.patchTransaction(id, patch,
+                ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(transaction.getVersion()))
+				.body(new ApiResponse<>(200, "Transaction Updated", transaction));
+    }
+
     @PostMapping(value = "/delete")
     public ResponseEntity<ApiResponse<String>> deleteTransaction(@RequestBody Map<String, String> request) throws Exception {
         transactionService.deleteTransaction(UUID.fromString(request.get("id")));
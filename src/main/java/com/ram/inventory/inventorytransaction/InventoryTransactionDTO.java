@@ -13,5 +13,6 @@ public class InventoryTransactionDTO {
     private Product product;
     private InventoryTransactionType type;
     private int quantity;
+    private Long version;
     private LocalDateTime createdAt;
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.ram.inventory.inventorytransaction;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.ram.inventory.exception.ApiException;
+
+import lombok.Data;
+
+/**
+ * The fields of a transaction to change; fields left out stay as they are.
+ */
+@Data
+public class InventoryTransactionPatch {
+
+    private InventoryTransactionType type;
+    private Integer quantity;
+
+    /**
+     * The transaction attributes to set. Whether the quantity suits the type is checked
+     * against the stored transaction, as either may be left unchanged.
+     */
+    Map<String, Object> changes() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (type != null) {
+            changes.put("type", type);
+        }
+        if (quantity != null) {
+            changes.put("quantity", quantity);
+        }
+        if (changes.isEmpty()) {
+            throw new ApiException("No change given", 400);
+        }
+        return changes;
+    }
+}
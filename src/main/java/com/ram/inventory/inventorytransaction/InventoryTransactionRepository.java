@@ -1,8 +1,52 @@
 package com.ram.inventory.inventorytransaction;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import jakarta.persistence.LockModeType;
+
 public interface InventoryTransactionRepository extends JpaRepository<InventoryTransaction, UUID> {
-}
\ No newline at end of file
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from InventoryTransaction t where t.transactionId = :id")
+    Optional<InventoryTransaction> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("select t from InventoryTransaction t where t.product.productId = :productId"
+            + " and t.createdAt >= :from and t.createdAt < :to order by t.createdAt")
+    List<InventoryTransaction> findHistory(@Param("productId") UUID productId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to, Limit limit);
+
+    /**
+     * The oldest transactions created before the cutoff, read without loading their products.
+     */
+    @Query("select t.transactionId as transactionId, t.product.productId as productId, t.type as type,"
+            + " t.quantity as quantity, t.createdAt as createdAt from InventoryTransaction t"
+            + " where t.createdAt < :cutoff order by t.createdAt, t.transactionId")
+    List<ArchivableTransaction> findArchivable(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Query("delete from InventoryTransaction t where t.transactionId in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
+
+    interface ArchivableTransaction {
+        UUID getTransactionId();
+
+        UUID getProductId();
+
+        InventoryTransactionType getType();
+
+        int getQuantity();
+
+        LocalDateTime getCreatedAt();
+    }
+}
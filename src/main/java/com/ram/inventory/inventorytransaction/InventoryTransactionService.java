@@ -1,9 +1,16 @@
 package com.ram.inventory.inventorytransaction;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -12,65 +19,154 @@ import org.springframework.data.util.Streamable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.ram.inventory.archive.ArchivedTransaction;
+import com.ram.inventory.archive.TransactionArchive;
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.exception.InsufficientStockException;
 import com.ram.inventory.exception.ResourceNotFoundException;
 import com.ram.inventory.product.Product;
 import com.ram.inventory.product.ProductRepository;
+import com.ram.inventory.product.StockChangeReason;
+import com.ram.inventory.product.StockLevelChangedEvent;
+import com.ram.inventory.product.StockWriteCombiner;
+import com.ram.inventory.shard.ShardRouter;
 import com.ram.inventory.util.PaginationResponse;
+import com.ram.inventory.util.PartialUpdates;
 
 @Service
 public class InventoryTransactionService {
 
+	static final int MAX_HISTORY = 10_000;
+
 	private final InventoryTransactionRepository inventoryTransactionRepository;
 	private final ProductRepository productRepository;
 	private final ModelMapper modelMapper;
+	private final ApplicationEventPublisher eventPublisher;
+	private final ShardRouter shardRouter;
+	private final TransactionArchive transactionArchive;
+	private final StockWriteCombiner stockWriteCombiner;
+	private final PartialUpdates partialUpdates;
 
 	public InventoryTransactionService(InventoryTransactionRepository inventoryTransactionRepository,
-			ProductRepository productRepository, ModelMapper modelMapper) {
+			ProductRepository productRepository, ModelMapper modelMapper, ApplicationEventPublisher eventPublisher,
+			ShardRouter shardRouter, TransactionArchive transactionArchive, StockWriteCombiner stockWriteCombiner,
+			PartialUpdates partialUpdates) {
 		this.inventoryTransactionRepository = inventoryTransactionRepository;
 		this.productRepository = productRepository;
 		this.modelMapper = modelMapper;
+		this.eventPublisher = eventPublisher;
+		this.shardRouter = shardRouter;
+		this.transactionArchive = transactionArchive;
+		this.stockWriteCombiner = stockWriteCombiner;
+		this.partialUpdates = partialUpdates;
 	}
 
-	@Transactional
+	/**
+	 * Applies a withdrawal or top-up through the {@link StockWriteCombiner}, which merges the
+	 * concurrent transactions of a hot product into one write.
+	 */
 	InventoryTransactionDTO createInventoryTransaction(InventoryTransactionRequest request) throws Exception {
-		Product product = productRepository.findById(request.getProductId())
-				.orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-		if (request.getType().equals("W") && product.getCurrentQuantity() >= request.getQuantity()) {
+		if (!"W".equals(request.getType()) && !"T".equals(request.getType())) {
+			throw new ResourceNotFoundException("Transaction Type missing");
+		}
+		return stockWriteCombiner.write(request.getProductId(), product -> apply(product, request));
+	}
+
+	private InventoryTransactionDTO apply(Product product, InventoryTransactionRequest request) {
+		int previousQuantity = product.getCurrentQuantity();
+		if (request.getType().equals("W")) {
+			// a withdrawal names no warehouse, so it can only take unassigned units
+			if (product.getUnassignedQuantity() < request.getQuantity()) {
+				throw new InsufficientStockException(product.getProductId(), request.getQuantity(),
+						product.getUnassignedQuantity());
+			}
 			product.setCurrentQuantity(product.getCurrentQuantity() - request.getQuantity());
 			InventoryTransaction transaction = this.inventoryTransactionRepository
 					.save(InventoryTransaction.builder().type(InventoryTransactionType.WITHDRAW)
 							.product(product).quantity(request.getQuantity()).build());
-			this.productRepository.save(product);
+			eventPublisher.publishEvent(StockLevelChangedEvent.of(product, previousQuantity,
+					StockChangeReason.WITHDRAW, transaction.getTransactionId()));
 			return modelMapper.map(transaction, InventoryTransactionDTO.class);
-		} else if (request.getType().equals("T")) {
-			product.setCurrentQuantity(product.getCurrentQuantity() + request.getQuantity());
-			InventoryTransaction transaction = this.inventoryTransactionRepository
-					.save(InventoryTransaction.builder().type(InventoryTransactionType.TOPUP)
-							.product(product).quantity(request.getQuantity()).build());
-			this.productRepository.save(product);
-			return modelMapper.map(transaction, InventoryTransactionDTO.class);
-		} else {
-			throw new ResourceNotFoundException("Transaction Type missing");
 		}
+		product.setCurrentQuantity(product.getCurrentQuantity() + request.getQuantity());
+		InventoryTransaction transaction = this.inventoryTransactionRepository
+				.save(InventoryTransaction.builder().type(InventoryTransactionType.TOPUP)
+						.product(product).quantity(request.getQuantity()).build());
+		eventPublisher.publishEvent(StockLevelChangedEvent.of(product, previousQuantity,
+				StockChangeReason.TOPUP, transaction.getTransactionId()));
+		return modelMapper.map(transaction, InventoryTransactionDTO.class);
 	}
 
+	@Transactional(readOnly = true)
 	InventoryTransactionDTO getTransaction(UUID id) throws Exception {
-		InventoryTransaction transaction = inventoryTransactionRepository.findById(id)
+		return shardRouter.findOnAnyShard(() -> inventoryTransactionRepository.findById(id)
+				.map(transaction -> modelMapper.map(transaction, InventoryTransactionDTO.class)))
+				.or(() -> transactionArchive.findById(id).map(archived -> toDTO(archived, findProduct(archived.productId()))))
 				.orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
+	}
 
-		return modelMapper.map(transaction, InventoryTransactionDTO.class);
+	/**
+	 * Transactions of one product created in {@code [from, to)}, oldest first, read from
+	 * the database and from the archive segments alike.
+	 */
+	@Transactional(readOnly = true)
+	List<InventoryTransactionDTO> getHistory(UUID productId, LocalDateTime from, LocalDateTime to, int limit) {
+		if (limit < 1 || limit > MAX_HISTORY) {
+			throw new ApiException("limit must be between 1 and " + MAX_HISTORY, 400);
+		}
+		if (!from.isBefore(to)) {
+			throw new ApiException("from must be before to", 400);
+		}
+		List<InventoryTransactionDTO> history = new ArrayList<>();
+		List<ArchivedTransaction> archived = transactionArchive.findByProduct(productId, from, to);
+		if (!archived.isEmpty()) {
+			Product product = findProduct(productId);
+			archived.stream().limit(limit).forEach(transaction -> history.add(toDTO(transaction, product)));
+		}
+		if (history.size() < limit) {
+			shardRouter.onShard(shardRouter.shardFor(productId),
+					() -> inventoryTransactionRepository.findHistory(productId, from, to, Limit.of(limit))).stream()
+					.map(transaction -> modelMapper.map(transaction, InventoryTransactionDTO.class))
+					.forEach(history::add);
+		}
+		history.sort(Comparator.comparing(InventoryTransactionDTO::getCreatedAt));
+		return history.size() > limit ? history.subList(0, limit) : history;
+	}
+
+	/**
+	 * The product of an archived transaction, or a bare reference if it has been deleted
+	 * since.
+	 */
+	private Product findProduct(UUID productId) {
+		return shardRouter.onShard(shardRouter.shardFor(productId), () -> productRepository.findById(productId))
+				.orElseGet(() -> {
+					Product deleted = new Product();
+					deleted.setProductId(productId);
+					return deleted;
+				});
+	}
+
+	private static InventoryTransactionDTO toDTO(ArchivedTransaction archived, Product product) {
+		InventoryTransactionDTO dto = new InventoryTransactionDTO();
+		dto.setTransactionId(archived.transactionId());
+		dto.setProduct(product);
+		dto.setType(archived.type());
+		dto.setQuantity(archived.quantity());
+		dto.setCreatedAt(archived.createdAt());
+		return dto;
 	}
 
+	@Transactional(readOnly = true)
 	PaginationResponse<InventoryTransactionDTO> getTransactions(int pageNumber, int pageSize, String sortBy) {
 		Streamable<Sort.Order> streamableOrders = Sort.by(Sort.Order.asc(sortBy));
 		Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(streamableOrders.stream().toList()));
 
-		Page<InventoryTransaction> transactions = inventoryTransactionRepository.findAll(pageable);
-		List<InventoryTransactionDTO> dtoList = transactions.getContent().stream()
-				.map(transaction -> modelMapper.map(transaction, InventoryTransactionDTO.class)).toList();
+		Page<InventoryTransactionDTO> transactions = shardRouter.scatterPage(pageable,
+				inventoryTransactionRepository::findAll,
+				transaction -> modelMapper.map(transaction, InventoryTransactionDTO.class));
 
 		return new PaginationResponse<>(
-				dtoList,
+				transactions.getContent(),
 				new PaginationResponse.PaginationInfo(
 						transactions.getNumber(),
 						transactions.getSize(),
@@ -82,21 +178,79 @@ public class InventoryTransactionService {
 		if (transaction.getTransactionId() == null) {
 			throw new ResourceNotFoundException("Transaction ID missing");
 		}
+		int shard = shardRouter
+				.locate(candidate -> inventoryTransactionRepository.existsById(transaction.getTransactionId()))
+				.orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
+		return shardRouter.onShard(shard, () -> update(transaction));
+	}
 
+	private InventoryTransactionDTO update(InventoryTransactionDTO transaction) {
 		InventoryTransaction existingTransaction = inventoryTransactionRepository
 				.findById(transaction.getTransactionId())
 				.orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
 
+		long previousVersion = existingTransaction.getVersion();
 		modelMapper.map(transaction, existingTransaction);
+		existingTransaction.setVersion(previousVersion + 1);
 		InventoryTransaction result = inventoryTransactionRepository.save(existingTransaction);
 		return modelMapper.map(result, InventoryTransactionDTO.class);
 	}
 
-	void deleteTransaction(UUID id) throws Exception {
-		try {
-			inventoryTransactionRepository.deleteById(id);
-		} catch (Exception e) {
-			throw new Exception();
+	/**
+	 * Writes only the fields set in the patch, provided the transaction still has the
+	 * expected version, or any version when none is expected. A change of type or quantity
+	 * moves the product's stock by the difference, as if the transaction had been made that
+	 * way, with both rows locked. The move is published as a correction: the edited row
+	 * already is its ledger entry.
+	 */
+	InventoryTransactionDTO patchTransaction(UUID id, InventoryTransactionPatch patch, Long expectedVersion) {
+		Map<String, Object> changes = patch.changes();
+		int shard = shardRouter.locate(candidate -> inventoryTransactionRepository.existsById(id))
+				.orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
+		return shardRouter.inNewTransaction(shard, () -> {
+			InventoryTransaction existing = inventoryTransactionRepository.findByIdForUpdate(id)
+					.orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
+			if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+				throw new ApiException("Transaction has been changed since version " + expectedVersion, 412);
+			}
+			InventoryTransactionType type = patch.getType() == null ? existing.getType() : patch.getType();
+			int quantity = patch.getQuantity() == null ? existing.getQuantity() : patch.getQuantity();
+			if (quantity < 0 && type != InventoryTransactionType.ADJUSTMENT) {
+				throw new ApiException("Only an adjustment may have a negative quantity", 400);
+			}
+			int delta = type.signedQuantity(quantity) - existing.getType().signedQuantity(existing.getQuantity());
+			Product product = null;
+			int previousQuantity = 0;
+			if (delta != 0) {
+				product = productRepository.findByIdForUpdate(existing.getProduct().getProductId())
+						.orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+				if (product.getUnassignedQuantity() + delta < 0) {
+					throw new InsufficientStockException(product.getProductId(), -delta,
+							product.getUnassignedQuantity());
+				}
+				previousQuantity = product.getCurrentQuantity();
+				product.setCurrentQuantity(previousQuantity + delta);
+				productRepository.save(product);
+			}
+			// the version was checked under the row lock
+			partialUpdates.update(InventoryTransaction.class, "transactionId", id, null, changes);
+			InventoryTransactionDTO result = modelMapper.map(inventoryTransactionRepository.findById(id)
+					.orElseThrow(() -> new ResourceNotFoundException("Transaction not found")),
+					InventoryTransactionDTO.class);
+			if (product != null) {
+				eventPublisher.publishEvent(
+						StockLevelChangedEvent.of(product, previousQuantity, StockChangeReason.CORRECTION, id));
+			}
+			return result;
+		});
+	}
+
+	void deleteTransaction(UUID id) {
+		AtomicInteger deleted = new AtomicInteger();
+		shardRouter.forEachShard(false,
+				shard -> deleted.addAndGet(inventoryTransactionRepository.deleteAllByIdIn(List.of(id))));
+		if (deleted.get() == 0) {
+			throw new ResourceNotFoundException("Transaction not found");
 		}
 	}
 }
\ No newline at end of file
@@ -2,7 +2,12 @@ package com.ram.inventory.inventorytransaction;
 
 public enum InventoryTransactionType {
     TOPUP("T"),
-    WITHDRAW("W");
+    WITHDRAW("W"),
+    /**
+     * A direct correction of the stock level, for instance the initial stock of a product or
+     * an edit through {@code /product/update}. Its quantity is signed.
+     */
+    ADJUSTMENT("A");
 
     private final String code;
 
@@ -13,4 +18,11 @@ public enum InventoryTransactionType {
     public String getCode() {
         return code;
     }
+
+    /**
+     * The effect of a transaction of this type on the stock level.
+     */
+    public int signedQuantity(int quantity) {
+        return this == WITHDRAW ? -quantity : quantity;
+    }
 }
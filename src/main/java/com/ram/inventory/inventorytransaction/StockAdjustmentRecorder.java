@@ -0,0 +1,39 @@
+package com.ram.inventory.inventorytransaction;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.ram.inventory.product.ProductRepository;
+import com.ram.inventory.product.StockChangeReason;
+import com.ram.inventory.product.StockLevelChangedEvent;
+
+/**
+ * Writes an {@link InventoryTransactionType#ADJUSTMENT} ledger entry for every direct
+ * change of a product's stock, so that the transactions and orders of a product always
+ * add up to its {@code currentQuantity}. Runs synchronously, inside the transaction that
+ * changed the stock.
+ */
+@Component
+public class StockAdjustmentRecorder {
+
+    private final InventoryTransactionRepository inventoryTransactionRepository;
+    private final ProductRepository productRepository;
+
+    public StockAdjustmentRecorder(InventoryTransactionRepository inventoryTransactionRepository,
+            ProductRepository productRepository) {
+        this.inventoryTransactionRepository = inventoryTransactionRepository;
+        this.productRepository = productRepository;
+    }
+
+    @EventListener
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        if (event.getReason() != StockChangeReason.ADJUSTMENT || event.getDelta() == 0) {
+            return;
+        }
+        inventoryTransactionRepository.save(InventoryTransaction.builder()
+                .type(InventoryTransactionType.ADJUSTMENT)
+                .product(productRepository.getReferenceById(event.getProductId()))
+                .quantity(event.getDelta())
+                .build());
+    }
+}
@@ -0,0 +1,28 @@
+package com.ram.inventory.order;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.ram.inventory.warehouse.AllocationStrategy;
+
+import lombok.Data;
+
+@Data
+public class CartOrderRequest {
+    private List<Line> lines;
+    /**
+     * How to pick the warehouses of located products, the configured default if missing.
+     */
+    private AllocationStrategy allocation;
+    /**
+     * Delivery coordinates, needed by {@link AllocationStrategy#NEAREST}.
+     */
+    private Double latitude;
+    private Double longitude;
+
+    @Data
+    public static class Line {
+        private UUID productId;
+        private int quantity;
+    }
+}
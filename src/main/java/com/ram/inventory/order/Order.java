@@ -2,20 +2,30 @@ package com.ram.inventory.order;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
+import org.hibernate.annotations.BatchSize;
+
 import com.ram.inventory.product.Product;
 
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @Entity
@@ -28,10 +38,40 @@ public class Order {
     private UUID orderId;
 
     @ManyToOne
+    @JoinColumn(name = "product_id")
     private Product product;
     private Integer quantity;
+    @Column(precision = 12, scale = 2)
     private BigDecimal price;
 
+    /**
+     * Line items of a multi-line order. Single-product orders keep using
+     * {@link #product}; a multi-line header carries the total unit count in {@link #quantity}.
+     */
+    @Builder.Default
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @BatchSize(size = 50)
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<OrderLine> lines = new ArrayList<>();
+
+    /**
+     * The warehouses the order's units were taken from. Units taken from unassigned stock
+     * have no allocation.
+     */
+    @Builder.Default
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @BatchSize(size = 50)
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<OrderAllocation> allocations = new ArrayList<>();
+
+    /**
+     * Counts the edits of the order, its entity tag.
+     */
+    @Builder.Default
+    private Long version = 0L;
+
     private LocalDateTime createdAt;
     private LocalDateTime modifiedAt;
 
@@ -0,0 +1,12 @@
+package com.ram.inventory.order;
+
+import java.util.UUID;
+
+import lombok.Data;
+
+@Data
+public class OrderAllocationDTO {
+    private UUID productId;
+    private UUID warehouseId;
+    private Integer quantity;
+}
@@ -1,17 +1,23 @@
 package com.ram.inventory.order;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ram.inventory.util.ApiResponse;
+import com.ram.inventory.util.ETags;
 import com.ram.inventory.util.PaginationResponse;
 
 @RestController
@@ -19,9 +25,14 @@ import com.ram.inventory.util.PaginationResponse;
 public class OrderController {
 
 	private final OrderService orderService;
+	private final TopProductsService topProductsService;
+	private final OrderIntake orderIntake;
 
-	public OrderController(OrderService orderService) {
+	public OrderController(OrderService orderService, TopProductsService topProductsService,
+			OrderIntake orderIntake) {
 		this.orderService = orderService;
+		this.topProductsService = topProductsService;
+		this.orderIntake = orderIntake;
 	}
 
 	@PostMapping
@@ -30,10 +41,33 @@ public class OrderController {
 				.ok(new ApiResponse<>(200, "Order Created", orderService.createOrder(request)));
 	}
 
+	/**
+	 * Queues the order for placement and answers 202 with a ticket to poll at
+	 * {@code /order/status}, or 429 when too many orders are queued.
+	 */
+	@PostMapping(params = "async=true")
+	public ResponseEntity<ApiResponse<OrderTicket>> submitOrder(@RequestBody OrderRequest request) {
+		return ResponseEntity.status(HttpStatus.ACCEPTED)
+				.body(new ApiResponse<>(202, "Order Accepted", orderIntake.submit(request)));
+	}
+
+	@GetMapping(value = "/status")
+	public ResponseEntity<ApiResponse<OrderTicket>> getOrderStatus(@RequestParam UUID ticket) {
+		return ResponseEntity
+				.ok(new ApiResponse<>(200, "Order Status Found", orderIntake.getStatus(ticket)));
+	}
+
+	@PostMapping(value = "/cart")
+	public ResponseEntity<ApiResponse<OrderDTO>> createCartOrder(@RequestBody CartOrderRequest request) {
+		return ResponseEntity
+				.ok(new ApiResponse<>(200, "Order Created", orderService.createCartOrder(request)));
+	}
+
 	@GetMapping(value = "/get-order")
 	public ResponseEntity<ApiResponse<OrderDTO>> getOrder(@RequestParam UUID id) throws Exception {
-		return ResponseEntity
-				.ok(new ApiResponse<>(200, "Order Found", orderService.getOrder(id)));
+		OrderDTO order = orderService.getOrder(id);
+		return ResponseEntity.ok().eTag(ETags.of(order.getVersion()))
+				.body(new ApiResponse<>(200, "Order Found", order));
 	}
 
 	@GetMapping(value = "/get-orders")
@@ -45,12 +79,36 @@ public class OrderController {
 				.ok(new ApiResponse<>(200, "Orders Found", orderService.getOrders(pageNumber, pageSize,sortBy)));
 	}
 
+	/**
+	 * Products with the most units sold by orders and withdrawals in the last
+	 * {@code window}, e.g. {@code 1h} or {@code 24h}.
+	 */
+	@GetMapping(value = "/top-products")
+	public ResponseEntity<ApiResponse<List<TopProduct>>> getTopProducts(
+			@RequestParam(defaultValue = "1h") String window,
+			@RequestParam(defaultValue = "100") int limit) {
+		return ResponseEntity
+				.ok(new ApiResponse<>(200, "Top Products Found", topProductsService.getTopProducts(window, limit)));
+	}
+
 	@PostMapping(value = "/update")
 	public ResponseEntity<ApiResponse<OrderDTO>> updateOrder(@RequestBody OrderDTO product) throws Exception {
 		return ResponseEntity
 				.ok(new ApiResponse<>(200, "Order Updated", orderService.updateOrder(product)));
 	}
 
+	/**
+	 * Changes only the fields given, if the order still has the version in If-Match.
+	 */
+	@PatchMapping
+	public ResponseEntity<ApiResponse<OrderDTO>> patchOrder(@RequestParam UUID id,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+			@RequestBody OrderPatch patch) {
+		OrderDTO order = orderService.patchOrder(id, patch, ETags.parseIfMatch(ifMatch));
+		return ResponseEntity.ok().eTag(ETags.of(order.getVersion()))
+				.body(new ApiResponse<>(200, "Order Updated", order));
+	}
+
 	@PostMapping(value = "/delete")
 	public ResponseEntity<ApiResponse<String>> deleteOrder(@RequestBody Map<String,String> request) throws Exception {
 		orderService.deleteOrder(UUID.fromString(request.get("id")));
@@ -2,6 +2,7 @@ package com.ram.inventory.order;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import com.ram.inventory.product.Product;
@@ -15,7 +16,10 @@ public class OrderDTO {
     private Product product;
     private Integer quantity;
     private BigDecimal price;
+    private List<OrderLineDTO> lines;
+    private List<OrderAllocationDTO> allocations;
 
+    private Long version;
     private LocalDateTime createdAt;
     private LocalDateTime modifiedAt;
 
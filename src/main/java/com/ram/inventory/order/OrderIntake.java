@@ -0,0 +1,197 @@
+package com.ram.inventory.order;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.exception.ResourceNotFoundException;
+import com.ram.inventory.shard.ShardRouter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Accepts single-product orders for asynchronous placement and hands out a ticket to poll.
+ * <p>
+ * Orders are partitioned by productId over bounded ring buffers, each drained by its own
+ * thread. That thread is the only one placing queued orders of its products, so queued
+ * orders never wait for each other: it takes up to {@code batchSize} orders at a time and
+ * places them in one transaction per shard, locking each product once. A full buffer
+ * refuses the order with 429 instead of growing.
+ * <p>
+ * Tickets live in memory: outcomes are kept for {@code retention} after the order was
+ * decided, and orders still queued when the application stops are lost.
+ */
+@Slf4j
+@Component
+class OrderIntake {
+
+    private static final Duration POLL = Duration.ofMillis(100);
+
+    private final OrderService orderService;
+    private final ShardRouter shardRouter;
+    private final int batchSize;
+    private final Duration retention;
+    private final List<BlockingQueue<Queued>> partitions;
+    private final List<Thread> consumers = new ArrayList<>();
+    private final Map<UUID, Tracked> tickets = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    OrderIntake(OrderService orderService, ShardRouter shardRouter,
+            @Value("${inventory.order-intake.partitions:4}") int partitionCount,
+            @Value("${inventory.order-intake.capacity:1024}") int capacity,
+            @Value("${inventory.order-intake.batch-size:100}") int batchSize,
+            @Value("${inventory.order-intake.retention:10m}") Duration retention) {
+        this.orderService = orderService;
+        this.shardRouter = shardRouter;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new ArrayBlockingQueue<>(capacity));
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        for (int i = 0; i < partitions.size(); i++) {
+            BlockingQueue<Queued> partition = partitions.get(i);
+            consumers.add(Thread.ofPlatform().name("order-intake-" + i).daemon().start(() -> consume(partition)));
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        consumers.forEach(Thread::interrupt);
+    }
+
+    OrderTicket submit(OrderRequest request) {
+        if (request.getProductId() == null || request.getQuantity() <= 0) {
+            throw new ApiException("An order needs a productId and a positive quantity", 400);
+        }
+        OrderTicket ticket = OrderTicket.pending(UUID.randomUUID());
+        tickets.put(ticket.ticket(), new Tracked(ticket, 0));
+        BlockingQueue<Queued> partition = partitions
+                .get(Math.floorMod(request.getProductId().hashCode(), partitions.size()));
+        if (!partition.offer(new Queued(ticket, request))) {
+            tickets.remove(ticket.ticket());
+            throw new ApiException("Too many orders queued, please retry later", 429);
+        }
+        return ticket;
+    }
+
+    OrderTicket getStatus(UUID ticket) {
+        Tracked tracked = tickets.get(ticket);
+        if (tracked == null) {
+            throw new ResourceNotFoundException("Ticket not found");
+        }
+        return tracked.ticket();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    void evictDecided() {
+        long cutoff = System.nanoTime() - retention.toNanos();
+        tickets.values().removeIf(tracked -> tracked.decidedAt() != 0 && tracked.decidedAt() - cutoff < 0);
+    }
+
+    private void consume(BlockingQueue<Queued> partition) {
+        List<Queued> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Queued first = partition.poll(POLL.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                partition.drainTo(batch, batchSize - 1);
+                place(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Placing {} queued orders failed", batch.size(), e);
+                batch.stream().filter(this::isPending)
+                        .forEach(queued -> decide(queued.ticket().rejected("Order could not be placed")));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Places a micro-batch, one transaction per shard. Should a transaction fail, its
+     * orders are placed one by one, so a single bad order cannot fail the others.
+     */
+    private void place(List<Queued> batch) {
+        Map<Integer, List<Queued>> byShard = new TreeMap<>();
+        for (Queued queued : batch) {
+            byShard.computeIfAbsent(shardRouter.shardFor(queued.request().getProductId()), shard -> new ArrayList<>())
+                    .add(queued);
+        }
+        for (Map.Entry<Integer, List<Queued>> shard : byShard.entrySet()) {
+            List<Queued> queued = shard.getValue();
+            List<Placement> placements;
+            try {
+                placements = orderService.placeQueuedOrders(shard.getKey(),
+                        queued.stream().map(Queued::request).toList());
+            } catch (RuntimeException e) {
+                log.warn("Micro-batch of {} queued orders failed, placing them one by one", queued.size(), e);
+                queued.forEach(this::placeAlone);
+                continue;
+            }
+            for (int i = 0; i < queued.size(); i++) {
+                Placement placement = placements.get(i);
+                if (placement.order() != null) {
+                    decide(queued.get(i).ticket().placed(placement.order()));
+                } else if (placement.failure() != null) {
+                    decide(queued.get(i).ticket().rejected(placement.failure().getMessage()));
+                } else {
+                    placeAlone(queued.get(i));
+                }
+            }
+        }
+    }
+
+    private void placeAlone(Queued queued) {
+        try {
+            decide(queued.ticket().placed(orderService.createOrder(queued.request())));
+        } catch (ApiException e) {
+            decide(queued.ticket().rejected(e.getMessage()));
+        } catch (RuntimeException e) {
+            log.error("Placing queued order {} failed", queued.ticket().ticket(), e);
+            decide(queued.ticket().rejected("Order could not be placed"));
+        }
+    }
+
+    private boolean isPending(Queued queued) {
+        Tracked tracked = tickets.get(queued.ticket().ticket());
+        return tracked != null && tracked.decidedAt() == 0;
+    }
+
+    private void decide(OrderTicket ticket) {
+        tickets.put(ticket.ticket(), new Tracked(ticket, System.nanoTime()));
+    }
+
+    private record Queued(OrderTicket ticket, OrderRequest request) {
+    }
+
+    /**
+     * A ticket and the {@link System#nanoTime()} it was decided at, 0 while pending.
+     */
+    private record Tracked(OrderTicket ticket, long decidedAt) {
+    }
+}
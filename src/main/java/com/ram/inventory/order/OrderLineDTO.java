@@ -0,0 +1,16 @@
+package com.ram.inventory.order;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import com.ram.inventory.product.Product;
+
+import lombok.Data;
+
+@Data
+public class OrderLineDTO {
+    private UUID orderLineId;
+    private Product product;
+    private Integer quantity;
+    private BigDecimal price;
+}
@@ -0,0 +1,36 @@
+package com.ram.inventory.order;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.ram.inventory.exception.ApiException;
+
+import lombok.Data;
+
+/**
+ * The fields of an order to change; fields left out stay as they are. The quantity of an
+ * order took stock, possibly from several warehouses, and is not edited this way.
+ */
+@Data
+public class OrderPatch {
+
+    private BigDecimal price;
+
+    /**
+     * The order attributes to set, checked.
+     */
+    Map<String, Object> changes() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (price != null) {
+            if (price.signum() < 0) {
+                throw new ApiException("price must not be negative", 400);
+            }
+            changes.put("price", price);
+        }
+        if (changes.isEmpty()) {
+            throw new ApiException("No change given", 400);
+        }
+        return changes;
+    }
+}
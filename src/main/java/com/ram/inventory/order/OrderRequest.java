@@ -2,10 +2,21 @@ package com.ram.inventory.order;
 
 import java.util.UUID;
 
+import com.ram.inventory.warehouse.AllocationStrategy;
+
 import lombok.Data;
 
 @Data
 public class OrderRequest {
     private UUID productId;
     private int quantity;
+    /**
+     * How to pick the warehouses of located products, the configured default if missing.
+     */
+    private AllocationStrategy allocation;
+    /**
+     * Delivery coordinates, needed by {@link AllocationStrategy#NEAREST}.
+     */
+    private Double latitude;
+    private Double longitude;
 }
\ No newline at end of file
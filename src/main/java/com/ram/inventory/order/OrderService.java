@@ -1,9 +1,17 @@
 package com.ram.inventory.order;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -12,10 +20,19 @@ import org.springframework.data.util.Streamable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.exception.InsufficientStockException;
 import com.ram.inventory.exception.ResourceNotFoundException;
 import com.ram.inventory.product.Product;
 import com.ram.inventory.product.ProductRepository;
+import com.ram.inventory.product.StockChangeReason;
+import com.ram.inventory.product.StockLevelChangedEvent;
+import com.ram.inventory.product.StockWriteCombiner;
+import com.ram.inventory.shard.ShardRouter;
 import com.ram.inventory.util.PaginationResponse;
+import com.ram.inventory.util.PartialUpdates;
+import com.ram.inventory.warehouse.Allocation;
+import com.ram.inventory.warehouse.StockAllocator;
 
 @Service
 public class OrderService {
@@ -23,45 +40,200 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final ModelMapper modelMapper;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final StockAllocator stockAllocator;
+    private final StockWriteCombiner stockWriteCombiner;
+    private final PartialUpdates partialUpdates;
 
-    public OrderService(OrderRepository orderRepository, ModelMapper modelMapper, ProductRepository productRepository) {
+    public OrderService(OrderRepository orderRepository, ModelMapper modelMapper, ProductRepository productRepository,
+            ApplicationEventPublisher eventPublisher, ShardRouter shardRouter, StockAllocator stockAllocator,
+            StockWriteCombiner stockWriteCombiner, PartialUpdates partialUpdates) {
         this.orderRepository = orderRepository;
         this.modelMapper = modelMapper;
         this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.shardRouter = shardRouter;
+        this.stockAllocator = stockAllocator;
+        this.stockWriteCombiner = stockWriteCombiner;
+        this.partialUpdates = partialUpdates;
     }
 
-    @Transactional
-    OrderDTO createOrder(OrderRequest request) throws Exception {
-        Product product = productRepository.findById(request.getProductId())
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-        if (product.getCurrentQuantity() < request.getQuantity()) {
-            throw new Exception();
+    /**
+     * Places an order for one product. A product held at warehouses is taken from them by
+     * the {@link StockAllocator}, which leaves the product row unlocked until the end;
+     * any other product is taken from its unassigned stock through the
+     * {@link StockWriteCombiner}, which merges the concurrent orders of a hot product into
+     * one write.
+     */
+    OrderDTO createOrder(OrderRequest request) {
+        int shard = shardRouter.shardFor(request.getProductId());
+        if (shardRouter.readOnShard(shard, () -> stockAllocator.isLocated(request.getProductId()))) {
+            return shardRouter.inNewTransaction(shard, () -> createAllocatedOrder(request));
         }
-        product.setCurrentQuantity(product.getCurrentQuantity() - request.getQuantity());
+        return stockWriteCombiner.write(request.getProductId(), product -> placeOrder(product, request));
+    }
+
+    private OrderDTO placeOrder(Product product, OrderRequest request) {
+        if (product.getUnassignedQuantity() < request.getQuantity()) {
+            throw new InsufficientStockException(product.getProductId(), request.getQuantity(),
+                    product.getUnassignedQuantity());
+        }
+        int previousQuantity = product.getCurrentQuantity();
+        product.setCurrentQuantity(previousQuantity - request.getQuantity());
         Order order = this.orderRepository
                 .save(Order.builder().product(product).quantity(request.getQuantity()).price(product.getPrice())
                         .build());
-        this.productRepository.save(product);
+        eventPublisher.publishEvent(
+                StockLevelChangedEvent.of(product, previousQuantity, StockChangeReason.ORDER, order.getOrderId()));
         return modelMapper.map(order, OrderDTO.class);
     }
 
+    /**
+     * Places a micro-batch of queued single-product orders of one shard in one
+     * transaction, locking each product once, in productId order, and applying its orders
+     * in queue order. Returns the outcome of each request; orders of products held at
+     * warehouses are left to be placed on their own, since the allocator has to lock
+     * warehouse stock before the product.
+     */
+    @Transactional
+    List<Placement> placeQueuedOrders(int shard, List<OrderRequest> requests) {
+        shardRouter.bindTransaction(shard);
+        Set<UUID> productIds = requests.stream().map(OrderRequest::getProductId).collect(Collectors.toSet());
+        Map<UUID, Product> products = productRepository.findAllByIdForUpdate(productIds).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+        List<Placement> placements = new ArrayList<>(requests.size());
+        for (OrderRequest request : requests) {
+            Product product = products.get(request.getProductId());
+            if (product == null) {
+                placements.add(Placement.refused(new ResourceNotFoundException("Product not found")));
+            } else if (product.getLocatedQuantity() != null && product.getLocatedQuantity() > 0) {
+                placements.add(Placement.ALONE);
+            } else {
+                try {
+                    placements.add(Placement.placed(placeOrder(product, request)));
+                } catch (ApiException e) {
+                    placements.add(Placement.refused(e));
+                }
+            }
+        }
+        this.productRepository.saveAll(products.values());
+        return placements;
+    }
+
+    private OrderDTO createAllocatedOrder(OrderRequest request) {
+        List<Allocation> allocations = stockAllocator.allocate(request.getProductId(), request.getQuantity(),
+                request.getAllocation(), request.getLatitude(), request.getLongitude());
+        Product product = productRepository.findById(request.getProductId())
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        Order order = Order.builder().product(product).quantity(request.getQuantity()).price(product.getPrice())
+                .build();
+        addAllocations(order, product.getProductId(), allocations);
+        Order result = this.orderRepository.save(order);
+        eventPublisher.publishEvent(StockLevelChangedEvent.of(product,
+                product.getCurrentQuantity() + request.getQuantity(), StockChangeReason.ORDER, result.getOrderId()));
+        return modelMapper.map(result, OrderDTO.class);
+    }
+
+    private static void addAllocations(Order order, UUID productId, List<Allocation> allocations) {
+        for (Allocation allocation : allocations) {
+            order.getAllocations().add(OrderAllocation.builder()
+                    .order(order)
+                    .productId(productId)
+                    .warehouseId(allocation.warehouseId())
+                    .quantity(allocation.quantity())
+                    .build());
+        }
+    }
+
+    /**
+     * Places all lines of a cart in one transaction: either every line is filled or none is.
+     * With sharding enabled all products of the cart have to live on the same shard.
+     * Products held at warehouses are allocated first, in productId order, and the rest
+     * are then locked together, so concurrent carts take their locks in the same order.
+     */
+    @Transactional
+    OrderDTO createCartOrder(CartOrderRequest request) {
+        if (request.getLines() == null || request.getLines().isEmpty()) {
+            throw new ApiException("Order lines missing", 400);
+        }
+        Map<UUID, Integer> quantities = new TreeMap<>();
+        for (CartOrderRequest.Line line : request.getLines()) {
+            if (line.getProductId() == null || line.getQuantity() <= 0) {
+                throw new ApiException("Each line needs a productId and a positive quantity", 400);
+            }
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        shardRouter.bindTransaction(shardRouter.commonShard(quantities.keySet())
+                .orElseThrow(() -> new ApiException("Products of one order must belong to the same shard", 400)));
+
+        Set<UUID> located = stockAllocator.locatedProducts(quantities.keySet());
+        Map<UUID, List<Allocation>> allocations = new TreeMap<>();
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            if (located.contains(entry.getKey())) {
+                allocations.put(entry.getKey(), stockAllocator.allocate(entry.getKey(), entry.getValue(),
+                        request.getAllocation(), request.getLatitude(), request.getLongitude()));
+            }
+        }
+        Map<UUID, Product> products = productRepository.findAllByIdForUpdate(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found: " + entry.getKey());
+            }
+            if (!allocations.containsKey(entry.getKey()) && product.getUnassignedQuantity() < entry.getValue()) {
+                throw new InsufficientStockException(entry.getKey(), entry.getValue(),
+                        product.getUnassignedQuantity());
+            }
+        }
+
+        Order order = Order.builder()
+                .quantity(quantities.values().stream().mapToInt(Integer::intValue).sum())
+                .build();
+        Map<UUID, Integer> previousQuantities = new TreeMap<>();
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            List<Allocation> allocated = allocations.get(entry.getKey());
+            if (allocated == null) {
+                previousQuantities.put(product.getProductId(), product.getCurrentQuantity());
+                product.setCurrentQuantity(product.getCurrentQuantity() - entry.getValue());
+            } else {
+                // already taken out of stock by the allocator
+                previousQuantities.put(product.getProductId(), product.getCurrentQuantity() + entry.getValue());
+                addAllocations(order, product.getProductId(), allocated);
+            }
+            order.getLines().add(OrderLine.builder()
+                    .order(order)
+                    .product(product)
+                    .quantity(entry.getValue())
+                    .price(product.getPrice())
+                    .build());
+        }
+        Order result = this.orderRepository.save(order);
+        this.productRepository.saveAll(products.values());
+        previousQuantities.forEach((productId, previousQuantity) -> eventPublisher.publishEvent(StockLevelChangedEvent
+                .of(products.get(productId), previousQuantity, StockChangeReason.ORDER, result.getOrderId())));
+        return modelMapper.map(result, OrderDTO.class);
+    }
+
+    @Transactional(readOnly = true)
     OrderDTO getOrder(UUID id) {
-        Order order = orderRepository.findById(id)
+        return shardRouter.findOnAnyShard(() -> orderRepository.findById(id)
+                .map(order -> modelMapper.map(order, OrderDTO.class)))
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-
-        return modelMapper.map(order, OrderDTO.class);
     }
 
+    @Transactional(readOnly = true)
     PaginationResponse<OrderDTO> getOrders(int pageNumber, int pageSize, String sortBy) {
         Streamable<Sort.Order> streamableOrders = Sort.by(Sort.Order.asc(sortBy));
         Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(streamableOrders.stream().toList()));
 
-        Page<Order> orders = orderRepository.findAll(pageable);
-        List<OrderDTO> dtoList = orders.getContent().stream()
-                .map(product -> modelMapper.map(product, OrderDTO.class)).toList();
+        Page<OrderDTO> orders = shardRouter.scatterPage(pageable, orderRepository::findAll,
+                order -> modelMapper.map(order, OrderDTO.class));
 
         return new PaginationResponse<>(
-                dtoList,
+                orders.getContent(),
                 new PaginationResponse.PaginationInfo(
                         orders.getNumber(),
                         orders.getSize(),
@@ -73,16 +245,44 @@ public class OrderService {
         if (order.getOrderId() == null) {
             throw new ResourceNotFoundException("Order ID missing");
         }
+        int shard = shardRouter.locate(candidate -> orderRepository.existsById(order.getOrderId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        return shardRouter.onShard(shard, () -> update(order));
+    }
 
+    private OrderDTO update(OrderDTO order) {
         Order existingProduct = orderRepository.findById(order.getOrderId())
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
+        long previousVersion = existingProduct.getVersion();
         modelMapper.map(order, existingProduct);
+        existingProduct.setVersion(previousVersion + 1);
         Order result = orderRepository.save(existingProduct);
         return modelMapper.map(result, OrderDTO.class);
     }
 
+    /**
+     * Writes only the fields set in the patch, provided the order still has the expected
+     * version, or any version when none is expected.
+     */
+    OrderDTO patchOrder(UUID id, OrderPatch patch, Long expectedVersion) {
+        Map<String, Object> changes = patch.changes();
+        changes.put("modifiedAt", LocalDateTime.now());
+        int shard = shardRouter.locate(candidate -> orderRepository.existsById(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        return shardRouter.inNewTransaction(shard, () -> {
+            if (partialUpdates.update(Order.class, "orderId", id, expectedVersion, changes) == 0) {
+                if (orderRepository.existsById(id)) {
+                    throw new ApiException("Order has been changed since version " + expectedVersion, 412);
+                }
+                throw new ResourceNotFoundException("Order not found");
+            }
+            return modelMapper.map(orderRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found")), OrderDTO.class);
+        });
+    }
+
     void deleteOrder(UUID id) {
-        orderRepository.deleteById(id);
+        shardRouter.forEachShard(false, shard -> orderRepository.deleteById(id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.ram.inventory.order;
+
+import java.util.UUID;
+
+/**
+ * The state of an order submitted for asynchronous placement: {@code order} once placed,
+ * {@code message} once rejected.
+ */
+public record OrderTicket(UUID ticket, Status status, OrderDTO order, String message) {
+
+    public enum Status {
+        PENDING, PLACED, REJECTED
+    }
+
+    static OrderTicket pending(UUID ticket) {
+        return new OrderTicket(ticket, Status.PENDING, null, null);
+    }
+
+    OrderTicket placed(OrderDTO order) {
+        return new OrderTicket(ticket, Status.PLACED, order, null);
+    }
+
+    OrderTicket rejected(String message) {
+        return new OrderTicket(ticket, Status.REJECTED, null, message);
+    }
+}
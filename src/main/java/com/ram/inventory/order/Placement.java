@@ -0,0 +1,20 @@
+package com.ram.inventory.order;
+
+import com.ram.inventory.exception.ApiException;
+
+/**
+ * The outcome of one queued order of a micro-batch: the placed order, the reason it was
+ * refused, or neither when it has to be placed on its own, outside the batch.
+ */
+record Placement(OrderDTO order, ApiException failure) {
+
+    static final Placement ALONE = new Placement(null, null);
+
+    static Placement placed(OrderDTO order) {
+        return new Placement(order, null);
+    }
+
+    static Placement refused(ApiException failure) {
+        return new Placement(null, failure);
+    }
+}
@@ -0,0 +1,10 @@
+package com.ram.inventory.order;
+
+import java.util.UUID;
+
+/**
+ * A best seller of a time window. {@code unitsSold} may overestimate the units sold by up
+ * to {@code maxOverestimate}.
+ */
+public record TopProduct(UUID productId, long unitsSold, long maxOverestimate) {
+}
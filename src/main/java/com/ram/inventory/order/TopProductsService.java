@@ -0,0 +1,138 @@
+package com.ram.inventory.order;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.product.StockChangeReason;
+import com.ram.inventory.product.StockLevelChangedEvent;
+import com.ram.inventory.util.SpaceSaving;
+
+/**
+ * Tracks the products that sold the most units recently, from committed orders and
+ * withdrawals, without querying the order table.
+ * <p>
+ * Sales are counted in time buckets: one per minute for the last hour and one per hour
+ * for the last day, each a {@link SpaceSaving} sketch of {@code capacity} products, so
+ * memory stays the same however large the catalog is. A query merges the buckets that
+ * cover the window. Windows are rounded up to whole buckets, and the current bucket is
+ * still filling.
+ */
+@Service
+public class TopProductsService {
+
+    static final int MAX_LIMIT = 100;
+    static final Duration MAX_WINDOW = Duration.ofDays(1);
+
+    private final Buckets minutes;
+    private final Buckets hours;
+
+    public TopProductsService(@Value("${inventory.top-products.capacity:1000}") int capacity) {
+        this.minutes = new Buckets(Duration.ofMinutes(1), 60, capacity);
+        this.hours = new Buckets(Duration.ofHours(1), 24, capacity);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        boolean sale = event.getReason() == StockChangeReason.ORDER || event.getReason() == StockChangeReason.WITHDRAW;
+        if (sale && event.getDelta() < 0) {
+            record(event.getProductId(), -event.getDelta(), System.currentTimeMillis());
+        }
+    }
+
+    synchronized void record(UUID productId, long units, long atMillis) {
+        minutes.add(productId, units, atMillis);
+        hours.add(productId, units, atMillis);
+    }
+
+    /**
+     * Accepts windows such as {@code 15m}, {@code 1h} or {@code PT24H}.
+     */
+    List<TopProduct> getTopProducts(String window, int limit) {
+        Duration duration;
+        try {
+            duration = DurationStyle.detectAndParse(window);
+        } catch (IllegalArgumentException e) {
+            throw new ApiException("Invalid window: " + window, 400);
+        }
+        return getTopProducts(duration, limit, System.currentTimeMillis());
+    }
+
+    synchronized List<TopProduct> getTopProducts(Duration window, int limit, long nowMillis) {
+        if (window.isNegative() || window.isZero() || window.compareTo(MAX_WINDOW) > 0) {
+            throw new ApiException("window must be positive and at most " + MAX_WINDOW.toHours() + " hours", 400);
+        }
+        Buckets buckets = window.compareTo(minutes.span()) <= 0 ? minutes : hours;
+        return buckets.top(window, Math.min(Math.max(limit, 1), MAX_LIMIT), nowMillis);
+    }
+
+    /**
+     * A ring of sketches, each counting the sales of one bucket of time. A slot is
+     * cleared when the ring comes round to it again.
+     */
+    private static final class Buckets {
+
+        private final long bucketMillis;
+        private final long[] bucketIndex;
+        private final List<SpaceSaving<UUID>> sketches = new ArrayList<>();
+
+        Buckets(Duration bucket, int count, int capacity) {
+            this.bucketMillis = bucket.toMillis();
+            this.bucketIndex = new long[count];
+            for (int i = 0; i < count; i++) {
+                bucketIndex[i] = -1;
+                sketches.add(new SpaceSaving<>(capacity));
+            }
+        }
+
+        Duration span() {
+            return Duration.ofMillis(bucketMillis * bucketIndex.length);
+        }
+
+        void add(UUID productId, long units, long atMillis) {
+            long index = atMillis / bucketMillis;
+            int slot = (int) (index % bucketIndex.length);
+            if (bucketIndex[slot] != index) {
+                if (bucketIndex[slot] > index) {
+                    // older than anything the ring still holds
+                    return;
+                }
+                sketches.get(slot).clear();
+                bucketIndex[slot] = index;
+            }
+            sketches.get(slot).add(productId, units);
+        }
+
+        List<TopProduct> top(Duration window, int limit, long nowMillis) {
+            long current = nowMillis / bucketMillis;
+            long oldest = current - (window.toMillis() + bucketMillis - 1) / bucketMillis;
+            Map<UUID, long[]> merged = new HashMap<>();
+            for (int slot = 0; slot < bucketIndex.length; slot++) {
+                if (bucketIndex[slot] <= oldest || bucketIndex[slot] > current) {
+                    continue;
+                }
+                for (SpaceSaving.Estimate<UUID> estimate : sketches.get(slot).estimates()) {
+                    long[] total = merged.computeIfAbsent(estimate.key(), key -> new long[2]);
+                    total[0] += estimate.count();
+                    total[1] += estimate.error();
+                }
+            }
+            return merged.entrySet().stream()
+                    .map(entry -> new TopProduct(entry.getKey(), entry.getValue()[0], entry.getValue()[1]))
+                    .sorted(Comparator.comparingLong(TopProduct::unitsSold).reversed()
+                            .thenComparing(TopProduct::productId))
+                    .limit(limit)
+                    .toList();
+        }
+    }
+}
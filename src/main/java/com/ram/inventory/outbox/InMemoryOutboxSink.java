@@ -0,0 +1,30 @@
+package com.ram.inventory.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps published messages in memory, for tests and local runs without a consumer.
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.outbox", name = "sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final List<OutboxMessage> messages = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        messages.addAll(batch);
+    }
+
+    public synchronized List<OutboxMessage> messages() {
+        return List.copyOf(messages);
+    }
+
+    public synchronized void clear() {
+        messages.clear();
+    }
+}
@@ -0,0 +1,19 @@
+package com.ram.inventory.outbox;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.ram.inventory.product.StockChangeReason;
+
+/**
+ * A stock change as handed to an {@link OutboxSink}. {@code eventId} increases with every
+ * change of a product, and the quantities let a consumer notice a change it missed.
+ */
+public record OutboxMessage(long eventId, UUID productId, StockChangeReason reason, int previousQuantity,
+        int currentQuantity, UUID referenceId, LocalDateTime occurredAt) {
+
+    static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getEventId(), event.getProductId(), event.getReason(),
+                event.getPreviousQuantity(), event.getCurrentQuantity(), event.getReferenceId(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,89 @@
+package com.ram.inventory.outbox;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ram.inventory.shard.ShardRouter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the outbox of every shard into the {@link OutboxSink}.
+ * <p>
+ * Each batch is claimed, published and deleted in one transaction: the oldest unclaimed
+ * rows are locked with {@code SKIP LOCKED}, handed to the sink and removed with a single
+ * bulk delete. Publishers on other instances skip the locked rows and take the next
+ * batch. A sink failure rolls the transaction back, which releases the rows for the next
+ * poll.
+ */
+@Slf4j
+@Component
+public class OutboxPublisher {
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxSink sink;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public OutboxPublisher(OutboxRepository outboxRepository, OutboxSink sink, ShardRouter shardRouter,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.outbox.batch-size:500}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.outbox.poll-interval:1s}")
+    public void poll() {
+        try {
+            publishPending();
+        } catch (RuntimeException e) {
+            log.warn("Publishing the outbox failed, retrying on the next poll", e);
+        }
+    }
+
+    /**
+     * Publishes batches until every shard's outbox is empty and returns how many events
+     * were sent.
+     */
+    public int publishPending() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            int published = 0;
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                int batch;
+                do {
+                    batch = publishBatch(shard);
+                    published += batch;
+                } while (batch == batchSize);
+            }
+            return published;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int publishBatch(int shard) {
+        return shardRouter.onShard(shard, () -> transaction.execute(status -> {
+            List<OutboxEvent> events = outboxRepository.claim(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            sink.publish(events.stream().map(OutboxMessage::of).toList());
+            outboxRepository.deleteAllByIdIn(events.stream().map(OutboxEvent::getEventId).toList());
+            return events.size();
+        }));
+    }
+}
@@ -0,0 +1,25 @@
+package com.ram.inventory.outbox;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest events that no other publisher has locked, so concurrent publishers
+     * claim disjoint batches instead of waiting for each other. Native because Hibernate's
+     * H2 dialect drops the {@code SKIP LOCKED} lock hint.
+     */
+    @Query(value = "select e.* from outbox_event e order by e.event_id fetch first :limit rows only for update skip locked",
+            nativeQuery = true)
+    List<OutboxEvent> claim(@Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.eventId in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+}
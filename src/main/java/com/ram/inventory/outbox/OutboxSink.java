@@ -0,0 +1,14 @@
+package com.ram.inventory.outbox;
+
+import java.util.List;
+
+/**
+ * Where the outbox publisher delivers stock changes, selected with
+ * {@code inventory.outbox.sink}. A batch counts as delivered when {@link #publish(List)}
+ * returns; if it throws, the whole batch is published again later, so deliveries are at
+ * least once.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages);
+}
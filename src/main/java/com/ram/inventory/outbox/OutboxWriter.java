@@ -0,0 +1,32 @@
+package com.ram.inventory.outbox;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.ram.inventory.product.StockLevelChangedEvent;
+
+/**
+ * Adds every stock change to the outbox. Runs synchronously, inside the transaction that
+ * changed the stock, so the outbox row commits or rolls back with the change itself. The
+ * rows of one transaction are flushed together with its other inserts as one JDBC batch.
+ */
+@Component
+public class OutboxWriter {
+
+    private final OutboxRepository outboxRepository;
+
+    public OutboxWriter(OutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    @EventListener
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        outboxRepository.save(OutboxEvent.builder()
+                .productId(event.getProductId())
+                .reason(event.getReason())
+                .previousQuantity(event.getPreviousQuantity())
+                .currentQuantity(event.getCurrentQuantity())
+                .referenceId(event.getReferenceId())
+                .build());
+    }
+}
@@ -0,0 +1,8 @@
+package com.ram.inventory.product;
+
+/**
+ * What a bulk update touched: the products it selected, those whose values it actually
+ * changed, and the chunks it was committed in.
+ */
+public record BulkUpdateResult(long matched, long changed, int chunks) {
+}
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
@@ -18,16 +19,48 @@ public class Product {
     @GeneratedValue
     private UUID productId;
 
+    @Column(length = 200)
     private String name;
+    @Column(length = 1000)
     private String description;
+    @Column(precision = 12, scale = 2)
     private BigDecimal price;
     private Integer currentQuantity = 0;
+    private Integer reservedQuantity = 0;
+    /**
+     * Units held at warehouses, the sum of the product's warehouse stock. Only changed
+     * together with that stock, through {@link ProductRepository#adjustStock}.
+     */
+    @Column(insertable = false, updatable = false)
+    private Integer locatedQuantity;
+    private Integer reorderThreshold;
+    /**
+     * Counts the edits of the product, its entity tag. Stock changes do not count.
+     */
+    private Long version = 0L;
 
     private LocalDateTime createdAt;
     private LocalDateTime modifiedAt;
 
+    public int getAvailableQuantity() {
+        int current = currentQuantity == null ? 0 : currentQuantity;
+        int reserved = reservedQuantity == null ? 0 : reservedQuantity;
+        return current - reserved;
+    }
+
+    /**
+     * Units that are neither reserved nor held at a warehouse: all that reservations and
+     * stock changes without a warehouse can draw on.
+     */
+    public int getUnassignedQuantity() {
+        return getAvailableQuantity() - (locatedQuantity == null ? 0 : locatedQuantity);
+    }
+
     @PrePersist
     protected void onCreate() {
+        if (this.reservedQuantity == null) {
+            this.reservedQuantity = 0;
+        }
         this.createdAt = LocalDateTime.now();
         this.modifiedAt = LocalDateTime.now();
     }
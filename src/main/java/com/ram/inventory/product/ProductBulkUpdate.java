@@ -0,0 +1,50 @@
+package com.ram.inventory.product;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import com.ram.inventory.exception.ApiException;
+
+import lombok.Data;
+
+/**
+ * Changes to apply to many products at once: either the products listed in {@code ids} or
+ * all that match {@code filter}. Every change that is set is applied to each of them;
+ * {@code price} and {@code priceMultiplier} exclude each other.
+ */
+@Data
+public class ProductBulkUpdate {
+
+    private List<UUID> ids;
+    private ProductFilter filter;
+
+    private BigDecimal price;
+    private BigDecimal priceMultiplier;
+    private String description;
+    private Integer reorderThreshold;
+
+    void validate() {
+        if ((ids == null) == (filter == null)) {
+            throw new ApiException("Select products either by ids or by filter", 400);
+        }
+        if (filter != null) {
+            filter.validate();
+        }
+        if (price == null && priceMultiplier == null && description == null && reorderThreshold == null) {
+            throw new ApiException("No change given", 400);
+        }
+        if (price != null && priceMultiplier != null) {
+            throw new ApiException("Set either price or priceMultiplier", 400);
+        }
+        if (price != null && price.signum() < 0) {
+            throw new ApiException("price must not be negative", 400);
+        }
+        if (priceMultiplier != null && priceMultiplier.signum() <= 0) {
+            throw new ApiException("priceMultiplier must be positive", 400);
+        }
+        if (reorderThreshold != null && reorderThreshold < 0) {
+            throw new ApiException("reorderThreshold must not be negative", 400);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ram.inventory.product;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import com.ram.inventory.shard.ShardRouter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies the same changes to many products with set-based updates instead of one
+ * load, merge and full-row save per product.
+ * <p>
+ * Products are updated in chunks of {@code chunkSize}, in productId order per shard, each
+ * chunk in its own transaction: it locks the chunk's rows, updates them with one statement
+ * that also sets {@code modifiedAt}, and reads back only the columns the caches need. A
+ * product whose values changed is published as updated, with its searchable text when the
+ * description changed, which keeps the search index, the valuation and the change feed in
+ * step. A failed chunk stops the update; the
+ * chunks before it stay committed.
+ */
+@Slf4j
+@Service
+class ProductBulkUpdater {
+
+    private static final UUID FIRST = new UUID(0, 0);
+
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final int chunkSize;
+
+    ProductBulkUpdater(ProductRepository productRepository, ApplicationEventPublisher eventPublisher,
+            ShardRouter shardRouter,
+            @Value("${inventory.bulk-update.chunk-size:500}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.shardRouter = shardRouter;
+        this.chunkSize = chunkSize;
+    }
+
+    BulkUpdateResult update(ProductBulkUpdate request) {
+        request.validate();
+        Totals totals = new Totals();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            if (request.getIds() != null) {
+                updateListed(shard, request, totals);
+            } else {
+                updateMatching(shard, request, totals);
+            }
+        }
+        log.info("Bulk update matched {} products and changed {} in {} chunks", totals.matched, totals.changed,
+                totals.chunks);
+        return new BulkUpdateResult(totals.matched, totals.changed, totals.chunks);
+    }
+
+    private void updateListed(int shard, ProductBulkUpdate request, Totals totals) {
+        List<UUID> ids = shardRouter.onlyOnShard(shard, request.getIds()).stream().distinct().sorted().toList();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            totals.add(shardRouter.inNewTransaction(shard, () -> applyChunk(chunk, request)));
+        }
+    }
+
+    /**
+     * Walks the products matching the filter by productId, so a product whose update makes
+     * it stop or start matching is neither skipped nor updated twice.
+     */
+    private void updateMatching(int shard, ProductBulkUpdate request, Totals totals) {
+        Specification<Product> filter = request.getFilter().toSpecification();
+        UUID after = FIRST;
+        while (after != null) {
+            UUID from = after;
+            Specification<Product> page = filter
+                    .and((root, query, builder) -> builder.greaterThan(root.get("productId"), from));
+            after = shardRouter.inNewTransaction(shard, () -> {
+                List<UUID> chunk = productRepository.findBy(page, query -> query.as(ProductRepository.IdOnly.class)
+                        .sortBy(Sort.by("productId")).limit(chunkSize).all())
+                        .stream().map(ProductRepository.IdOnly::getProductId).toList();
+                if (chunk.isEmpty()) {
+                    return null;
+                }
+                totals.add(applyChunk(chunk, request));
+                return chunk.size() < chunkSize ? null : chunk.getLast();
+            });
+        }
+    }
+
+    private Chunk applyChunk(List<UUID> ids, ProductBulkUpdate request) {
+        List<ProductRepository.BulkRow> before = productRepository.lockBulkRows(ids);
+        if (before.isEmpty()) {
+            return new Chunk(0, 0);
+        }
+        List<UUID> locked = before.stream().map(ProductRepository.BulkRow::getProductId).toList();
+        productRepository.bulkUpdate(locked, request.getPrice(), request.getPriceMultiplier(),
+                request.getDescription(), request.getReorderThreshold(), LocalDateTime.now());
+        Map<UUID, ProductRepository.BulkRow> after = productRepository.findBulkRows(locked).stream()
+                .collect(Collectors.toMap(ProductRepository.BulkRow::getProductId, Function.identity()));
+
+        int changed = 0;
+        for (ProductRepository.BulkRow previous : before) {
+            ProductRepository.BulkRow current = after.get(previous.getProductId());
+            boolean priceChanged = previous.getPrice() == null ? current.getPrice() != null
+                    : current.getPrice() == null || previous.getPrice().compareTo(current.getPrice()) != 0;
+            boolean descriptionChanged = !Objects.equals(previous.getDescription(), current.getDescription());
+            if (!priceChanged && !descriptionChanged
+                    && Objects.equals(previous.getReorderThreshold(), current.getReorderThreshold())) {
+                continue;
+            }
+            changed++;
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED,
+                    current.getProductId(), current.getPrice(), previous.getPrice(),
+                    previous.getCurrentQuantity() == null ? 0 : previous.getCurrentQuantity(),
+                    descriptionChanged ? current.getName() : null,
+                    descriptionChanged ? current.getDescription() : null));
+        }
+        return new Chunk(before.size(), changed);
+    }
+
+    private record Chunk(int matched, int changed) {
+    }
+
+    private static final class Totals {
+        long matched;
+        long changed;
+        int chunks;
+
+        void add(Chunk chunk) {
+            matched += chunk.matched();
+            changed += chunk.changed();
+            chunks++;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.ram.inventory.product;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published when a product is created, edited or deleted through the catalog API.
+ * <p>
+ * {@code quantity} is the stock the product held before any {@link StockLevelChangedEvent}
+ * published with this event: 0 for a new product, the previous stock for an edit and the
+ * last stock for a deletion. A price change applies to that quantity. The prices are null
+ * when a deleted product did not exist.
+ * <p>
+ * {@code name} and {@code description} are the searchable text after the change, and both
+ * null when the change left it alone.
+ */
+@Data
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private Type type;
+    private UUID productId;
+    private BigDecimal price;
+    private BigDecimal previousPrice;
+    private int quantity;
+    private String name;
+    private String description;
+
+    public ProductChangedEvent(Type type, UUID productId) {
+        this(type, productId, null, null, 0);
+    }
+
+    public ProductChangedEvent(Type type, UUID productId, BigDecimal price, BigDecimal previousPrice, int quantity) {
+        this(type, productId, price, previousPrice, quantity, null, null);
+    }
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(Type.CREATED, product.getProductId(), product.getPrice(), product.getPrice(), 0,
+                product.getName(), product.getDescription());
+    }
+
+    public static ProductChangedEvent updated(Product product, BigDecimal previousPrice, int previousQuantity) {
+        return new ProductChangedEvent(Type.UPDATED, product.getProductId(), product.getPrice(), previousPrice,
+                previousQuantity, product.getName(), product.getDescription());
+    }
+
+    public static ProductChangedEvent deleted(Product product) {
+        return new ProductChangedEvent(Type.DELETED, product.getProductId(), product.getPrice(), product.getPrice(),
+                product.getCurrentQuantity());
+    }
+
+    boolean changesSearchText() {
+        return name != null || description != null;
+    }
+}
@@ -1,18 +1,23 @@
 package com.ram.inventory.product;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ram.inventory.util.ApiResponse;
+import com.ram.inventory.util.ETags;
 import com.ram.inventory.util.PaginationResponse;
 
 import lombok.extern.slf4j.Slf4j;
@@ -23,9 +28,11 @@ import lombok.extern.slf4j.Slf4j;
 public class ProductController {
 
 	private final ProductService productService;
+	private final ProductBulkUpdater bulkUpdater;
 
-	public ProductController(ProductService productService) {
+	public ProductController(ProductService productService, ProductBulkUpdater bulkUpdater) {
 		this.productService = productService;
+		this.bulkUpdater = bulkUpdater;
 	}
 
 	@PostMapping
@@ -36,7 +43,9 @@ public class ProductController {
 
 	@GetMapping(value = "/get-product")
 	public ResponseEntity<ApiResponse<ProductDTO>> getProduct(@RequestParam UUID id) throws Exception {
-		return ResponseEntity.ok(new ApiResponse<>(200, "Product Found", productService.getProduct(id)));
+		ProductDTO product = productService.getProduct(id);
+		return ResponseEntity.ok().eTag(ETags.of(product.getVersion()))
+				.body(new ApiResponse<>(200, "Product Found", product));
 
 	}
 
@@ -44,9 +53,26 @@ public class ProductController {
 	public ResponseEntity<ApiResponse<PaginationResponse<ProductDTO>>> getProducts(
 			@RequestParam(defaultValue = "0") int pageNumber,
 			@RequestParam(defaultValue = "10") int pageSize,
-			@RequestParam(defaultValue = "name") String sortBy) {
+			@RequestParam(defaultValue = "name") String sortBy,
+			ProductFilter filter) {
+		return ResponseEntity.ok(
+				new ApiResponse<>(200, "Products Found", productService.getProducts(pageNumber, pageSize, sortBy, filter)));
+	}
+
+	@GetMapping(value = "/search")
+	public ResponseEntity<ApiResponse<List<ProductDTO>>> searchProducts(
+			@RequestParam String q,
+			@RequestParam(defaultValue = "20") int limit) {
 		return ResponseEntity
-				.ok(new ApiResponse<>(200, "Products Found", productService.getProducts(pageNumber, pageSize, sortBy)));
+				.ok(new ApiResponse<>(200, "Products Found", productService.searchProducts(q, limit)));
+	}
+
+	/**
+	 * Requests, database loads, coalesced waits and micro-cache hits of the product reads.
+	 */
+	@GetMapping(value = "/read-metrics")
+	public ResponseEntity<ApiResponse<List<ReadCoalescingMetrics>>> getReadMetrics() {
+		return ResponseEntity.ok(new ApiResponse<>(200, "Read Metrics Found", productService.readMetrics()));
 	}
 
 	@PostMapping(value = "/update")
@@ -55,6 +81,24 @@ public class ProductController {
 				.ok(new ApiResponse<>(200, "Product Updated", productService.updateProduct(product)));
 	}
 
+	/**
+	 * Changes only the fields given, if the product still has the version in If-Match.
+	 */
+	@PatchMapping
+	public ResponseEntity<ApiResponse<ProductDTO>> patchProduct(@RequestParam UUID id,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+			@RequestBody ProductPatch patch) {
+		ProductDTO product = productService.patchProduct(id, patch, ETags.parseIfMatch(ifMatch));
+		return ResponseEntity.ok().eTag(ETags.of(product.getVersion()))
+				.body(new ApiResponse<>(200, "Product Updated", product));
+	}
+
+	@PostMapping(value = "/bulk-update")
+	public ResponseEntity<ApiResponse<BulkUpdateResult>> bulkUpdate(@RequestBody ProductBulkUpdate request) {
+		return ResponseEntity
+				.ok(new ApiResponse<>(200, "Products Updated", bulkUpdater.update(request)));
+	}
+
 	@PostMapping(value = "/delete")
 	public ResponseEntity<ApiResponse<String>> deleteProduct(@RequestBody Map<String, String> request) {
 		productService.deleteProduct(UUID.fromString(request.get("id")));
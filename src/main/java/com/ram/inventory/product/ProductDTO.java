@@ -13,6 +13,10 @@ public class ProductDTO {
     private String description;
     private BigDecimal price;
     private Integer currentQuantity;
+    private Integer reservedQuantity;
+    private Integer availableQuantity;
+    private Integer reorderThreshold;
+    private Long version;
     private LocalDateTime createdAt;
     private LocalDateTime modifiedAt;
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.ram.inventory.product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.ram.inventory.exception.ApiException;
+
+import jakarta.persistence.criteria.Predicate;
+import lombok.Data;
+
+/**
+ * Optional criteria of the product listing, bound from query parameters. Every bound that
+ * is set narrows the result; ranges include both ends except {@code modifiedTo}.
+ * <p>
+ * Only the columns below can be filtered on and only {@link #SORTABLE} can be sorted by;
+ * each filter and sort field is backed by an index whose leading column it is.
+ */
+@Data
+public class ProductFilter {
+
+    static final Set<String> SORTABLE = Set.of("name", "price", "currentQuantity", "createdAt", "modifiedAt",
+            "productId");
+
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minQuantity;
+    private Integer maxQuantity;
+    private String namePrefix;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime modifiedFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime modifiedTo;
+
+    static void checkSortable(String sortBy) {
+        if (!SORTABLE.contains(sortBy)) {
+            throw new ApiException("Cannot sort products by " + sortBy + ", use one of " + SORTABLE, 400);
+        }
+    }
+
+    void validate() {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new ApiException("minPrice must not exceed maxPrice", 400);
+        }
+        if (minQuantity != null && maxQuantity != null && minQuantity > maxQuantity) {
+            throw new ApiException("minQuantity must not exceed maxQuantity", 400);
+        }
+        if (modifiedFrom != null && modifiedTo != null && !modifiedFrom.isBefore(modifiedTo)) {
+            throw new ApiException("modifiedFrom must be before modifiedTo", 400);
+        }
+    }
+
+    Specification<Product> toSpecification() {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (minPrice != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("price"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("price"), maxPrice));
+            }
+            if (minQuantity != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("currentQuantity"), minQuantity));
+            }
+            if (maxQuantity != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("currentQuantity"), maxQuantity));
+            }
+            if (namePrefix != null && !namePrefix.isEmpty()) {
+                // a case-sensitive prefix match can range scan the name index
+                predicates.add(builder.like(root.get("name"), escapeLike(namePrefix) + "%", '\\'));
+            }
+            if (modifiedFrom != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("modifiedAt"), modifiedFrom));
+            }
+            if (modifiedTo != null) {
+                predicates.add(builder.lessThan(root.get("modifiedAt"), modifiedTo));
+            }
+            return builder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,54 @@
+package com.ram.inventory.product;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.ram.inventory.exception.ApiException;
+
+import lombok.Data;
+
+/**
+ * The catalog fields of a product to change; fields left out stay as they are. Stock is
+ * changed through transactions, not edited.
+ */
+@Data
+public class ProductPatch {
+
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private Integer reorderThreshold;
+
+    /**
+     * The product attributes to set, checked.
+     */
+    Map<String, Object> changes() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (name != null) {
+            if (name.isBlank()) {
+                throw new ApiException("name must not be blank", 400);
+            }
+            changes.put("name", name);
+        }
+        if (description != null) {
+            changes.put("description", description);
+        }
+        if (price != null) {
+            if (price.signum() < 0) {
+                throw new ApiException("price must not be negative", 400);
+            }
+            changes.put("price", price);
+        }
+        if (reorderThreshold != null) {
+            if (reorderThreshold < 0) {
+                throw new ApiException("reorderThreshold must not be negative", 400);
+            }
+            changes.put("reorderThreshold", reorderThreshold);
+        }
+        if (changes.isEmpty()) {
+            throw new ApiException("No change given", 400);
+        }
+        return changes;
+    }
+}
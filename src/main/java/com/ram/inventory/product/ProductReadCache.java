@@ -0,0 +1,77 @@
+package com.ram.inventory.product;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ram.inventory.util.PaginationResponse;
+import com.ram.inventory.util.SingleFlight;
+
+/**
+ * Coalesces identical concurrent product reads into one database load and keeps their
+ * results for {@code ttl}, see {@link SingleFlight}. Results are shared between requests,
+ * so they must not be modified.
+ * <p>
+ * A committed catalog or stock change drops the product it concerns and every listing
+ * and search result. Reservations publish no change, so the reserved and available
+ * quantities read may be up to {@code ttl} old.
+ */
+@Component
+class ProductReadCache {
+
+    private final SingleFlight<UUID, ProductDTO> products;
+    private final SingleFlight<Object, PaginationResponse<ProductDTO>> pages;
+    private final SingleFlight<Object, List<ProductDTO>> searches;
+
+    ProductReadCache(@Value("${inventory.read-coalescing.ttl:1s}") Duration ttl,
+            @Value("${inventory.read-coalescing.max-entries:10000}") int maxEntries) {
+        this.products = new SingleFlight<>(ttl.toNanos(), maxEntries);
+        this.pages = new SingleFlight<>(ttl.toNanos(), maxEntries);
+        this.searches = new SingleFlight<>(ttl.toNanos(), maxEntries);
+    }
+
+    ProductDTO product(UUID id, Supplier<ProductDTO> loader) {
+        return products.get(id, loader);
+    }
+
+    PaginationResponse<ProductDTO> page(Object key, Supplier<PaginationResponse<ProductDTO>> loader) {
+        return pages.get(key, loader);
+    }
+
+    List<ProductDTO> search(Object key, Supplier<List<ProductDTO>> loader) {
+        return searches.get(key, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.getProductId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        invalidate(event.getProductId());
+    }
+
+    List<ReadCoalescingMetrics> metrics() {
+        return List.of(metrics("product", products), metrics("products", pages), metrics("search", searches));
+    }
+
+    private void invalidate(UUID productId) {
+        products.invalidate(productId);
+        pages.invalidateAll();
+        searches.invalidateAll();
+    }
+
+    private static ReadCoalescingMetrics metrics(String name, SingleFlight<?, ?> reads) {
+        // loads first: a request is counted before its load
+        long loads = reads.getLoads();
+        long requests = reads.getRequests();
+        return new ReadCoalescingMetrics(name, requests, loads, reads.getJoined(), reads.getCacheHits(),
+                requests == 0 ? 0 : 1 - (double) loads / requests);
+    }
+}
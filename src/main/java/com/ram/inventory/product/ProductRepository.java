@@ -1,8 +1,108 @@
 package com.ram.inventory.product;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.LockModeType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.productId = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Locks all given products in one statement. Rows are locked in productId order, so
+     * two transactions locking overlapping sets always acquire them in the same sequence.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.productId in :ids order by p.productId")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Changes a product's stock and the part of it held at warehouses in one statement,
+     * unless that would take it below what is reserved plus what is located. Returns 0
+     * when the change was refused. The row is locked only from here to the end of the
+     * transaction, and the persistence context is cleared, so reload the product to see
+     * the result.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.currentQuantity = p.currentQuantity + :delta,"
+            + " p.locatedQuantity = p.locatedQuantity + :locatedDelta, p.modifiedAt = :now"
+            + " where p.productId = :id and p.locatedQuantity + :locatedDelta >= 0"
+            + " and p.currentQuantity + :delta >= p.reservedQuantity + p.locatedQuantity + :locatedDelta")
+    int adjustStock(@Param("id") UUID id, @Param("delta") int delta, @Param("locatedDelta") int locatedDelta,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Locks the given products in productId order and reads what a bulk update changes and
+     * what the caches of a changed product need, without loading the entities.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p.productId as productId, p.name as name, p.description as description, p.price as price,"
+            + " p.currentQuantity as currentQuantity, p.reorderThreshold as reorderThreshold"
+            + " from Product p where p.productId in :ids order by p.productId")
+    List<BulkRow> lockBulkRows(@Param("ids") Collection<UUID> ids);
+
+    @Query("select p.productId as productId, p.name as name, p.description as description, p.price as price,"
+            + " p.currentQuantity as currentQuantity, p.reorderThreshold as reorderThreshold"
+            + " from Product p where p.productId in :ids order by p.productId")
+    List<BulkRow> findBulkRows(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Applies the same changes to all given products in one statement, counting an edit in
+     * their version; a null change leaves its column as it is. The multiplier is cast, or
+     * it would take on the scale of the price column, and a multiplied price is rounded to
+     * cents.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p"
+            + " set p.price = coalesce(:price, round(p.price * cast(:multiplier as BigDecimal(19,6)), 2), p.price),"
+            + " p.description = coalesce(:description, p.description),"
+            + " p.reorderThreshold = coalesce(:reorderThreshold, p.reorderThreshold), p.modifiedAt = :now,"
+            + " p.version = p.version + 1 where p.productId in :ids")
+    int bulkUpdate(@Param("ids") Collection<UUID> ids, @Param("price") BigDecimal price,
+            @Param("multiplier") BigDecimal multiplier, @Param("description") String description,
+            @Param("reorderThreshold") Integer reorderThreshold, @Param("now") LocalDateTime now);
+
+    @Query("select p.productId as productId, p.name as name, p.description as description from Product p")
+    Stream<SearchDocument> streamSearchDocuments();
+
+    interface SearchDocument {
+        UUID getProductId();
+
+        String getName();
+
+        String getDescription();
+    }
+
+    interface BulkRow {
+        UUID getProductId();
+
+        String getName();
+
+        String getDescription();
+
+        BigDecimal getPrice();
+
+        Integer getCurrentQuantity();
+
+        Integer getReorderThreshold();
+    }
 
-public interface ProductRepository extends JpaRepository<Product, UUID> {
-}
\ No newline at end of file
+    interface IdOnly {
+        UUID getProductId();
+    }
+}
@@ -0,0 +1,243 @@
+package com.ram.inventory.product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ram.inventory.util.PrefixTrie;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory inverted index over product name and description.
+ *
+ * Every query token is matched as a prefix: the trie expands it into indexed terms and
+ * the most selective token drives candidate enumeration, while the remaining tokens are
+ * checked against the candidate's own term list. A query therefore touches roughly
+ * {@code limit} documents instead of intersecting full posting lists. A token is first
+ * expanded into at most {@value #MAX_PREFIX_EXPANSION} terms, shortest first; only when
+ * those do not fill the limit are the remaining terms of the driving token scanned.
+ * <p>
+ * Catalog changes are applied once they are committed, so a rolled-back change never
+ * shows in or drops out of the results.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    static final int MAX_PREFIX_EXPANSION = 256;
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private final Map<String, Set<UUID>> postings = new ConcurrentHashMap<>();
+    private final Map<UUID, String[]> documents = new ConcurrentHashMap<>();
+    private final PrefixTrie terms = new PrefixTrie();
+    private final Set<UUID> removedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    public void index(UUID productId, String name, String description) {
+        String[] newTerms = tokenize(name, description);
+        documents.compute(productId, (id, oldTerms) -> {
+            if (oldTerms != null) {
+                Set<String> kept = new HashSet<>(Arrays.asList(newTerms));
+                for (String term : oldTerms) {
+                    if (!kept.contains(term)) {
+                        removePosting(term, id);
+                    }
+                }
+            }
+            for (String term : newTerms) {
+                addPosting(term, id);
+            }
+            return newTerms;
+        });
+    }
+
+    public void remove(UUID productId) {
+        if (rebuilding) {
+            removedDuringRebuild.add(productId);
+        }
+        documents.computeIfPresent(productId, (id, oldTerms) -> {
+            for (String term : oldTerms) {
+                removePosting(term, id);
+            }
+            return null;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            remove(event.getProductId());
+        } else if (event.changesSearchText()) {
+            index(event.getProductId(), event.getName(), event.getDescription());
+        }
+    }
+
+    /**
+     * Indexes a snapshot of the catalog using the common fork-join pool. Documents indexed
+     * or removed by live updates while the snapshot is loading win over the snapshot.
+     */
+    public void rebuild(Stream<ProductRepository.SearchDocument> products) {
+        rebuilding = true;
+        removedDuringRebuild.clear();
+        try {
+            long start = System.nanoTime();
+            products.parallel()
+                    .filter(product -> !removedDuringRebuild.contains(product.getProductId()))
+                    .forEach(product -> {
+                        String[] snapshot = tokenize(product.getName(), product.getDescription());
+                        documents.computeIfAbsent(product.getProductId(), id -> {
+                            for (String term : snapshot) {
+                                addPosting(term, id);
+                            }
+                            return snapshot;
+                        });
+                    });
+            log.info("Indexed {} products for search in {} ms", documents.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            rebuilding = false;
+            removedDuringRebuild.clear();
+        }
+    }
+
+    public List<UUID> search(String query, int limit) {
+        String[] tokens = tokenize(query);
+        if (tokens.length == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        List<List<String>> expansions = new ArrayList<>(tokens.length);
+        int driver = 0;
+        long driverSize = Long.MAX_VALUE;
+        for (int i = 0; i < tokens.length; i++) {
+            List<String> expansion = terms.termsWithPrefix(tokens[i], MAX_PREFIX_EXPANSION);
+            if (expansion.isEmpty()) {
+                return List.of();
+            }
+            expansions.add(expansion);
+            long size = expansion.size() < MAX_PREFIX_EXPANSION ? postingSize(expansion) : Long.MAX_VALUE - 1;
+            if (size < driverSize) {
+                driver = i;
+                driverSize = size;
+            }
+        }
+
+        Set<UUID> results = new LinkedHashSet<>();
+        List<String> driverTerms = expansions.get(driver);
+        if (!collect(driverTerms, tokens, driver, limit, results) && driverTerms.size() >= MAX_PREFIX_EXPANSION) {
+            // the expansion was cut short, the remaining terms of the prefix may still match
+            Set<String> scanned = new HashSet<>(driverTerms);
+            List<String> remaining = terms.termsWithPrefix(tokens[driver], Integer.MAX_VALUE).stream()
+                    .filter(term -> !scanned.contains(term))
+                    .toList();
+            collect(remaining, tokens, driver, limit, results);
+        }
+        return new ArrayList<>(results);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Adds the documents of {@code driverTerms} that match every other token, and returns
+     * whether {@code limit} was reached.
+     */
+    private boolean collect(List<String> driverTerms, String[] tokens, int driver, int limit, Set<UUID> results) {
+        for (String term : driverTerms) {
+            Set<UUID> ids = postings.get(term);
+            if (ids == null) {
+                continue;
+            }
+            for (UUID id : ids) {
+                if (!results.contains(id) && matchesAll(id, tokens, driver)) {
+                    results.add(id);
+                    if (results.size() >= limit) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesAll(UUID id, String[] tokens, int skip) {
+        String[] documentTerms = documents.get(id);
+        if (documentTerms == null) {
+            return false;
+        }
+        for (int i = 0; i < tokens.length; i++) {
+            if (i != skip && !containsPrefix(documentTerms, tokens[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsPrefix(String[] documentTerms, String prefix) {
+        for (String term : documentTerms) {
+            if (term.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long postingSize(List<String> expansion) {
+        long size = 0;
+        for (String term : expansion) {
+            Set<UUID> ids = postings.get(term);
+            size += ids == null ? 0 : ids.size();
+        }
+        return size;
+    }
+
+    private void addPosting(String term, UUID id) {
+        postings.compute(term, (t, ids) -> {
+            if (ids == null) {
+                ids = ConcurrentHashMap.newKeySet();
+                terms.add(t);
+            }
+            ids.add(id);
+            return ids;
+        });
+    }
+
+    private void removePosting(String term, UUID id) {
+        postings.computeIfPresent(term, (t, ids) -> {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                terms.remove(t);
+                return null;
+            }
+            return ids;
+        });
+    }
+
+    static String[] tokenize(String... fields) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String field : fields) {
+            if (field == null) {
+                continue;
+            }
+            for (String token : field.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (!token.isEmpty()) {
+                    tokens.add(token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token);
+                }
+            }
+        }
+        return tokens.toArray(String[]::new);
+    }
+}
@@ -1,54 +1,121 @@
 package com.ram.inventory.product;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.util.Streamable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.ram.inventory.exception.ApiException;
 import com.ram.inventory.exception.ResourceNotFoundException;
+import com.ram.inventory.replica.ReplicaContext;
+import com.ram.inventory.shard.ShardRouter;
 import com.ram.inventory.util.PaginationResponse;
+import com.ram.inventory.util.PartialUpdates;
 
 @Service
 public class ProductService {
 
+    static final int MAX_SEARCH_LIMIT = 100;
+
     private final ProductRepository productRepository;
     private final ModelMapper modelMapper;
-
-    public ProductService(ProductRepository productRepository, ModelMapper modelMapper) {
+    private final ProductSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final PartialUpdates partialUpdates;
+    private final ProductReadCache readCache;
+
+    public ProductService(ProductRepository productRepository, ModelMapper modelMapper,
+            ProductSearchIndex searchIndex, ApplicationEventPublisher eventPublisher, ShardRouter shardRouter,
+            PartialUpdates partialUpdates, ProductReadCache readCache) {
         this.productRepository = productRepository;
         this.modelMapper = modelMapper;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.shardRouter = shardRouter;
+        this.partialUpdates = partialUpdates;
+        this.readCache = readCache;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSearchIndex() {
+        shardRouter.forEachShard(true, shard -> {
+            try (Stream<ProductRepository.SearchDocument> documents = productRepository.streamSearchDocuments()) {
+                searchIndex.rebuild(documents);
+            }
+        });
     }
 
     @Transactional
     ProductDTO createProduct(ProductDTO product) {
+        product.setReservedQuantity(null);
+        product.setVersion(null);
+        // the generated id is known before anything is flushed, so the insert can still be routed
         Product result = productRepository.save(modelMapper.map(product, Product.class));
+        shardRouter.bindTransaction(shardRouter.shardFor(result.getProductId()));
+        eventPublisher.publishEvent(ProductChangedEvent.created(result));
+        if (result.getCurrentQuantity() != null && result.getCurrentQuantity() != 0) {
+            // the initial stock is the first ledger entry of the product
+            eventPublisher.publishEvent(StockLevelChangedEvent.of(result, 0, StockChangeReason.ADJUSTMENT, null));
+        }
         return modelMapper.map(result, ProductDTO.class);
     }
 
+    /**
+     * Reads a product through the {@link ProductReadCache}, so identical concurrent reads
+     * share one load. Nothing holds a transaction while waiting for a shared load; the
+     * load itself runs in a read-only one.
+     */
     ProductDTO getProduct(UUID id){
-        Product product = productRepository.findById(id)
+        return coalesced(() -> readCache.product(id, () -> loadProduct(id)), () -> loadProduct(id));
+    }
+
+    private ProductDTO loadProduct(UUID id) {
+        Product product = shardRouter.readOnShard(shardRouter.shardFor(id), () -> productRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
         return modelMapper.map(product, ProductDTO.class);
     }
 
-    PaginationResponse<ProductDTO> getProducts(int pageNumber, int pageSize, String sortBy) {
+    PaginationResponse<ProductDTO> getProducts(int pageNumber, int pageSize, String sortBy, ProductFilter filter) {
+        ProductFilter.checkSortable(sortBy);
+        filter.validate();
+        List<Object> key = List.of(pageNumber, pageSize, sortBy, filter);
+        return coalesced(() -> readCache.page(key, () -> loadProducts(pageNumber, pageSize, sortBy, filter)),
+                () -> loadProducts(pageNumber, pageSize, sortBy, filter));
+    }
+
+    private PaginationResponse<ProductDTO> loadProducts(int pageNumber, int pageSize, String sortBy,
+            ProductFilter filter) {
         Streamable<Sort.Order> streamableOrders = Sort.by(Sort.Order.asc(sortBy)).and(Sort.Order.asc("productId"));
         Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(streamableOrders.stream().toList()));
 
-        Page<Product> products = productRepository.findAll(pageable);
-        List<ProductDTO> dtoList = products.getContent().stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class)).toList();
+        Specification<Product> specification = filter.toSpecification();
+        Page<ProductDTO> products = shardRouter.scatterPage(pageable,
+                page -> productRepository.findAll(specification, page),
+                product -> modelMapper.map(product, ProductDTO.class));
 
         return new PaginationResponse<>(
-                dtoList,
+                products.getContent(),
                 new PaginationResponse.PaginationInfo(
                         products.getNumber(),
                         products.getSize(),
@@ -56,20 +123,107 @@ public class ProductService {
                         products.getTotalElements()));
     }
 
+    @Transactional
     ProductDTO updateProduct(ProductDTO product){
         if (product.getProductId() == null) {
             throw new ResourceNotFoundException("Product ID missing");
         }
+        return shardRouter.onShard(shardRouter.shardFor(product.getProductId()), () -> update(product));
+    }
 
+    private ProductDTO update(ProductDTO product) {
         Product existingProduct = productRepository.findById(product.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
+        // reservations are only changed through the reservation API
+        product.setReservedQuantity(existingProduct.getReservedQuantity());
+        Integer previousQuantity = existingProduct.getCurrentQuantity();
+        BigDecimal previousPrice = existingProduct.getPrice();
+        long previousVersion = existingProduct.getVersion();
         modelMapper.map(product, existingProduct);
+        existingProduct.setVersion(previousVersion + 1);
         Product result = productRepository.save(existingProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(result, previousPrice,
+                previousQuantity == null ? 0 : previousQuantity));
+        if (previousQuantity != null && result.getCurrentQuantity() != null
+                && !previousQuantity.equals(result.getCurrentQuantity())) {
+            eventPublisher.publishEvent(
+                    StockLevelChangedEvent.of(result, previousQuantity, StockChangeReason.ADJUSTMENT, null));
+        }
         return modelMapper.map(result, ProductDTO.class);
     }
 
+    /**
+     * Writes only the fields set in the patch, provided the product still has the expected
+     * version, or any version when none is expected. The product is not loaded before the
+     * update; only a price change reads its price and stock first, locked, for the
+     * valuation.
+     */
+    ProductDTO patchProduct(UUID id, ProductPatch patch, Long expectedVersion) {
+        Map<String, Object> changes = patch.changes();
+        changes.put("modifiedAt", LocalDateTime.now());
+        return shardRouter.inNewTransaction(shardRouter.shardFor(id), () -> {
+            ProductRepository.BulkRow previous = patch.getPrice() == null ? null
+                    : productRepository.lockBulkRows(List.of(id)).stream().findFirst().orElse(null);
+            if (partialUpdates.update(Product.class, "productId", id, expectedVersion, changes) == 0) {
+                if (productRepository.existsById(id)) {
+                    throw new ApiException("Product has been changed since version " + expectedVersion, 412);
+                }
+                throw new ResourceNotFoundException("Product not found");
+            }
+            Product result = productRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+            BigDecimal previousPrice = previous == null ? result.getPrice() : previous.getPrice();
+            Integer quantity = previous == null ? result.getCurrentQuantity() : previous.getCurrentQuantity();
+            eventPublisher.publishEvent(
+                    ProductChangedEvent.updated(result, previousPrice, quantity == null ? 0 : quantity));
+            return modelMapper.map(result, ProductDTO.class);
+        });
+    }
+
+    List<ProductDTO> searchProducts(String query, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_SEARCH_LIMIT);
+        List<Object> key = List.of(String.valueOf(query), size);
+        return coalesced(() -> readCache.search(key, () -> loadSearch(query, size)), () -> loadSearch(query, size));
+    }
+
+    List<ReadCoalescingMetrics> readMetrics() {
+        return readCache.metrics();
+    }
+
+    private List<ProductDTO> loadSearch(String query, int size) {
+        List<UUID> ids = searchIndex.search(query, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Product> products = shardRouter
+                .scatter(shard -> productRepository.findAllById(shardRouter.onlyOnShard(shard, ids))).stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(product -> modelMapper.map(product, ProductDTO.class))
+                .toList();
+    }
+
+    @Transactional
     void deleteProduct(UUID id){
-        productRepository.deleteById(id);
+        // locked, so the stock it is deleted with is final
+        Product product = shardRouter.onShard(shardRouter.shardFor(id), () -> {
+            Product existing = productRepository.findByIdForUpdate(id).orElse(null);
+            productRepository.deleteById(id);
+            return existing;
+        });
+        eventPublisher.publishEvent(product == null ? new ProductChangedEvent(ProductChangedEvent.Type.DELETED, id)
+                : ProductChangedEvent.deleted(product));
+    }
+
+    /**
+     * A request that must read its own writes bypasses the shared results: another request
+     * may have loaded them from a replica that has not caught up yet.
+     */
+    private static <T> T coalesced(Supplier<T> shared, Supplier<T> own) {
+        return ReplicaContext.isPrimaryRequired() ? own.get() : shared.get();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+package com.ram.inventory.product;
+
+/**
+ * How the reads of one kind were served: {@code loads} went to the database, {@code joined}
+ * waited for a load another request had started, and {@code cacheHits} were answered from
+ * the micro-cache. {@code coalescingRatio} is the share of requests served without a load
+ * of their own.
+ */
+public record ReadCoalescingMetrics(String name, long requests, long loads, long joined, long cacheHits,
+        double coalescingRatio) {
+}
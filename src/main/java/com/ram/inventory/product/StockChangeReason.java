@@ -0,0 +1,16 @@
+package com.ram.inventory.product;
+
+public enum StockChangeReason {
+    ORDER,
+    TOPUP,
+    WITHDRAW,
+    ADJUSTMENT,
+    /**
+     * Stock reset to the ledger by the reconciliation job; not itself a ledger entry.
+     */
+    RECONCILIATION,
+    /**
+     * Stock moved by the edit of a ledger entry that already exists; not itself a ledger entry.
+     */
+    CORRECTION
+}
@@ -0,0 +1,40 @@
+package com.ram.inventory.product;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published whenever a product's {@code currentQuantity} changes. {@code referenceId}
+ * points at the order or inventory transaction that caused the change, if any, and
+ * {@code price} is the product's price at the time.
+ */
+@Data
+@AllArgsConstructor
+public class StockLevelChangedEvent {
+    private UUID productId;
+    private String productName;
+    private int previousQuantity;
+    private int currentQuantity;
+    private Integer reorderThreshold;
+    private StockChangeReason reason;
+    private UUID referenceId;
+    private BigDecimal price;
+
+    public static StockLevelChangedEvent of(Product product, int previousQuantity, StockChangeReason reason,
+            UUID referenceId) {
+        return new StockLevelChangedEvent(product.getProductId(), product.getName(), previousQuantity,
+                product.getCurrentQuantity(), product.getReorderThreshold(), reason, referenceId, product.getPrice());
+    }
+
+    public int getDelta() {
+        return currentQuantity - previousQuantity;
+    }
+
+    public boolean crossedBelowThreshold() {
+        return reorderThreshold != null && previousQuantity > reorderThreshold
+                && currentQuantity <= reorderThreshold;
+    }
+}
@@ -0,0 +1,14 @@
+package com.ram.inventory.product;
+
+/**
+ * One change of a product's stock, applied by the {@link StockWriteCombiner} to the product
+ * it has locked. It checks and changes the stock, saves its ledger row and publishes its
+ * {@link StockLevelChangedEvent}, but leaves saving the product to the combiner. A refused
+ * change throws an {@link com.ram.inventory.exception.ApiException} before touching
+ * anything, so the other changes of its batch can go ahead.
+ */
+@FunctionalInterface
+public interface StockWrite<T> {
+
+    T apply(Product product);
+}
@@ -0,0 +1,250 @@
+package com.ram.inventory.product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.exception.ResourceNotFoundException;
+import com.ram.inventory.shard.ShardRouter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies stock changes of a product in their own transaction, combining the concurrent
+ * changes of a hot product into one.
+ * <p>
+ * A product turns hot once {@code threshold} changes arrived for it within a second. Its
+ * changes then queue up, and whichever caller finds no other one at work becomes the
+ * combiner (flat combining): it locks the product once, applies up to
+ * {@code maxBatch} queued changes in arrival order, saves the product with one update and
+ * commits the ledger rows of the whole batch as one batched insert. Each change still
+ * succeeds or fails on its own, and its caller returns only after the commit. A combiner
+ * stops once its own change is done; the callers still waiting take over within a
+ * millisecond.
+ * <p>
+ * Should a batch fail as a whole, its changes are retried one by one, so a single bad
+ * change cannot fail the others.
+ */
+@Slf4j
+@Component
+public class StockWriteCombiner {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long HANDOVER_MILLIS = 1;
+
+    private final ProductRepository productRepository;
+    private final ShardRouter shardRouter;
+    private final int threshold;
+    private final int maxBatch;
+    private final Map<UUID, Lane> lanes = new ConcurrentHashMap<>();
+
+    public StockWriteCombiner(ProductRepository productRepository, ShardRouter shardRouter,
+            @Value("${inventory.combining.threshold:50}") int threshold,
+            @Value("${inventory.combining.max-batch:100}") int maxBatch) {
+        this.productRepository = productRepository;
+        this.shardRouter = shardRouter;
+        this.threshold = threshold;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Applies the change to the product and returns its result once committed. Must not be
+     * called in a transaction.
+     */
+    public <T> T write(UUID productId, StockWrite<T> write) {
+        if (threshold <= 0) {
+            return alone(productId, write);
+        }
+        Lane lane = lanes.computeIfAbsent(productId, id -> new Lane());
+        if (!lane.arrive(System.nanoTime(), threshold)) {
+            return alone(productId, write);
+        }
+        Pending<T> pending = new Pending<>(write);
+        lane.queue.add(pending);
+        do {
+            combine(productId, lane, pending);
+        } while (!pending.await(lane.queue, HANDOVER_MILLIS));
+        return pending.result();
+    }
+
+    /**
+     * Forgets the products that received no change for a minute.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    void evictIdleLanes() {
+        long now = System.nanoTime();
+        lanes.values().removeIf(lane -> lane.queue.isEmpty() && now - lane.windowStart.get() > 60 * WINDOW_NANOS);
+    }
+
+    private <T> T alone(UUID productId, StockWrite<T> write) {
+        return shardRouter.inNewTransaction(shardRouter.shardFor(productId), () -> {
+            Product product = productRepository.findByIdForUpdate(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+            T result = write.apply(product);
+            productRepository.save(product);
+            return result;
+        });
+    }
+
+    private void combine(UUID productId, Lane lane, Pending<?> own) {
+        if (!lane.combining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (!own.isDone()) {
+                List<Pending<?>> batch = new ArrayList<>();
+                for (Pending<?> next; batch.size() < maxBatch && (next = lane.queue.poll()) != null;) {
+                    batch.add(next);
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                applyBatch(productId, batch);
+            }
+        } finally {
+            lane.combining.set(false);
+        }
+    }
+
+    private void applyBatch(UUID productId, List<Pending<?>> batch) {
+        List<Runnable> outcomes;
+        try {
+            outcomes = shardRouter.inNewTransaction(shardRouter.shardFor(productId), () -> {
+                Product product = productRepository.findByIdForUpdate(productId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+                List<Runnable> applied = new ArrayList<>(batch.size());
+                for (Pending<?> pending : batch) {
+                    applied.add(pending.apply(product));
+                }
+                productRepository.save(product);
+                return applied;
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.getFirst().fail(e);
+                return;
+            }
+            log.warn("Combined batch of {} stock changes of product {} failed, applying them one by one",
+                    batch.size(), productId, e);
+            batch.forEach(pending -> applyBatch(productId, List.of(pending)));
+            return;
+        }
+        outcomes.forEach(Runnable::run);
+        log.debug("Combined {} stock changes of product {}", batch.size(), productId);
+    }
+
+    /**
+     * The changes queued for one product and its arrival rate.
+     */
+    private static final class Lane {
+        final Queue<Pending<?>> queue = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean combining = new AtomicBoolean();
+        final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+        final AtomicInteger arrivals = new AtomicInteger();
+        volatile boolean hot;
+
+        /**
+         * Counts an arrival and tells whether the product is hot: it was in the previous
+         * window, or already is in the current one.
+         */
+        boolean arrive(long now, int threshold) {
+            long start = windowStart.get();
+            if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+                int previous = arrivals.getAndSet(0);
+                hot = now - start < 2 * WINDOW_NANOS && previous >= threshold;
+            }
+            return arrivals.incrementAndGet() >= threshold || hot;
+        }
+    }
+
+    /**
+     * A queued change and, once applied and committed, its outcome.
+     */
+    private static final class Pending<T> {
+        private final StockWrite<T> write;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private T result;
+        private RuntimeException failure;
+
+        Pending(StockWrite<T> write) {
+            this.write = write;
+        }
+
+        /**
+         * Applies the change and returns how to complete it after the commit. A refused
+         * change touched nothing and is reported as such; anything else fails the batch.
+         */
+        Runnable apply(Product product) {
+            try {
+                T value = write.apply(product);
+                return () -> succeed(value);
+            } catch (ApiException e) {
+                return () -> fail(e);
+            }
+        }
+
+        void succeed(T value) {
+            result = value;
+            done.countDown();
+        }
+
+        void fail(RuntimeException e) {
+            failure = e;
+            done.countDown();
+        }
+
+        boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        /**
+         * Waits for the change to complete. An interrupted caller withdraws a change still
+         * queued; one a combiner already took is waited for, as it may well commit.
+         */
+        boolean await(Queue<Pending<?>> queue, long millis) {
+            try {
+                return done.await(millis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                if (queue.remove(this)) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a combined stock change", e);
+                }
+                awaitUninterruptibly();
+                Thread.currentThread().interrupt();
+                return true;
+            }
+        }
+
+        private void awaitUninterruptibly() {
+            while (true) {
+                try {
+                    done.await();
+                    return;
+                } catch (InterruptedException ignored) {
+                    // the change is being applied, its outcome must still be reported
+                }
+            }
+        }
+
+        T result() {
+            if (failure != null) {
+                throw failure;
+            }
+            return result;
+        }
+    }
+}
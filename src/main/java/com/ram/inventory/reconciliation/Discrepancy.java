@@ -0,0 +1,14 @@
+package com.ram.inventory.reconciliation;
+
+import java.util.UUID;
+
+/**
+ * A product whose {@code currentQuantity} differs from what its ledger adds up to.
+ * {@code repaired} tells whether the stock was reset to {@code expectedQuantity}.
+ */
+public record Discrepancy(UUID productId, int recordedQuantity, long expectedQuantity, boolean repaired) {
+
+    public long getDifference() {
+        return recordedQuantity - expectedQuantity;
+    }
+}
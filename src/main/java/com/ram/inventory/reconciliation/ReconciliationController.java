@@ -0,0 +1,38 @@
+package com.ram.inventory.reconciliation;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ram.inventory.util.ApiResponse;
+
+@RestController
+@RequestMapping("/reconciliation")
+public class ReconciliationController {
+
+	private final ReconciliationService reconciliationService;
+
+	public ReconciliationController(ReconciliationService reconciliationService) {
+		this.reconciliationService = reconciliationService;
+	}
+
+	/**
+	 * Runs a reconciliation now and waits for its report. With {@code repair} the stock of
+	 * every product that does not add up is reset to its ledger.
+	 */
+	@PostMapping(value = "/run")
+	public ResponseEntity<ApiResponse<ReconciliationReport>> reconcile(
+			@RequestParam(defaultValue = "false") boolean repair) {
+		return ResponseEntity
+				.ok(new ApiResponse<>(200, "Reconciliation Completed", reconciliationService.reconcile(repair)));
+	}
+
+	@GetMapping(value = "/last-report")
+	public ResponseEntity<ApiResponse<ReconciliationReport>> getLastReport() {
+		return ResponseEntity
+				.ok(new ApiResponse<>(200, "Report Found", reconciliationService.getLastReport()));
+	}
+}
@@ -0,0 +1,14 @@
+package com.ram.inventory.reconciliation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outcome of one reconciliation run. {@code discrepancies} lists at most
+ * {@link ReconciliationService#MAX_REPORTED} products; {@code discrepancyCount} counts all
+ * of them.
+ */
+public record ReconciliationReport(LocalDateTime startedAt, long durationMillis, boolean repair, int partitions,
+        long productsChecked, long archivedTransactions, long discrepancyCount, long repairedCount,
+        List<Discrepancy> discrepancies) {
+}
@@ -0,0 +1,275 @@
+package com.ram.inventory.reconciliation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ram.inventory.archive.TransactionArchive;
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.inventorytransaction.InventoryTransactionType;
+import com.ram.inventory.product.Product;
+import com.ram.inventory.product.ProductRepository;
+import com.ram.inventory.product.StockChangeReason;
+import com.ram.inventory.product.StockLevelChangedEvent;
+import com.ram.inventory.shard.ShardRouter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Checks that every product's {@code currentQuantity} equals its ledger: top-ups and
+ * adjustments minus withdrawals, in the database and in the archive, minus the units of
+ * all orders and order lines.
+ * <p>
+ * The productId space is cut into equal ranges that are summed by the database one range
+ * at a time, on every shard, as tasks on a fork-join pool. A product that does not add up
+ * is checked again under its row lock before it is reported, which rules out orders placed
+ * while its range was being summed. In repair mode its stock is then reset to the ledger,
+ * unless that would drop it below what is reserved.
+ */
+@Slf4j
+@Service
+public class ReconciliationService {
+
+    static final int MAX_REPORTED = 1000;
+
+    private final StockLedgerRepository ledgerRepository;
+    private final ProductRepository productRepository;
+    private final TransactionArchive transactionArchive;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final int partitions;
+    private final int parallelism;
+    private final boolean scheduledRepair;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ReconciliationReport lastReport;
+
+    public ReconciliationService(StockLedgerRepository ledgerRepository, ProductRepository productRepository,
+            TransactionArchive transactionArchive, ShardRouter shardRouter, ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.reconciliation.partitions:256}") int partitions,
+            @Value("${inventory.reconciliation.parallelism:4}") int parallelism,
+            @Value("${inventory.reconciliation.repair:false}") boolean scheduledRepair) {
+        if (partitions < 1 || Integer.bitCount(partitions) != 1) {
+            throw new IllegalArgumentException("inventory.reconciliation.partitions must be a power of two");
+        }
+        this.ledgerRepository = ledgerRepository;
+        this.productRepository = productRepository;
+        this.transactionArchive = transactionArchive;
+        this.shardRouter = shardRouter;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.partitions = partitions;
+        this.parallelism = parallelism;
+        this.scheduledRepair = scheduledRepair;
+    }
+
+    @Scheduled(cron = "${inventory.reconciliation.cron:0 0 4 * * *}")
+    public void reconcileNightly() {
+        reconcile(scheduledRepair);
+    }
+
+    ReconciliationReport getLastReport() {
+        if (lastReport == null) {
+            throw new ApiException("No reconciliation has run yet", 404);
+        }
+        return lastReport;
+    }
+
+    ReconciliationReport reconcile(boolean repair) {
+        if (!running.compareAndSet(false, true)) {
+            throw new ApiException("Reconciliation already running", 409);
+        }
+        try {
+            // archival must not move rows while they are being counted
+            ReconciliationReport report = transactionArchive.exclusively(() -> run(repair));
+            log.info("Reconciled {} products in {} ms: {} discrepancies, {} repaired", report.productsChecked(),
+                    report.durationMillis(), report.discrepancyCount(), report.repairedCount());
+            lastReport = report;
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ReconciliationReport run(boolean repair) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        Map<UUID, Long> archived = new HashMap<>();
+        long[] archivedRows = new long[1];
+        transactionArchive.forEach(row -> {
+            archived.merge(row.productId(), (long) row.type().signedQuantity(row.quantity()), Long::sum);
+            archivedRows[0]++;
+        });
+
+        Tally tally;
+        try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            tally = pool.invoke(new RangeTask(archived, repair, 0, shardRouter.shardCount() * partitions));
+        }
+        return new ReconciliationReport(startedAt, (System.nanoTime() - start) / 1_000_000, repair, partitions,
+                tally.products, archivedRows[0], tally.discrepancyCount, tally.repairedCount,
+                List.copyOf(tally.discrepancies));
+    }
+
+    /**
+     * Reconciles one productId range on one shard.
+     */
+    private Tally reconcileRange(Map<UUID, Long> archived, boolean repair, int shard, int partition) {
+        UUID from = lowerBound(partition);
+        UUID to = upperBound(partition);
+        Ledger ledger = shardRouter.readOnShard(shard, () -> Ledger.read(ledgerRepository, from, to));
+
+        Tally tally = new Tally();
+        for (StockLedgerRepository.ProductStock stock : ledger.stock) {
+            tally.products++;
+            long expected = ledger.expected(stock.getProductId(), archived);
+            if (expected != stock.getCurrentQuantity()) {
+                Discrepancy discrepancy = recheck(archived, repair, shard, stock.getProductId());
+                if (discrepancy != null) {
+                    tally.add(discrepancy);
+                }
+            }
+        }
+        return tally;
+    }
+
+    /**
+     * Sums a product again while holding its row lock, and repairs it if asked to. Returns
+     * null when the product adds up after all.
+     */
+    private Discrepancy recheck(Map<UUID, Long> archived, boolean repair, int shard, UUID productId) {
+        return shardRouter.onShard(shard, () -> transaction.execute(status -> {
+            Product product = productRepository.findByIdForUpdate(productId).orElse(null);
+            if (product == null) {
+                return null;
+            }
+            long expected = Ledger.read(ledgerRepository, productId, productId).expected(productId, archived);
+            int recorded = product.getCurrentQuantity();
+            if (expected == recorded) {
+                return null;
+            }
+            // the stock must still cover what is reserved and what sits in warehouses
+            long held = (long) product.getReservedQuantity()
+                    + (product.getLocatedQuantity() == null ? 0 : product.getLocatedQuantity());
+            boolean repairable = expected >= held && expected <= Integer.MAX_VALUE;
+            if (repair && repairable) {
+                product.setCurrentQuantity((int) expected);
+                productRepository.save(product);
+                eventPublisher.publishEvent(
+                        StockLevelChangedEvent.of(product, recorded, StockChangeReason.RECONCILIATION, null));
+            }
+            return new Discrepancy(productId, recorded, expected, repair && repairable);
+        }));
+    }
+
+    /**
+     * The first productId of a range: the range index in the top bits, zeros below.
+     */
+    UUID lowerBound(int partition) {
+        int bits = Integer.numberOfTrailingZeros(partitions);
+        return new UUID(bits == 0 ? 0 : (long) partition << (64 - bits), 0);
+    }
+
+    /**
+     * The last productId of a range, one below the first of the next.
+     */
+    UUID upperBound(int partition) {
+        if (partition == partitions - 1) {
+            return new UUID(-1L, -1L);
+        }
+        return new UUID(lowerBound(partition + 1).getMostSignificantBits() - 1, -1L);
+    }
+
+    /**
+     * Splits the (shard, range) pairs in halves until a single pair is left.
+     */
+    private final class RangeTask extends RecursiveTask<Tally> {
+
+        private final Map<UUID, Long> archived;
+        private final boolean repair;
+        private final int from;
+        private final int to;
+
+        RangeTask(Map<UUID, Long> archived, boolean repair, int from, int to) {
+            this.archived = archived;
+            this.repair = repair;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from == 1) {
+                return reconcileRange(archived, repair, from / partitions, from % partitions);
+            }
+            int middle = (from + to) >>> 1;
+            RangeTask left = new RangeTask(archived, repair, from, middle);
+            left.fork();
+            Tally right = new RangeTask(archived, repair, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Stock and ledger sums of the products in one range.
+     */
+    private record Ledger(List<StockLedgerRepository.ProductStock> stock, Map<UUID, Long> transactions,
+            Map<UUID, Long> orders, Map<UUID, Long> orderLines) {
+
+        static Ledger read(StockLedgerRepository repository, UUID from, UUID to) {
+            return new Ledger(repository.findStock(from, to),
+                    sums(repository.sumTransactions(from, to, InventoryTransactionType.WITHDRAW)),
+                    sums(repository.sumOrders(from, to)),
+                    sums(repository.sumOrderLines(from, to)));
+        }
+
+        long expected(UUID productId, Map<UUID, Long> archived) {
+            return transactions.getOrDefault(productId, 0L) + archived.getOrDefault(productId, 0L)
+                    - orders.getOrDefault(productId, 0L) - orderLines.getOrDefault(productId, 0L);
+        }
+
+        private static Map<UUID, Long> sums(List<StockLedgerRepository.ProductSum> sums) {
+            return sums.stream().collect(Collectors.toMap(StockLedgerRepository.ProductSum::getProductId,
+                    StockLedgerRepository.ProductSum::getQuantity));
+        }
+    }
+
+    private static final class Tally {
+        private long products;
+        private long discrepancyCount;
+        private long repairedCount;
+        private final List<Discrepancy> discrepancies = new ArrayList<>();
+
+        void add(Discrepancy discrepancy) {
+            discrepancyCount++;
+            if (discrepancy.repaired()) {
+                repairedCount++;
+            }
+            if (discrepancies.size() < MAX_REPORTED) {
+                discrepancies.add(discrepancy);
+            }
+        }
+
+        Tally merge(Tally other) {
+            products += other.products;
+            discrepancyCount += other.discrepancyCount;
+            repairedCount += other.repairedCount;
+            other.discrepancies.stream().limit(MAX_REPORTED - discrepancies.size()).forEach(discrepancies::add);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ram.inventory.reconciliation;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import com.ram.inventory.inventorytransaction.InventoryTransactionType;
+import com.ram.inventory.product.Product;
+
+/**
+ * Per-product aggregates over an inclusive productId range. Every query is a range scan on
+ * an index that leads with productId, and the database does the summing, so only one row
+ * per product comes back however long its history is.
+ */
+interface StockLedgerRepository extends Repository<Product, UUID> {
+
+    @Query("select p.productId as productId, p.currentQuantity as currentQuantity,"
+            + " p.reservedQuantity as reservedQuantity from Product p where p.productId between :from and :to")
+    List<ProductStock> findStock(@Param("from") UUID from, @Param("to") UUID to);
+
+    @Query("select t.product.productId as productId,"
+            + " sum(case when t.type = :withdraw then -t.quantity else t.quantity end) as quantity"
+            + " from InventoryTransaction t where t.product.productId between :from and :to"
+            + " group by t.product.productId")
+    List<ProductSum> sumTransactions(@Param("from") UUID from, @Param("to") UUID to,
+            @Param("withdraw") InventoryTransactionType withdraw);
+
+    @Query("select o.product.productId as productId, sum(o.quantity) as quantity from Order o"
+            + " where o.product.productId between :from and :to group by o.product.productId")
+    List<ProductSum> sumOrders(@Param("from") UUID from, @Param("to") UUID to);
+
+    @Query("select l.product.productId as productId, sum(l.quantity) as quantity from OrderLine l"
+            + " where l.product.productId between :from and :to group by l.product.productId")
+    List<ProductSum> sumOrderLines(@Param("from") UUID from, @Param("to") UUID to);
+
+    interface ProductStock {
+        UUID getProductId();
+
+        int getCurrentQuantity();
+
+        int getReservedQuantity();
+    }
+
+    interface ProductSum {
+        UUID getProductId();
+
+        long getQuantity();
+    }
+}
@@ -0,0 +1,71 @@
+package com.ram.inventory.replica;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Keeps a client on the primary for a short window after it sent a mutating request, so
+ * it reads its own writes even when the replica lags behind. The window opens before the
+ * mutation runs; a client cannot receive the response before it is marked.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final int PURGE_THRESHOLD = 10_000;
+
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final String clientHeader;
+
+    public ReadYourWritesFilter(ReplicaProperties properties) {
+        this.windowNanos = properties.getStickyWindow().toNanos();
+        this.clientHeader = properties.getClientHeader();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = clientId(request);
+        long now = System.nanoTime();
+        if (isMutation(request)) {
+            markWrite(client, now);
+            ReplicaContext.requirePrimary();
+        } else {
+            Long until = stickyUntil.get(client);
+            if (until != null && until - now > 0) {
+                ReplicaContext.requirePrimary();
+            }
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaContext.clear();
+        }
+    }
+
+    private void markWrite(String client, long now) {
+        stickyUntil.put(client, now + windowNanos);
+        if (stickyUntil.size() > PURGE_THRESHOLD) {
+            stickyUntil.values().removeIf(until -> until - now <= 0);
+        }
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String client = request.getHeader(clientHeader);
+        return client == null || client.isBlank() ? request.getRemoteAddr() : client;
+    }
+
+    private static boolean isMutation(HttpServletRequest request) {
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> false;
+            default -> true;
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package com.ram.inventory.replica;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Splits the datasource into a primary pool for writes and a read pool for read-only
+ * transactions. With sharding enabled each shard gets its own pair of pools instead, see
+ * {@code ShardingConfig}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.replica", name = "enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "inventory.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+    DataSource dataSource(DataSourceProperties primary, ReplicaProperties replica) {
+        HikariDataSource primaryPool = primary.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primaryPool.setPoolName("primary");
+        DataSource replicaPool = readPool("replica",
+                replica.getUrl() != null ? replica.getUrl() : primary.determineUrl(),
+                replica.getUsername() != null ? replica.getUsername() : primary.determineUsername(),
+                replica.getPassword() != null ? replica.getPassword() : primary.determinePassword());
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryPool, replicaPool));
+    }
+
+    public static DataSource readPool(String name, String url, String username, String password) {
+        HikariDataSource pool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        pool.setPoolName(name);
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    /**
+     * Sessions give their connection back after every transaction, so a request that reads
+     * and then writes does not keep writing through the connection of its first read.
+     */
+    @Bean
+    HibernatePropertiesCustomizer replicaHibernateCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    ReadYourWritesFilter readYourWritesFilter(ReplicaProperties replica) {
+        return new ReadYourWritesFilter(replica);
+    }
+}
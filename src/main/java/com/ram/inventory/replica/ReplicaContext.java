@@ -0,0 +1,25 @@
+package com.ram.inventory.replica;
+
+/**
+ * Marks the current request as one that must read from the primary. The flag is
+ * inherited by threads started from the request, such as shard scatter queries.
+ */
+public final class ReplicaContext {
+
+    private static final InheritableThreadLocal<Boolean> PRIMARY_REQUIRED = new InheritableThreadLocal<>();
+
+    private ReplicaContext() {
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
@@ -0,0 +1,27 @@
+package com.ram.inventory.replica;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Read pool settings. Without a url the read pool connects to the primary database,
+ * which still keeps reads from queueing behind writes for a connection.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inventory.replica")
+public class ReplicaProperties {
+
+    private boolean enabled;
+    private String url;
+    private String username;
+    private String password;
+    /** How long reads of a client go to the primary after it changed something. */
+    private Duration stickyWindow = Duration.ofSeconds(5);
+    /** Header identifying a client; the remote address is used when it is missing. */
+    private String clientHeader = "X-Client-Id";
+}
@@ -0,0 +1,52 @@
+package com.ram.inventory.reservation;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ram.inventory.order.OrderDTO;
+import com.ram.inventory.util.ApiResponse;
+
+@RestController
+@RequestMapping("/reservation")
+public class ReservationController {
+
+	private final ReservationService reservationService;
+
+	public ReservationController(ReservationService reservationService) {
+		this.reservationService = reservationService;
+	}
+
+	@PostMapping
+	public ResponseEntity<ApiResponse<ReservationDTO>> createReservation(@RequestBody ReservationRequest request) {
+		return ResponseEntity
+				.ok(new ApiResponse<>(200, "Reservation Created", reservationService.createReservation(request)));
+	}
+
+	@GetMapping(value = "/get-reservation")
+	public ResponseEntity<ApiResponse<ReservationDTO>> getReservation(@RequestParam UUID id) {
+		return ResponseEntity
+				.ok(new ApiResponse<>(200, "Reservation Found", reservationService.getReservation(id)));
+	}
+
+	@PostMapping(value = "/confirm")
+	public ResponseEntity<ApiResponse<OrderDTO>> confirmReservation(@RequestBody Map<String, String> request) {
+		return ResponseEntity
+				.ok(new ApiResponse<>(200, "Reservation Confirmed",
+						reservationService.confirmReservation(UUID.fromString(request.get("id")))));
+	}
+
+	@PostMapping(value = "/release")
+	public ResponseEntity<ApiResponse<ReservationDTO>> releaseReservation(@RequestBody Map<String, String> request) {
+		return ResponseEntity
+				.ok(new ApiResponse<>(200, "Reservation Released",
+						reservationService.releaseReservation(UUID.fromString(request.get("id")))));
+	}
+}
@@ -0,0 +1,20 @@
+package com.ram.inventory.reservation;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.ram.inventory.product.Product;
+
+import lombok.Data;
+
+@Data
+public class ReservationDTO {
+    private UUID reservationId;
+    private Product product;
+    private Integer quantity;
+    private ReservationStatus status;
+    private LocalDateTime expiresAt;
+    private UUID orderId;
+    private LocalDateTime createdAt;
+    private LocalDateTime modifiedAt;
+}
@@ -0,0 +1,12 @@
+package com.ram.inventory.reservation;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ReservationExpiredEvent {
+    private UUID reservationId;
+}
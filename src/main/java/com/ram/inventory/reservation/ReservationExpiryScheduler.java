@@ -0,0 +1,113 @@
+package com.ram.inventory.reservation;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ram.inventory.util.HashedWheelTimer;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Tracks the expiry deadline of every active reservation on a hashed timing wheel.
+ * When a deadline passes a {@link ReservationExpiredEvent} is published from a small
+ * worker pool, so the actual release runs in its own transaction off the wheel thread.
+ */
+@Component
+public class ReservationExpiryScheduler {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService expiryExecutor;
+    private final HashedWheelTimer timer;
+    private final Map<UUID, HashedWheelTimer.Timeout> timeouts = new ConcurrentHashMap<>();
+
+    public ReservationExpiryScheduler(ApplicationEventPublisher eventPublisher,
+            @Value("${inventory.reservation.tick-millis:100}") long tickMillis,
+            @Value("${inventory.reservation.wheel-size:4096}") int wheelSize,
+            @Value("${inventory.reservation.expiry-threads:2}") int expiryThreads) {
+        this.eventPublisher = eventPublisher;
+        this.expiryExecutor = Executors.newFixedThreadPool(expiryThreads, r -> {
+            Thread thread = new Thread(r, "reservation-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer = new HashedWheelTimer("reservation-timer", Duration.ofMillis(tickMillis), wheelSize,
+                expiryExecutor);
+    }
+
+    /**
+     * Schedules expiry of a reservation. Inside a transaction the timeout is only armed
+     * once the reservation row has been committed.
+     */
+    public void schedule(UUID reservationId, LocalDateTime expiresAt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleCommitted(reservationId, expiresAt);
+                }
+            });
+        } else {
+            scheduleCommitted(reservationId, expiresAt);
+        }
+    }
+
+    /**
+     * Cancels expiry of a reservation. Inside a transaction the timeout is only disarmed
+     * once the confirmation or release has been committed, so a rollback leaves it armed.
+     */
+    public void cancel(UUID reservationId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cancelCommitted(reservationId);
+                }
+            });
+        } else {
+            cancelCommitted(reservationId);
+        }
+    }
+
+    public void cancelCommitted(UUID reservationId) {
+        HashedWheelTimer.Timeout timeout = timeouts.remove(reservationId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    public long outstanding() {
+        return timer.outstanding();
+    }
+
+    /**
+     * Schedules expiry of a reservation that is already visible to other transactions.
+     */
+    public void scheduleCommitted(UUID reservationId, LocalDateTime expiresAt) {
+        Duration delay = Duration.between(LocalDateTime.now(), expiresAt);
+        HashedWheelTimer.Timeout timeout = timer.schedule(() -> {
+            timeouts.remove(reservationId);
+            eventPublisher.publishEvent(new ReservationExpiredEvent(reservationId));
+        }, delay);
+        HashedWheelTimer.Timeout previous = timeouts.put(reservationId, timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.close();
+        expiryExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,29 @@
+package com.ram.inventory.reservation;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+
+public interface ReservationRepository extends JpaRepository<Reservation, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Reservation r where r.reservationId = :id")
+    Optional<Reservation> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("select r.reservationId as reservationId, r.expiresAt as expiresAt from Reservation r where r.status = :status")
+    Stream<ReservationExpiry> streamExpiriesByStatus(@Param("status") ReservationStatus status);
+
+    interface ReservationExpiry {
+        UUID getReservationId();
+
+        LocalDateTime getExpiresAt();
+    }
+}
@@ -0,0 +1,12 @@
+package com.ram.inventory.reservation;
+
+import java.util.UUID;
+
+import lombok.Data;
+
+@Data
+public class ReservationRequest {
+    private UUID productId;
+    private int quantity;
+    private Long ttlSeconds;
+}
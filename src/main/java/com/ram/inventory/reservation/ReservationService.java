@@ -0,0 +1,178 @@
+package com.ram.inventory.reservation;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.exception.InsufficientStockException;
+import com.ram.inventory.exception.ResourceNotFoundException;
+import com.ram.inventory.order.Order;
+import com.ram.inventory.order.OrderDTO;
+import com.ram.inventory.order.OrderRepository;
+import com.ram.inventory.product.Product;
+import com.ram.inventory.product.ProductRepository;
+import com.ram.inventory.product.StockChangeReason;
+import com.ram.inventory.product.StockLevelChangedEvent;
+import com.ram.inventory.shard.ShardRouter;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class ReservationService {
+
+    static final Duration DEFAULT_TTL = Duration.ofMinutes(15);
+    static final Duration MAX_TTL = Duration.ofHours(24);
+
+    private final ReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final ReservationExpiryScheduler expiryScheduler;
+    private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+
+    public ReservationService(ReservationRepository reservationRepository, ProductRepository productRepository,
+            OrderRepository orderRepository, ReservationExpiryScheduler expiryScheduler, ModelMapper modelMapper,
+            ApplicationEventPublisher eventPublisher, ShardRouter shardRouter) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.orderRepository = orderRepository;
+        this.expiryScheduler = expiryScheduler;
+        this.modelMapper = modelMapper;
+        this.eventPublisher = eventPublisher;
+        this.shardRouter = shardRouter;
+    }
+
+    @Transactional
+    ReservationDTO createReservation(ReservationRequest request) {
+        if (request.getQuantity() <= 0) {
+            throw new ApiException("Quantity must be positive", 400);
+        }
+        Duration ttl = request.getTtlSeconds() == null ? DEFAULT_TTL : Duration.ofSeconds(request.getTtlSeconds());
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(MAX_TTL) > 0) {
+            throw new ApiException("TTL must be between 1 and " + MAX_TTL.toSeconds() + " seconds", 400);
+        }
+
+        shardRouter.bindTransaction(shardRouter.shardFor(request.getProductId()));
+        Product product = productRepository.findByIdForUpdate(request.getProductId())
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        // units held at a warehouse are left to orders, which take them per warehouse
+        if (product.getUnassignedQuantity() < request.getQuantity()) {
+            throw new InsufficientStockException(product.getProductId(), request.getQuantity(),
+                    product.getUnassignedQuantity());
+        }
+        product.setReservedQuantity(product.getReservedQuantity() + request.getQuantity());
+        this.productRepository.save(product);
+
+        Reservation reservation = this.reservationRepository.save(Reservation.builder()
+                .product(product)
+                .quantity(request.getQuantity())
+                .status(ReservationStatus.ACTIVE)
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .build());
+        expiryScheduler.schedule(reservation.getReservationId(), reservation.getExpiresAt());
+        return modelMapper.map(reservation, ReservationDTO.class);
+    }
+
+    @Transactional(readOnly = true)
+    ReservationDTO getReservation(UUID id) {
+        return shardRouter.findOnAnyShard(() -> reservationRepository.findById(id)
+                .map(reservation -> modelMapper.map(reservation, ReservationDTO.class)))
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found"));
+    }
+
+    @Transactional
+    OrderDTO confirmReservation(UUID id) {
+        Reservation reservation = findActiveForUpdate(id);
+        // the expiry timer may not have fired yet; a lapsed hold is left for it to release
+        if (reservation.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new ApiException("Reservation has expired", 410);
+        }
+        Product product = productRepository.findByIdForUpdate(reservation.getProduct().getProductId())
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        int previousQuantity = product.getCurrentQuantity();
+        product.setReservedQuantity(product.getReservedQuantity() - reservation.getQuantity());
+        product.setCurrentQuantity(previousQuantity - reservation.getQuantity());
+        Order order = this.orderRepository
+                .save(Order.builder().product(product).quantity(reservation.getQuantity()).price(product.getPrice())
+                        .build());
+        this.productRepository.save(product);
+        eventPublisher.publishEvent(
+                StockLevelChangedEvent.of(product, previousQuantity, StockChangeReason.ORDER, order.getOrderId()));
+
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+        reservation.setOrderId(order.getOrderId());
+        this.reservationRepository.save(reservation);
+        expiryScheduler.cancel(id);
+        return modelMapper.map(order, OrderDTO.class);
+    }
+
+    @Transactional
+    ReservationDTO releaseReservation(UUID id) {
+        Reservation reservation = findActiveForUpdate(id);
+        release(reservation, ReservationStatus.RELEASED);
+        expiryScheduler.cancel(id);
+        return modelMapper.map(reservation, ReservationDTO.class);
+    }
+
+    @Transactional
+    @EventListener
+    public void onReservationExpired(ReservationExpiredEvent event) {
+        bindReservationShard(event.getReservationId());
+        reservationRepository.findByIdForUpdate(event.getReservationId())
+                .filter(reservation -> reservation.getStatus() == ReservationStatus.ACTIVE)
+                .ifPresent(reservation -> release(reservation, ReservationStatus.EXPIRED));
+    }
+
+    /**
+     * Re-arms the expiry timers of reservations that were still active when the application stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleActiveReservations() {
+        shardRouter.forEachShard(true, shard -> {
+            try (Stream<ReservationRepository.ReservationExpiry> expiries = reservationRepository
+                    .streamExpiriesByStatus(ReservationStatus.ACTIVE)) {
+                expiries.forEach(expiry -> expiryScheduler.scheduleCommitted(expiry.getReservationId(),
+                        expiry.getExpiresAt()));
+            }
+        });
+        log.info("Scheduled expiry for {} active reservations", expiryScheduler.outstanding());
+    }
+
+    /**
+     * Reservations live on the shard of their product; the shard is looked up before the
+     * calling transaction touches the database.
+     */
+    private void bindReservationShard(UUID id) {
+        shardRouter.locate(shard -> reservationRepository.existsById(id)).ifPresent(shardRouter::bindTransaction);
+    }
+
+    private Reservation findActiveForUpdate(UUID id) {
+        bindReservationShard(id);
+        Reservation reservation = reservationRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found"));
+        if (reservation.getStatus() != ReservationStatus.ACTIVE) {
+            throw new ApiException("Reservation is " + reservation.getStatus(), 409);
+        }
+        return reservation;
+    }
+
+    private void release(Reservation reservation, ReservationStatus status) {
+        Product product = productRepository.findByIdForUpdate(reservation.getProduct().getProductId())
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        product.setReservedQuantity(product.getReservedQuantity() - reservation.getQuantity());
+        this.productRepository.save(product);
+        reservation.setStatus(status);
+        this.reservationRepository.save(reservation);
+    }
+}
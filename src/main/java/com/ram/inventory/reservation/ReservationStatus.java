@@ -0,0 +1,8 @@
+package com.ram.inventory.reservation;
+
+public enum ReservationStatus {
+    ACTIVE,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
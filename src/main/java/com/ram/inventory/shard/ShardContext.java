@@ -0,0 +1,27 @@
+package com.ram.inventory.shard;
+
+/**
+ * Shard the current thread is routed to. Read by {@link ShardRoutingDataSource} when a
+ * transaction fetches its physical connection.
+ */
+final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    static Integer set(Integer shard) {
+        Integer previous = CURRENT.get();
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+        return previous;
+    }
+}
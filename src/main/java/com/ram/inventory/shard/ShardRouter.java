@@ -0,0 +1,362 @@
+package com.ram.inventory.shard;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Routes repository work to the shard owning a product. A product and every order,
+ * inventory transaction and reservation referencing it live on {@link #shardFor(UUID)}, so
+ * a transaction never spans shards. With sharding disabled there is a single shard and
+ * every method runs its work directly on the calling thread.
+ * <p>
+ * The routing datasource picks the shard when a transaction fetches its physical
+ * connection, which happens on its first statement. A shard therefore has to be bound
+ * before the first query of a transaction, see {@link #bindTransaction(int)}.
+ */
+@Component
+public class ShardRouter {
+
+    private final int shardCount;
+    private final TransactionTemplate joinedTransaction;
+    private final TransactionTemplate newReadOnlyTransaction;
+    private final TransactionTemplate newReadWriteTransaction;
+    private final ExecutorService scatterExecutor;
+
+    @Autowired
+    public ShardRouter(ShardingProperties properties, ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this(properties.isEnabled() ? properties.getShards().size() : 1, transactionManager.getIfAvailable());
+    }
+
+    ShardRouter(int shardCount, PlatformTransactionManager transactionManager) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shardCount = shardCount;
+        this.joinedTransaction = template(transactionManager, false, TransactionDefinition.PROPAGATION_REQUIRED);
+        this.newReadOnlyTransaction = template(transactionManager, true,
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.newReadWriteTransaction = template(transactionManager, false,
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.scatterExecutor = shardCount > 1 ? Executors.newVirtualThreadPerTaskExecutor() : null;
+    }
+
+    /**
+     * Router of an unsharded deployment that runs everything without managed transactions.
+     */
+    public static ShardRouter single() {
+        return new ShardRouter(1, null);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardFor(UUID productId) {
+        if (shardCount == 1) {
+            return 0;
+        }
+        // murmur3 finalizer, so shards stay balanced whatever the UUID version
+        long h = productId.getMostSignificantBits() ^ productId.getLeastSignificantBits();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) shardCount);
+    }
+
+    /**
+     * Returns the shard shared by all given products, or empty when they are spread over
+     * several shards.
+     */
+    public OptionalInt commonShard(Collection<UUID> productIds) {
+        int shard = -1;
+        for (UUID productId : productIds) {
+            int candidate = shardFor(productId);
+            if (shard >= 0 && candidate != shard) {
+                return OptionalInt.empty();
+            }
+            shard = candidate;
+        }
+        return OptionalInt.of(Math.max(shard, 0));
+    }
+
+    public List<UUID> onlyOnShard(int shard, Collection<UUID> productIds) {
+        if (shardCount == 1) {
+            return List.copyOf(productIds);
+        }
+        return productIds.stream().filter(productId -> shardFor(productId) == shard).toList();
+    }
+
+    /**
+     * Runs work in a transaction on the given shard, joining the caller's transaction if
+     * there is one.
+     */
+    public <T> T onShard(int shard, Supplier<T> work) {
+        if (shardCount == 1) {
+            return work.get();
+        }
+        return routed(shard, () -> inTransaction(joinedTransaction, work));
+    }
+
+    /**
+     * Runs a read in a new read-only transaction on the given shard, also when unsharded.
+     */
+    public <T> T readOnShard(int shard, Supplier<T> query) {
+        return routed(shard, () -> inTransaction(newReadOnlyTransaction, query));
+    }
+
+    /**
+     * Runs work in a new read-write transaction on the given shard, also when unsharded,
+     * for callers that are not in a transaction of their own.
+     */
+    public <T> T inNewTransaction(int shard, Supplier<T> work) {
+        return routed(shard, () -> inTransaction(newReadWriteTransaction, work));
+    }
+
+    public void runOnShard(int shard, Runnable work) {
+        onShard(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Routes the current transaction to a shard until it completes. Must be called before
+     * the transaction issues its first statement.
+     */
+    public void bindTransaction(int shard) {
+        if (shardCount == 1) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("No transaction to bind to shard " + shard);
+        }
+        Integer previous = ShardContext.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ShardContext.set(previous);
+            }
+        });
+    }
+
+    /**
+     * Finds the shard holding a row that cannot be routed by product, probing the shards
+     * one by one in their own transactions. Probes read the primaries because the result
+     * decides where the caller writes. Safe to call in a transaction that has not issued a
+     * statement yet.
+     */
+    public OptionalInt locate(IntPredicate probe) {
+        if (shardCount == 1) {
+            return OptionalInt.of(0);
+        }
+        for (int shard = 0; shard < shardCount; shard++) {
+            int candidate = shard;
+            Boolean found = routed(shard, () -> inTransaction(newReadWriteTransaction, () -> probe.test(candidate)));
+            if (Boolean.TRUE.equals(found)) {
+                return OptionalInt.of(shard);
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    /**
+     * Looks a row up on every shard in turn, each time in a read-only transaction, and
+     * returns the first hit.
+     */
+    public <T> Optional<T> findOnAnyShard(Supplier<Optional<T>> lookup) {
+        if (shardCount == 1) {
+            return lookup.get();
+        }
+        for (int shard = 0; shard < shardCount; shard++) {
+            Optional<T> result = routed(shard, () -> inTransaction(newReadOnlyTransaction, lookup));
+            if (result.isPresent()) {
+                return result;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Runs work on every shard in turn, each time in a new transaction.
+     */
+    public void forEachShard(boolean readOnly, IntConsumer work) {
+        TransactionTemplate transaction = readOnly ? newReadOnlyTransaction : newReadWriteTransaction;
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            routed(shard, () -> inTransaction(transaction, () -> {
+                work.accept(current);
+                return null;
+            }));
+        }
+    }
+
+    /**
+     * Runs a read on all shards in parallel, each in its own read-only transaction, and
+     * returns the results in shard order. Lazy associations have to be resolved inside
+     * {@code query}.
+     */
+    public <T> List<T> scatter(IntFunction<T> query) {
+        if (shardCount == 1) {
+            return List.of(query.apply(0));
+        }
+        List<Future<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            futures.add(scatterExecutor.submit(
+                    () -> routed(current, () -> inTransaction(newReadOnlyTransaction, () -> query.apply(current)))));
+        }
+        List<T> results = new ArrayList<>(shardCount);
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shards", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Reads one page across all shards. Every shard returns its first
+     * {@code offset + size} rows in the requested order; the rows are merged on the sort
+     * keys and the requested window is cut from the merged list.
+     */
+    public <E, T> Page<T> scatterPage(Pageable pageable, Function<Pageable, Page<E>> query, Function<E, T> mapper) {
+        if (shardCount == 1) {
+            return query.apply(pageable).map(mapper);
+        }
+        Sort sort = pageable.getSort();
+        Pageable head = PageRequest.of(0, (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize()),
+                sort);
+        List<Page<Keyed<T>>> pages = scatter(shard -> query.apply(head).map(entity -> Keyed.of(entity, sort, mapper)));
+
+        Comparator<Keyed<T>> comparator = Keyed.comparator(sort);
+        List<T> content = pages.stream()
+                .flatMap(page -> page.getContent().stream())
+                .sorted(comparator)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(Keyed::value)
+                .toList();
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+
+    private static <T> T routed(int shard, Supplier<T> work) {
+        Integer previous = ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    private static <T> T inTransaction(TransactionTemplate transaction, Supplier<T> work) {
+        return transaction == null ? work.get() : transaction.execute(status -> work.get());
+    }
+
+    private static TransactionTemplate template(PlatformTransactionManager transactionManager, boolean readOnly,
+            int propagation) {
+        if (transactionManager == null) {
+            return null;
+        }
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        template.setPropagationBehavior(propagation);
+        return template;
+    }
+
+    /**
+     * A mapped row together with the sort keys read from its entity.
+     */
+    record Keyed<T>(Object[] keys, T value) {
+
+        static <E, T> Keyed<T> of(E entity, Sort sort, Function<E, T> mapper) {
+            BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+            Object[] keys = sort.stream().map(order -> wrapper.getPropertyValue(order.getProperty())).toArray();
+            return new Keyed<>(keys, mapper.apply(entity));
+        }
+
+        static <T> Comparator<Keyed<T>> comparator(Sort sort) {
+            List<Sort.Order> orders = sort.toList();
+            return (left, right) -> {
+                for (int i = 0; i < orders.size(); i++) {
+                    int result = compareKeys(left.keys[i], right.keys[i]);
+                    if (result != 0) {
+                        return orders.get(i).isAscending() ? result : -result;
+                    }
+                }
+                return 0;
+            };
+        }
+
+        /**
+         * Orders keys the way the database does: nulls first and UUIDs by their unsigned bytes.
+         */
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        static int compareKeys(Object left, Object right) {
+            if (left == null || right == null) {
+                return left == right ? 0 : left == null ? -1 : 1;
+            }
+            if (left instanceof UUID l && right instanceof UUID r) {
+                int result = Long.compareUnsigned(l.getMostSignificantBits(), r.getMostSignificantBits());
+                return result != 0 ? result
+                        : Long.compareUnsigned(l.getLeastSignificantBits(), r.getLeastSignificantBits());
+            }
+            return ((Comparable) left).compareTo(right);
+        }
+    }
+}
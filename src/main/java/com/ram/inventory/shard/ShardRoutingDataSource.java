@@ -0,0 +1,15 @@
+package com.ram.inventory.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections of the shard bound to the current thread. Connections fetched
+ * without a bound shard (schema setup, health checks) go to shard 0.
+ */
+class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
@@ -0,0 +1,125 @@
+package com.ram.inventory.shard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.ram.inventory.replica.ReadWriteRoutingDataSource;
+import com.ram.inventory.replica.ReplicaConfig;
+import com.ram.inventory.replica.ReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Replaces the single datasource with one pool per shard behind a routing datasource.
+ * The lazy proxy defers fetching the physical connection to the first statement, which
+ * lets services bind a shard after the transaction has started.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    ShardDataSources shardDataSources(ShardingProperties properties) {
+        if (properties.getShards().size() < 2) {
+            throw new IllegalStateException("Sharding needs at least two inventory.sharding.shards entries");
+        }
+        List<DataSource> dataSources = new ArrayList<>();
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            pool.setPoolName("shard-" + dataSources.size());
+            dataSources.add(pool);
+        }
+        return new ShardDataSources(dataSources);
+    }
+
+    /**
+     * With read routing enabled every shard routes read-only transactions to its own read
+     * pool; the shard is chosen first, then primary or replica.
+     */
+    @Bean
+    @Primary
+    DataSource dataSource(ShardDataSources shards, ShardingProperties properties, ReplicaProperties replica) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            if (replica.isEnabled()) {
+                ShardingProperties.Shard settings = properties.getShards().get(shard);
+                DataSource readPool = ReplicaConfig.readPool("shard-" + shard + "-replica",
+                        settings.getReplicaUrl() != null ? settings.getReplicaUrl() : settings.getUrl(),
+                        settings.getUsername(), settings.getPassword());
+                targets.put(shard, new ReadWriteRoutingDataSource(shards.get(shard), readPool));
+            } else {
+                targets.put(shard, shards.get(shard));
+            }
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(targets.get(0));
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Sessions give their connection back after every transaction. A session kept open for
+     * a whole request would otherwise stay on the shard of its first query.
+     */
+    @Bean
+    HibernatePropertiesCustomizer shardHibernateCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    /**
+     * Applies the migrations to every shard, not only to shard 0 behind the routing
+     * datasource. Runs before Hibernate validates the schema.
+     */
+    @Bean
+    FlywayMigrationStrategy shardMigrationStrategy(ShardDataSources shards) {
+        return flyway -> {
+            for (int shard = 0; shard < shards.size(); shard++) {
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shards.get(shard))
+                        .load()
+                        .migrate();
+            }
+            log.info("Migrated {} product shards", shards.size());
+        };
+    }
+
+    /**
+     * The physical datasource of each shard, in shard order.
+     */
+    public record ShardDataSources(List<DataSource> dataSources) {
+
+        public DataSource get(int shard) {
+            return dataSources.get(shard);
+        }
+
+        public int size() {
+            return dataSources.size();
+        }
+    }
+}
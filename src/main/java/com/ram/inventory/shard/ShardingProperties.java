@@ -0,0 +1,31 @@
+package com.ram.inventory.shard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Datasources of the product shards. Sharding is off unless {@code inventory.sharding.enabled}
+ * is set, in which case the shard a product lives on is fixed by the order of {@link #shards}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inventory.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password = "";
+        /** Read replica of the shard, used when inventory.replica.enabled is set. */
+        private String replicaUrl;
+    }
+}
@@ -0,0 +1,13 @@
+package com.ram.inventory.stockhistory;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One movement of a product's stock and the balance right after it. {@code kind} is the
+ * inventory transaction type, {@code ORDER} or {@code ORDER_LINE}; {@code orderId} is set
+ * for the latter two.
+ */
+public record LedgerEntry(UUID entryId, String kind, UUID orderId, int quantity, LocalDateTime createdAt,
+        long balance) {
+}
@@ -0,0 +1,11 @@
+package com.ram.inventory.stockhistory;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A page of a product's ledger, newest entry first. {@code next} is the cursor of the
+ * following page, null on the last one.
+ */
+public record LedgerPage(UUID productId, List<LedgerEntry> entries, String next) {
+}
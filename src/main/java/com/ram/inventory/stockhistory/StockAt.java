@@ -0,0 +1,12 @@
+package com.ram.inventory.stockhistory;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The stock of a product at a past moment, counting every change made before it.
+ * {@code replayedFrom} is the snapshot or product creation the ledger was replayed from,
+ * null when the product did not exist yet.
+ */
+public record StockAt(UUID productId, LocalDateTime at, long quantity, LocalDateTime replayedFrom) {
+}
@@ -0,0 +1,68 @@
+package com.ram.inventory.stockhistory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ram.inventory.util.ApiResponse;
+
+@RestController
+@RequestMapping("/product")
+public class StockHistoryController {
+
+	private final StockHistoryService stockHistoryService;
+	private final ObjectMapper objectMapper;
+
+	public StockHistoryController(StockHistoryService stockHistoryService, ObjectMapper objectMapper) {
+		this.stockHistoryService = stockHistoryService;
+		this.objectMapper = objectMapper;
+	}
+
+	@GetMapping(value = "/stock-at")
+	public ResponseEntity<ApiResponse<StockAt>> getStockAt(@RequestParam UUID id,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+		return ResponseEntity.ok(new ApiResponse<>(200, "Stock Found", stockHistoryService.getStockAt(id, at)));
+	}
+
+	/**
+	 * Pages through the product's stock movements, newest first, each with the balance
+	 * right after it. Pass the {@code next} cursor of a page to get the one after it.
+	 */
+	@GetMapping(value = "/ledger")
+	public ResponseEntity<ApiResponse<LedgerPage>> getLedger(@RequestParam UUID id,
+			@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "100") int limit) {
+		return ResponseEntity.ok(new ApiResponse<>(200, "Ledger Found", stockHistoryService.getLedger(id, cursor, limit)));
+	}
+
+	/**
+	 * Streams the stock of every product at the given moment as one JSON object per line,
+	 * written while the products are still being read.
+	 */
+	@GetMapping(value = "/stock-at/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> getAllStockAt(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+		StreamingResponseBody body = out -> stockHistoryService.forEachStockAt(at, stock -> writeLine(out, stock));
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+
+	private void writeLine(OutputStream out, StockAt stock) {
+		try {
+			out.write(objectMapper.writeValueAsBytes(stock));
+			out.write('\n');
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package com.ram.inventory.stockhistory;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import com.ram.inventory.product.Product;
+
+/**
+ * Snapshots and replays of the stock ledger: inventory transactions, orders and order
+ * lines. Every ledger sum is a range scan on a {@code (product_id, created_at)} index, and
+ * the snapshot a replay starts from is found on the primary key of
+ * {@code stock_snapshot}, so the rows read per product are bounded by the changes made
+ * since its latest snapshot. Withdrawals are passed in as the ordinal of
+ * {@code InventoryTransactionType.WITHDRAW}; productIds come back as text, because a
+ * native query returns a uuid column as bytes that a projection cannot convert.
+ */
+interface StockHistoryRepository extends Repository<Product, UUID> {
+
+    /**
+     * The stock at {@code :at} of the products in {@code b}: the latest snapshot at or before
+     * it, or an empty stock at the product's creation, plus the ledger entries made between
+     * the two.
+     */
+    String REPLAY = "select cast(b.product_id as varchar(36)) as productId, b.since as since, b.quantity"
+            + " + coalesce((select sum(case when t.type = :withdraw then -t.quantity else t.quantity end)"
+            + "   from inventory_transaction t"
+            + "   where t.product_id = b.product_id and t.created_at >= b.since and t.created_at < :at), 0)"
+            + " - coalesce((select sum(o.quantity) from order o"
+            + "   where o.product_id = b.product_id and o.created_at >= b.since and o.created_at < :at), 0)"
+            + " - coalesce((select sum(l.quantity) from order_line l"
+            + "   where l.product_id = b.product_id and l.created_at >= b.since and l.created_at < :at), 0)"
+            + " as quantity"
+            + " from (select p.product_id, coalesce(s.taken_at, p.created_at) as since,"
+            + "   coalesce(s.quantity, 0) as quantity"
+            + "   from product p left join stock_snapshot s on s.product_id = p.product_id and s.taken_at ="
+            + "     (select max(x.taken_at) from stock_snapshot x where x.product_id = p.product_id and x.taken_at <= :at)"
+            + "   where p.created_at <= :at";
+
+    @Query(value = REPLAY + " and p.product_id = :productId) b", nativeQuery = true)
+    Optional<StockReplay> replay(@Param("productId") UUID productId, @Param("at") LocalDateTime at,
+            @Param("withdraw") int withdraw);
+
+    @Query(value = REPLAY + " and p.product_id > :after order by p.product_id fetch first :limit rows only) b"
+            + " order by b.product_id", nativeQuery = true)
+    List<StockReplay> replayPage(@Param("after") UUID after, @Param("at") LocalDateTime at,
+            @Param("withdraw") int withdraw, @Param("limit") int limit);
+
+    @Query("select p.productId from Product p where p.productId > :after order by p.productId")
+    List<UUID> findProductIdsAfter(@Param("after") UUID after, Limit limit);
+
+    /**
+     * Snapshots the stock at {@code :at} of those given products that changed since their
+     * latest snapshot: the current stock minus the ledger entries made from {@code :at} on.
+     * Stock and ledger are read by one statement, so they agree with each other; a
+     * transaction that commits afterwards must not have entries before {@code :at}, which
+     * is why {@code :at} lies a settle period in the past.
+     */
+    @Modifying
+    @Query(value = "insert into stock_snapshot (product_id, taken_at, quantity)"
+            + " select p.product_id, :at, p.current_quantity"
+            + " - coalesce((select sum(case when t.type = :withdraw then -t.quantity else t.quantity end)"
+            + "   from inventory_transaction t where t.product_id = p.product_id and t.created_at >= :at), 0)"
+            + " + coalesce((select sum(o.quantity) from order o"
+            + "   where o.product_id = p.product_id and o.created_at >= :at), 0)"
+            + " + coalesce((select sum(l.quantity) from order_line l"
+            + "   where l.product_id = p.product_id and l.created_at >= :at), 0)"
+            + " from product p where p.product_id in (:ids) and p.created_at < :at"
+            + " and p.modified_at >= coalesce((select max(s.taken_at) from stock_snapshot s"
+            + "   where s.product_id = p.product_id), p.created_at)"
+            + " and not exists (select 1 from stock_snapshot s where s.product_id = p.product_id and s.taken_at >= :at)",
+            nativeQuery = true)
+    int snapshot(@Param("ids") Collection<UUID> productIds, @Param("at") LocalDateTime at,
+            @Param("withdraw") int withdraw);
+
+    /**
+     * A page of a product's ledger, newest entry first, starting after the keyset
+     * {@code (:at, :after)}. Each branch reads at most {@code :limit} rows off its
+     * {@code (product_id, created_at)} index, so a page costs the same however long the
+     * history is. The balance after each entry is worked out backwards by a window sum of
+     * the newer entries on the page, starting from {@code :balance}, the balance after the
+     * newest entry still to come; on the first page that is the current stock, read by the
+     * same statement so that the two agree.
+     */
+    @Query(value = "select e.entry_id as entryId, e.kind as kind, e.order_id as orderId, e.quantity as quantity,"
+            + " e.created_at as createdAt,"
+            + " coalesce(cast(:balance as bigint),"
+            + "   (select p.current_quantity from product p where p.product_id = :productId))"
+            + " - coalesce(sum(e.quantity) over (order by e.created_at desc, e.entry_id desc"
+            + "   rows between unbounded preceding and 1 preceding), 0) as balance"
+            + " from ((select cast(t.transaction_id as varchar(36)) as entry_id,"
+            + "   case t.type when :withdraw then 'WITHDRAW' when :topup then 'TOPUP' else 'ADJUSTMENT' end as kind,"
+            + "   cast(null as varchar(36)) as order_id,"
+            + "   case when t.type = :withdraw then -t.quantity else t.quantity end as quantity, t.created_at"
+            + "   from inventory_transaction t where t.product_id = :productId and (t.created_at < :at"
+            + "     or t.created_at = :at and cast(t.transaction_id as varchar(36)) < :after)"
+            + "   order by t.created_at desc, entry_id desc fetch first :limit rows only)"
+            + "  union all (select cast(o.order_id as varchar(36)), 'ORDER', cast(o.order_id as varchar(36)),"
+            + "   -o.quantity, o.created_at"
+            + "   from order o where o.product_id = :productId and (o.created_at < :at"
+            + "     or o.created_at = :at and cast(o.order_id as varchar(36)) < :after)"
+            + "   order by o.created_at desc, 1 desc fetch first :limit rows only)"
+            + "  union all (select cast(l.order_line_id as varchar(36)), 'ORDER_LINE', cast(l.order_id as varchar(36)),"
+            + "   -l.quantity, l.created_at"
+            + "   from order_line l where l.product_id = :productId and (l.created_at < :at"
+            + "     or l.created_at = :at and cast(l.order_line_id as varchar(36)) < :after)"
+            + "   order by l.created_at desc, 1 desc fetch first :limit rows only)"
+            + "  order by created_at desc, entry_id desc fetch first :limit rows only) e"
+            + " order by e.created_at desc, e.entry_id desc", nativeQuery = true)
+    List<LedgerRow> ledgerPage(@Param("productId") UUID productId, @Param("at") LocalDateTime at,
+            @Param("after") String after, @Param("balance") Long balance, @Param("withdraw") int withdraw,
+            @Param("topup") int topup, @Param("limit") int limit);
+
+    interface StockReplay {
+        UUID getProductId();
+
+        LocalDateTime getSince();
+
+        long getQuantity();
+    }
+
+    interface LedgerRow {
+        UUID getEntryId();
+
+        String getKind();
+
+        UUID getOrderId();
+
+        int getQuantity();
+
+        LocalDateTime getCreatedAt();
+
+        long getBalance();
+    }
+}
@@ -0,0 +1,196 @@
+package com.ram.inventory.stockhistory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Service;
+
+import com.ram.inventory.archive.ArchivedTransaction;
+import com.ram.inventory.archive.TransactionArchive;
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.exception.ResourceNotFoundException;
+import com.ram.inventory.inventorytransaction.InventoryTransactionType;
+import com.ram.inventory.product.ProductRepository;
+import com.ram.inventory.shard.ShardRouter;
+
+/**
+ * Answers what a product's stock was at a past moment by replaying its ledger from the
+ * nearest earlier snapshot, see {@link StockSnapshotJob}. Ledger entries that have been
+ * archived are added from the archive, whose segment summaries rule out most segments
+ * without opening them.
+ * <p>
+ * The ledger itself is browsed newest entry first, a keyset page at a time. A page's
+ * cursor carries the balance to continue from, so no page has to sum the entries before
+ * it. Archived transactions are merged into the pages they fall in, so the balances of the
+ * entries still in the database count the archived ones made after them.
+ */
+@Service
+public class StockHistoryService {
+
+    static final int PAGE_SIZE = 1000;
+    static final int MAX_LEDGER_LIMIT = 1000;
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final String LAST = "ffffffff-ffff-ffff-ffff-ffffffffffff";
+    private static final UUID FIRST = new UUID(0, 0);
+    private static final int WITHDRAW = InventoryTransactionType.WITHDRAW.ordinal();
+    private static final int TOPUP = InventoryTransactionType.TOPUP.ordinal();
+    private static final Comparator<LedgerEntry> NEWEST_FIRST = Comparator
+            .comparing(LedgerEntry::createdAt, Comparator.reverseOrder())
+            .thenComparing(entry -> entry.entryId().toString(), Comparator.reverseOrder());
+
+    private final StockHistoryRepository stockHistoryRepository;
+    private final ProductRepository productRepository;
+    private final TransactionArchive transactionArchive;
+    private final ShardRouter shardRouter;
+
+    public StockHistoryService(StockHistoryRepository stockHistoryRepository, ProductRepository productRepository,
+            TransactionArchive transactionArchive, ShardRouter shardRouter) {
+        this.stockHistoryRepository = stockHistoryRepository;
+        this.productRepository = productRepository;
+        this.transactionArchive = transactionArchive;
+        this.shardRouter = shardRouter;
+    }
+
+    StockAt getStockAt(UUID productId, LocalDateTime at) {
+        if (at == null) {
+            throw new ApiException("Point in time missing", 400);
+        }
+        int shard = shardRouter.shardFor(productId);
+        StockHistoryRepository.StockReplay replay = shardRouter.readOnShard(shard,
+                () -> stockHistoryRepository.replay(productId, at, WITHDRAW).orElse(null));
+        if (replay != null) {
+            return stockAt(replay, at);
+        }
+        if (!shardRouter.readOnShard(shard, () -> productRepository.existsById(productId))) {
+            throw new ResourceNotFoundException("Product not found");
+        }
+        // the product was created after the moment asked for
+        return new StockAt(productId, at, 0, null);
+    }
+
+    /**
+     * Hands the stock at the given moment of every product that existed then to the
+     * consumer, in productId order per shard. Products are read a page at a time, each page
+     * in its own read-only transaction, so memory stays flat however large the catalog is.
+     */
+    void forEachStockAt(LocalDateTime at, Consumer<StockAt> consumer) {
+        if (at == null) {
+            throw new ApiException("Point in time missing", 400);
+        }
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            int current = shard;
+            UUID after = FIRST;
+            List<StockHistoryRepository.StockReplay> page;
+            do {
+                UUID from = after;
+                page = shardRouter.readOnShard(current,
+                        () -> stockHistoryRepository.replayPage(from, at, WITHDRAW, PAGE_SIZE));
+                for (StockHistoryRepository.StockReplay replay : page) {
+                    consumer.accept(stockAt(replay, at));
+                }
+                if (!page.isEmpty()) {
+                    after = page.getLast().getProductId();
+                }
+            } while (page.size() == PAGE_SIZE);
+        }
+    }
+
+    /**
+     * The page of the product's ledger that follows the cursor, or its newest entries when
+     * there is none. The newest {@code limit} entries after the cursor are taken from the
+     * database and from the archive alike, and their balances worked out backwards from
+     * the balance the page starts at.
+     */
+    LedgerPage getLedger(UUID productId, String cursor, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_LEDGER_LIMIT);
+        int shard = shardRouter.shardFor(productId);
+        Cursor from = cursor == null || cursor.isBlank() ? null : Cursor.decode(cursor);
+        LocalDateTime at = from == null ? END : from.createdAt();
+        String after = from == null ? LAST : from.entryId();
+        List<StockHistoryRepository.LedgerRow> rows = shardRouter.readOnShard(shard,
+                () -> stockHistoryRepository.ledgerPage(productId, at, after, from == null ? null : from.balance(),
+                        WITHDRAW, TOPUP, size));
+        long balance;
+        if (from != null) {
+            balance = from.balance();
+        } else if (!rows.isEmpty()) {
+            // the balance after the newest entry, read with it
+            balance = rows.getFirst().getBalance();
+        } else {
+            balance = shardRouter.readOnShard(shard, () -> productRepository.findById(productId))
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found")).getCurrentQuantity();
+        }
+
+        List<LedgerEntry> movements = new ArrayList<>(rows.size());
+        Set<UUID> inTable = new HashSet<>();
+        for (StockHistoryRepository.LedgerRow row : rows) {
+            movements.add(new LedgerEntry(row.getEntryId(), row.getKind(), row.getOrderId(), row.getQuantity(),
+                    row.getCreatedAt(), 0));
+            inTable.add(row.getEntryId());
+        }
+        // rows being archived right now may briefly be in both places
+        for (ArchivedTransaction archived : transactionArchive.findByProduct(productId, BEGINNING,
+                at.plusNanos(1_000))) {
+            boolean beforeCursor = archived.createdAt().isBefore(at)
+                    || archived.createdAt().equals(at) && archived.transactionId().toString().compareTo(after) < 0;
+            if (beforeCursor && !inTable.contains(archived.transactionId())) {
+                movements.add(new LedgerEntry(archived.transactionId(), archived.type().name(), null,
+                        archived.type().signedQuantity(archived.quantity()), archived.createdAt(), 0));
+            }
+        }
+        movements.sort(NEWEST_FIRST);
+
+        List<LedgerEntry> entries = new ArrayList<>(Math.min(size, movements.size()));
+        for (LedgerEntry movement : movements.subList(0, Math.min(size, movements.size()))) {
+            entries.add(new LedgerEntry(movement.entryId(), movement.kind(), movement.orderId(), movement.quantity(),
+                    movement.createdAt(), balance));
+            balance -= movement.quantity();
+        }
+        String next = null;
+        if (entries.size() == size) {
+            LedgerEntry last = entries.getLast();
+            next = new Cursor(last.createdAt(), last.entryId().toString(), last.balance() - last.quantity()).encode();
+        }
+        return new LedgerPage(productId, entries, next);
+    }
+
+    private StockAt stockAt(StockHistoryRepository.StockReplay replay, LocalDateTime at) {
+        long archived = 0;
+        for (ArchivedTransaction transaction : transactionArchive.findByProduct(replay.getProductId(),
+                replay.getSince(), at)) {
+            archived += transaction.type().signedQuantity(transaction.quantity());
+        }
+        return new StockAt(replay.getProductId(), at, replay.getQuantity() + archived, replay.getSince());
+    }
+
+    /**
+     * Where a ledger page left off: its oldest entry, and the balance before that entry.
+     */
+    private record Cursor(LocalDateTime createdAt, String entryId, long balance) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt + "|" + entryId + "|" + balance).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = decoded.split("\\|");
+                return new Cursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]).toString(),
+                        Long.parseLong(parts[2]));
+            } catch (RuntimeException e) {
+                throw new ApiException("Invalid cursor", 400);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.ram.inventory.stockhistory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ram.inventory.inventorytransaction.InventoryTransactionType;
+import com.ram.inventory.shard.ShardRouter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Snapshots the stock of every product that changed since its previous snapshot, walking
+ * each shard's products in productId chunks of one transaction each.
+ * <p>
+ * A snapshot is taken for a moment one settle period back rather than for now, so every
+ * transaction with ledger entries before that moment has committed by the time it is
+ * read. Products that did not change get no new row, which keeps the table no larger
+ * than the ledger while still bounding every replay to one interval of changes.
+ */
+@Slf4j
+@Component
+public class StockSnapshotJob {
+
+    static final int CHUNK_SIZE = 1000;
+    private static final UUID FIRST = new UUID(0, 0);
+
+    private final StockHistoryRepository stockHistoryRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transaction;
+    private final Duration settle;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public StockSnapshotJob(StockHistoryRepository stockHistoryRepository, ShardRouter shardRouter,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.snapshot.settle:1m}") Duration settle) {
+        this.stockHistoryRepository = stockHistoryRepository;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.settle = settle;
+    }
+
+    @Scheduled(cron = "${inventory.snapshot.cron:0 5 * * * *}")
+    public void snapshotScheduled() {
+        snapshot(LocalDateTime.now().minus(settle));
+    }
+
+    /**
+     * Snapshots the stock at the given moment and returns how many products were written.
+     */
+    public int snapshot(LocalDateTime moment) {
+        // as precise as the column, so a second run for the same moment finds the first
+        LocalDateTime at = moment.truncatedTo(ChronoUnit.MICROS);
+        if (!running.compareAndSet(false, true)) {
+            log.info("Stock snapshot already running, skipping");
+            return 0;
+        }
+        try {
+            long start = System.nanoTime();
+            int written = 0;
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                UUID after = FIRST;
+                while (after != null) {
+                    Chunk chunk = snapshotChunk(shard, after, at);
+                    written += chunk.written();
+                    after = chunk.last();
+                }
+            }
+            log.info("Snapshot of the stock at {} written for {} products in {} ms", at, written,
+                    (System.nanoTime() - start) / 1_000_000);
+            return written;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Chunk snapshotChunk(int shard, UUID after, LocalDateTime at) {
+        return shardRouter.onShard(shard, () -> transaction.execute(status -> {
+            List<UUID> productIds = stockHistoryRepository.findProductIdsAfter(after, Limit.of(CHUNK_SIZE));
+            if (productIds.isEmpty()) {
+                return new Chunk(0, null);
+            }
+            int written = stockHistoryRepository.snapshot(productIds, at, InventoryTransactionType.WITHDRAW.ordinal());
+            return new Chunk(written, productIds.size() < CHUNK_SIZE ? null : productIds.getLast());
+        }));
+    }
+
+    /**
+     * Snapshots written for a chunk and the productId to continue after, null at the end.
+     */
+    private record Chunk(int written, UUID last) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.ram.inventory.util;
+
+import com.ram.inventory.exception.ApiException;
+
+/**
+ * Entity tags of versioned resources, which are their edit versions in quotes.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    /**
+     * The version an If-Match header asks for, or null for {@code *}, which matches any.
+     * A missing header is refused with 428, so an edit cannot skip the check by accident;
+     * a weak or listed tag is refused as well, since only one exact version can match.
+     */
+    public static Long parseIfMatch(String header) {
+        if (header == null || header.isBlank()) {
+            throw new ApiException("If-Match header required", 428);
+        }
+        String tag = header.trim();
+        if (tag.equals("*")) {
+            return null;
+        }
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new ApiException("If-Match must be a single quoted version or *", 400);
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new ApiException("If-Match must be a single quoted version or *", 400);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.ram.inventory.util;
+
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Writes only the given attributes of one row, without loading its entity first, and
+ * counts the edit in its {@code version} attribute.
+ * <p>
+ * The statement sets exactly the changed columns plus the version, and matches the row by
+ * id and, when one is expected, by version too, so a stale edit changes nothing. Entities
+ * already loaded in the persistence context are flushed before and evicted after, as
+ * with a modifying repository query. Must run in a transaction.
+ */
+@Component
+public class PartialUpdates {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Returns 1 when the row was updated, 0 when it does not exist or has another version.
+     */
+    public <T> int update(Class<T> type, String idAttribute, Object id, Long expectedVersion,
+            Map<String, Object> changes) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = builder.createCriteriaUpdate(type);
+        Root<T> root = update.from(type);
+        changes.forEach(update::set);
+        update.set(root.<Long>get("version"), builder.sum(root.<Long>get("version"), 1L));
+        Predicate matches = builder.equal(root.get(idAttribute), id);
+        if (expectedVersion != null) {
+            matches = builder.and(matches, builder.equal(root.get("version"), expectedVersion));
+        }
+        update.where(matches);
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -0,0 +1,73 @@
+package com.ram.inventory.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent character trie over a set of terms, used for prefix expansion.
+ * Removal only clears the terminal marker; nodes are never pruned, which keeps
+ * concurrent inserts and removals lock-free at the cost of retaining dead branches.
+ */
+public class PrefixTrie {
+
+    private final Node root = new Node();
+
+    public void add(String term) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.children.computeIfAbsent(term.charAt(i), c -> new Node());
+        }
+        node.term = term;
+    }
+
+    public void remove(String term) {
+        Node node = find(term);
+        if (node != null) {
+            node.term = null;
+        }
+    }
+
+    public boolean contains(String term) {
+        Node node = find(term);
+        return node != null && node.term != null;
+    }
+
+    /**
+     * Collects up to {@code max} terms starting with {@code prefix}, shortest first.
+     */
+    public List<String> termsWithPrefix(String prefix, int max) {
+        List<String> terms = new ArrayList<>();
+        Node start = find(prefix);
+        if (start == null) {
+            return terms;
+        }
+        Deque<Node> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty() && terms.size() < max) {
+            Node node = queue.poll();
+            String term = node.term;
+            if (term != null) {
+                terms.add(term);
+            }
+            queue.addAll(node.children.values());
+        }
+        return terms;
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new ConcurrentHashMap<>(4);
+        private volatile String term;
+    }
+}
@@ -0,0 +1,159 @@
+package com.ram.inventory.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Loads values by key so that concurrent callers asking for the same key share one load,
+ * and keeps each loaded value for a short time.
+ * <p>
+ * The first caller of a key runs the load; callers arriving while it runs wait for its
+ * result, or its failure, instead of loading again. A value is then served from memory
+ * for {@code ttl} nanoseconds, 0 keeping nothing. Invalidating a key, or all of them,
+ * stamps it with the next generation: a load of the key that began before is still handed
+ * to the callers waiting on it, but is not kept, and callers arriving after the
+ * invalidation start a load of their own instead. Loads of other keys are not affected by
+ * {@link #invalidate(Object)}. At most {@code maxEntries} values and as many key stamps are
+ * kept; when full, expired values are dropped and new ones are not kept until there is
+ * room, and the key stamps are folded into one for all keys.
+ */
+public class SingleFlight<K, V> {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final Map<K, Cached<V>> cache = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong allInvalidatedAt = new AtomicLong();
+    private final Map<K, Long> invalidatedAt = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+
+    public SingleFlight(long ttlNanos, int maxEntries) {
+        this.ttlNanos = ttlNanos;
+        this.maxEntries = maxEntries;
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        requests.increment();
+        Cached<V> cached = cache.get(key);
+        if (cached != null && System.nanoTime() - cached.expiresAt() < 0) {
+            cacheHits.increment();
+            return cached.value();
+        }
+        long started = generation.get();
+        Flight<V> own = new Flight<>(new CompletableFuture<>(), started);
+        // a load that began before the last invalidation may return what was overwritten
+        Flight<V> flight = inFlight.compute(key,
+                (k, running) -> running != null && !isStale(key, running.generation()) ? running : own);
+        if (flight != own) {
+            joined.increment();
+            return await(flight.load());
+        }
+        loads.increment();
+        try {
+            V value = loader.get();
+            keep(key, value, started);
+            own.load().complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.load().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    public void invalidate(K key) {
+        invalidatedAt.merge(key, generation.incrementAndGet(), Math::max);
+        cache.remove(key);
+        if (invalidatedAt.size() > maxEntries) {
+            invalidateLoads();
+        }
+    }
+
+    public void invalidateAll() {
+        invalidateLoads();
+        cache.clear();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    /**
+     * Callers that waited for a load another caller had started.
+     */
+    public long getJoined() {
+        return joined.sum();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Stamps every key at once; the key stamps it covers are dropped.
+     */
+    private void invalidateLoads() {
+        long stamp = allInvalidatedAt.accumulateAndGet(generation.incrementAndGet(), Math::max);
+        invalidatedAt.values().removeIf(keyStamp -> keyStamp <= stamp);
+    }
+
+    private boolean isStale(K key, long started) {
+        return started < allInvalidatedAt.get() || started < invalidatedAt.getOrDefault(key, 0L);
+    }
+
+    private void keep(K key, V value, long started) {
+        if (ttlNanos <= 0 || isStale(key, started)) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (cache.size() >= maxEntries) {
+            cache.values().removeIf(entry -> now - entry.expiresAt() >= 0);
+            if (cache.size() >= maxEntries) {
+                return;
+            }
+        }
+        Cached<V> entry = new Cached<>(value, now + ttlNanos);
+        cache.put(key, entry);
+        // an invalidation between the check and the put must not be lost
+        if (isStale(key, started)) {
+            cache.remove(key, entry);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> load) {
+        try {
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared load", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private record Cached<V>(V value, long expiresAt) {
+    }
+
+    private record Flight<V>(CompletableFuture<V> load, long generation) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.ram.inventory.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters sketch (Metwally, Agrawal &amp; El Abbadi).
+ *
+ * Counts weighted occurrences of at most {@code capacity} keys. A key that arrives while
+ * all counters are taken replaces the key with the smallest count and inherits that count
+ * as its error, so the count of a tracked key never underestimates it and overestimates
+ * it by at most its error. Any key whose true count exceeds total / capacity is
+ * guaranteed to be tracked.
+ * <p>
+ * Counters sit in a min-heap that knows each counter's position, so adding is O(log
+ * capacity). Not thread-safe.
+ */
+public class SpaceSaving<K> {
+
+    private final Map<K, Counter<K>> counters;
+    private final Counter<K>[] heap;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.counters = new HashMap<>(capacity * 2);
+        this.heap = new Counter[capacity];
+    }
+
+    public void add(K key, long weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("weight must be positive");
+        }
+        Counter<K> counter = counters.get(key);
+        if (counter == null && size < heap.length) {
+            counter = new Counter<>(key, size);
+            counter.count = weight;
+            heap[size++] = counter;
+            counters.put(key, counter);
+            siftUp(counter.index);
+            return;
+        }
+        if (counter == null) {
+            counter = heap[0];
+            counters.remove(counter.key);
+            counter.key = key;
+            counter.error = counter.count;
+            counters.put(key, counter);
+        }
+        counter.count += weight;
+        siftDown(counter.index);
+    }
+
+    /**
+     * The tracked keys, highest count first.
+     */
+    public List<Estimate<K>> estimates() {
+        List<Estimate<K>> estimates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            estimates.add(new Estimate<>(heap[i].key, heap[i].count, heap[i].error));
+        }
+        estimates.sort(Comparator.comparingLong(Estimate<K>::count).reversed());
+        return estimates;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        counters.clear();
+        for (int i = 0; i < size; i++) {
+            heap[i] = null;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int index) {
+        Counter<K> counter = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            heap[index] = heap[parent];
+            heap[index].index = index;
+            index = parent;
+        }
+        heap[index] = counter;
+        counter.index = index;
+    }
+
+    private void siftDown(int index) {
+        Counter<K> counter = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+                child++;
+            }
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+            heap[index] = heap[child];
+            heap[index].index = index;
+            index = child;
+        }
+        heap[index] = counter;
+        counter.index = index;
+    }
+
+    /**
+     * A tracked key: {@code count - error} is a lower bound of how often it occurred.
+     */
+    public record Estimate<K>(K key, long count, long error) {
+    }
+
+    private static final class Counter<K> {
+        private K key;
+        private long count;
+        private long error;
+        private int index;
+
+        Counter(K key, int index) {
+            this.key = key;
+            this.index = index;
+        }
+    }
+}
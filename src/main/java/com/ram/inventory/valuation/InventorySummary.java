@@ -0,0 +1,13 @@
+package com.ram.inventory.valuation;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Catalog-wide stock figures. {@code totalValue} is the sum of price × currentQuantity.
+ * {@code verifiedAt} is when the figures last matched a full recompute, and
+ * {@code driftCorrections} counts the recomputes that had to correct them.
+ */
+public record InventorySummary(long products, long outOfStockProducts, long totalUnits, BigDecimal totalValue,
+        LocalDateTime verifiedAt, long driftCorrections) {
+}
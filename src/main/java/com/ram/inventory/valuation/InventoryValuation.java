@@ -0,0 +1,158 @@
+package com.ram.inventory.valuation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ram.inventory.product.ProductChangedEvent;
+import com.ram.inventory.product.StockLevelChangedEvent;
+import com.ram.inventory.shard.ShardRouter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the inventory summary up to date from committed catalog and stock changes, so
+ * reading it costs the same however large the catalog is.
+ * <p>
+ * Every change adds its difference to striped counters, which concurrent orders update
+ * without contending on a shared value; money is counted in cents. The counters are
+ * loaded from the database at startup and compared with a full recompute on a schedule.
+ * A difference is only corrected once two checks in a row agree on it, because a single
+ * check can see a change that has committed but has not been counted yet.
+ */
+@Slf4j
+@Service
+public class InventoryValuation {
+
+    private final ValuationRepository valuationRepository;
+    private final ShardRouter shardRouter;
+    private final LongAdder products = new LongAdder();
+    private final LongAdder outOfStockProducts = new LongAdder();
+    private final LongAdder totalUnits = new LongAdder();
+    private final LongAdder totalCents = new LongAdder();
+    private final AtomicLong driftCorrections = new AtomicLong();
+    private volatile LocalDateTime verifiedAt;
+    private Totals suspectedDrift;
+
+    public InventoryValuation(ValuationRepository valuationRepository, ShardRouter shardRouter) {
+        this.valuationRepository = valuationRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        add(recompute().minus(current()));
+        verifiedAt = LocalDateTime.now();
+        log.info("Loaded inventory valuation: {}", summary());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        int previous = event.getPreviousQuantity();
+        int current = event.getCurrentQuantity();
+        totalUnits.add(current - previous);
+        totalCents.add(cents(event.getPrice()) * (current - previous));
+        if (previous == 0 && current != 0) {
+            outOfStockProducts.decrement();
+        } else if (previous != 0 && current == 0) {
+            outOfStockProducts.increment();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED -> {
+                // a new product starts out empty; its initial stock arrives as a stock change
+                products.increment();
+                outOfStockProducts.increment();
+            }
+            case UPDATED -> totalCents.add((cents(event.getPrice()) - cents(event.getPreviousPrice())) * event.getQuantity());
+            case DELETED -> {
+                if (event.getPrice() != null) {
+                    products.decrement();
+                    totalUnits.add(-event.getQuantity());
+                    totalCents.add(-cents(event.getPrice()) * event.getQuantity());
+                    if (event.getQuantity() == 0) {
+                        outOfStockProducts.decrement();
+                    }
+                }
+            }
+        }
+    }
+
+    InventorySummary summary() {
+        return new InventorySummary(products.sum(), outOfStockProducts.sum(), totalUnits.sum(),
+                BigDecimal.valueOf(totalCents.sum(), 2), verifiedAt, driftCorrections.get());
+    }
+
+    /**
+     * Compares the counters with a full recompute and corrects a difference that the
+     * previous check saw as well. Returns true when the counters are correct afterwards.
+     */
+    @Scheduled(cron = "${inventory.valuation.verify-cron:0 */10 * * * *}")
+    public synchronized boolean verify() {
+        Totals drift = recompute().minus(current());
+        if (drift.equals(Totals.ZERO)) {
+            suspectedDrift = null;
+            verifiedAt = LocalDateTime.now();
+            return true;
+        }
+        if (!drift.equals(suspectedDrift)) {
+            log.debug("Inventory valuation differs from the database by {}, checking again next time", drift);
+            suspectedDrift = drift;
+            return false;
+        }
+        log.warn("Inventory valuation drifted from the database by {}, correcting", drift);
+        add(drift);
+        driftCorrections.incrementAndGet();
+        suspectedDrift = null;
+        verifiedAt = LocalDateTime.now();
+        return true;
+    }
+
+    private Totals recompute() {
+        return shardRouter.scatter(shard -> valuationRepository.computeTotals()).stream()
+                .map(totals -> new Totals(totals.getProducts(), totals.getOutOfStockProducts(),
+                        totals.getTotalUnits(), cents(totals.getTotalValue())))
+                .reduce(Totals.ZERO, Totals::plus);
+    }
+
+    private Totals current() {
+        return new Totals(products.sum(), outOfStockProducts.sum(), totalUnits.sum(), totalCents.sum());
+    }
+
+    private void add(Totals difference) {
+        products.add(difference.products());
+        outOfStockProducts.add(difference.outOfStockProducts());
+        totalUnits.add(difference.totalUnits());
+        totalCents.add(difference.totalCents());
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private record Totals(long products, long outOfStockProducts, long totalUnits, long totalCents) {
+
+        static final Totals ZERO = new Totals(0, 0, 0, 0);
+
+        Totals plus(Totals other) {
+            return new Totals(products + other.products, outOfStockProducts + other.outOfStockProducts,
+                    totalUnits + other.totalUnits, totalCents + other.totalCents);
+        }
+
+        Totals minus(Totals other) {
+            return new Totals(products - other.products, outOfStockProducts - other.outOfStockProducts,
+                    totalUnits - other.totalUnits, totalCents - other.totalCents);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.ram.inventory.valuation;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ram.inventory.util.ApiResponse;
+
+@RestController
+@RequestMapping("/valuation")
+public class ValuationController {
+
+	private final InventoryValuation inventoryValuation;
+
+	public ValuationController(InventoryValuation inventoryValuation) {
+		this.inventoryValuation = inventoryValuation;
+	}
+
+	@GetMapping(value = "/summary")
+	public ResponseEntity<ApiResponse<InventorySummary>> getSummary() {
+		return ResponseEntity.ok(new ApiResponse<>(200, "Summary Found", inventoryValuation.summary()));
+	}
+}
@@ -0,0 +1,31 @@
+package com.ram.inventory.valuation;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+
+import com.ram.inventory.product.Product;
+
+/**
+ * The full recompute of the figures {@link InventoryValuation} maintains incrementally.
+ */
+interface ValuationRepository extends Repository<Product, UUID> {
+
+    @Query("select count(p) as products,"
+            + " coalesce(sum(case when p.currentQuantity = 0 then 1 else 0 end), 0) as outOfStockProducts,"
+            + " coalesce(sum(p.currentQuantity), 0) as totalUnits,"
+            + " coalesce(sum(p.price * p.currentQuantity), 0) as totalValue from Product p")
+    Totals computeTotals();
+
+    interface Totals {
+        long getProducts();
+
+        long getOutOfStockProducts();
+
+        long getTotalUnits();
+
+        BigDecimal getTotalValue();
+    }
+}
@@ -0,0 +1,9 @@
+package com.ram.inventory.warehouse;
+
+import java.util.UUID;
+
+/**
+ * Units of an order taken from one warehouse.
+ */
+public record Allocation(UUID warehouseId, int quantity) {
+}
@@ -0,0 +1,44 @@
+package com.ram.inventory.warehouse;
+
+import java.util.Comparator;
+
+/**
+ * The order in which an order tries the warehouses holding its product. Ties are broken by
+ * warehouseId, so concurrent orders with the same preference meet in the same order.
+ */
+public enum AllocationStrategy {
+    /**
+     * Closest to the delivery coordinates of the order first, warehouses without
+     * coordinates last.
+     */
+    NEAREST,
+    /**
+     * Fullest first, which keeps warehouses level and gives concurrent large orders the
+     * best chance of being filled from one place.
+     */
+    MOST_STOCKED;
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    Comparator<WarehouseStockRepository.Candidate> comparator(Double latitude, Double longitude) {
+        Comparator<WarehouseStockRepository.Candidate> preference = switch (this) {
+            case NEAREST -> Comparator.comparingDouble(candidate -> candidate.getLatitude() == null
+                    || candidate.getLongitude() == null ? Double.MAX_VALUE
+                            : distanceKm(latitude, longitude, candidate.getLatitude(), candidate.getLongitude()));
+            case MOST_STOCKED -> Comparator
+                    .comparingInt(WarehouseStockRepository.Candidate::getQuantity).reversed();
+        };
+        return preference.thenComparing(WarehouseStockRepository.Candidate::getWarehouseId);
+    }
+
+    /**
+     * Great-circle distance by the haversine formula.
+     */
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.pow(Math.sin(dLatitude / 2), 2) + Math.cos(Math.toRadians(latitude1))
+                * Math.cos(Math.toRadians(latitude2)) * Math.pow(Math.sin(dLongitude / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
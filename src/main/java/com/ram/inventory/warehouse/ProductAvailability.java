@@ -0,0 +1,15 @@
+package com.ram.inventory.warehouse;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A product's stock and where it is: {@code availableQuantity} is what orders can take,
+ * {@code unassignedQuantity} the part of it not held at any warehouse.
+ */
+public record ProductAvailability(UUID productId, int currentQuantity, int reservedQuantity,
+        int availableQuantity, int unassignedQuantity, List<Location> locations) {
+
+    public record Location(UUID warehouseId, String code, String name, int quantity) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.ram.inventory.warehouse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.exception.InsufficientStockException;
+import com.ram.inventory.exception.ResourceNotFoundException;
+import com.ram.inventory.product.Product;
+import com.ram.inventory.product.ProductRepository;
+
+/**
+ * Takes the units of an order from the warehouses holding its product, so that concurrent
+ * orders for one popular product lock different warehouse rows instead of all queueing on
+ * the product row.
+ * <p>
+ * Warehouses are tried in the order of the strategy, first skipping every row another
+ * transaction holds; only if that does not cover the order are the skipped rows waited
+ * for, in warehouseId order so two orders cannot deadlock on each other. What the
+ * warehouses cannot cover comes from the product's unassigned stock. The product row is
+ * then changed by one relative update at the end, which holds its lock only for the rest
+ * of the transaction and refuses the change if it would break the stock invariant.
+ */
+@Service
+public class StockAllocator {
+
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final ProductRepository productRepository;
+    private final AllocationStrategy defaultStrategy;
+
+    public StockAllocator(WarehouseStockRepository warehouseStockRepository, ProductRepository productRepository,
+            @Value("${inventory.allocation.strategy:MOST_STOCKED}") AllocationStrategy defaultStrategy) {
+        this.warehouseStockRepository = warehouseStockRepository;
+        this.productRepository = productRepository;
+        this.defaultStrategy = defaultStrategy;
+    }
+
+    /**
+     * Whether any warehouse holds some of the product, in which case its orders go through
+     * {@link #allocate}.
+     */
+    public boolean isLocated(UUID productId) {
+        return warehouseStockRepository.existsByProductIdAndQuantityGreaterThan(productId, 0);
+    }
+
+    public Set<UUID> locatedProducts(Collection<UUID> productIds) {
+        return new HashSet<>(warehouseStockRepository.findLocatedProductIds(productIds));
+    }
+
+    /**
+     * Takes {@code quantity} units of the product out of stock and returns the warehouses
+     * they came from. Must run in the caller's transaction, bound to the product's shard;
+     * the product is left out of the persistence context, so reload it afterwards.
+     *
+     * @throws InsufficientStockException if warehouses and unassigned stock together hold
+     *         too little, in which case the caller's transaction has to roll back
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Allocation> allocate(UUID productId, int quantity, AllocationStrategy strategy, Double latitude,
+            Double longitude) {
+        if (quantity <= 0) {
+            throw new ApiException("Quantity must be positive", 400);
+        }
+        AllocationStrategy used = strategy == null ? defaultStrategy : strategy;
+        if (used == AllocationStrategy.NEAREST && (latitude == null || longitude == null)) {
+            throw new ApiException("Nearest allocation needs a latitude and a longitude", 400);
+        }
+        List<WarehouseStockRepository.Candidate> candidates = new ArrayList<>(
+                warehouseStockRepository.findCandidates(productId));
+        candidates.sort(used.comparator(latitude, longitude));
+
+        List<Allocation> allocations = new ArrayList<>();
+        List<UUID> contended = new ArrayList<>();
+        int remaining = quantity;
+        for (WarehouseStockRepository.Candidate candidate : candidates) {
+            if (remaining == 0) {
+                break;
+            }
+            WarehouseStock stock = warehouseStockRepository.lockIfFree(productId, candidate.getWarehouseId())
+                    .orElse(null);
+            if (stock == null) {
+                contended.add(candidate.getWarehouseId());
+            } else {
+                remaining -= take(stock, remaining, allocations);
+            }
+        }
+        contended.sort(null);
+        for (UUID warehouseId : contended) {
+            if (remaining == 0) {
+                break;
+            }
+            WarehouseStock stock = warehouseStockRepository.findForUpdate(productId, warehouseId).orElse(null);
+            if (stock != null) {
+                remaining -= take(stock, remaining, allocations);
+            }
+        }
+
+        int located = quantity - remaining;
+        if (productRepository.adjustStock(productId, -quantity, -located, LocalDateTime.now()) == 0) {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+            throw new InsufficientStockException(productId, quantity, product.getAvailableQuantity());
+        }
+        return allocations;
+    }
+
+    private int take(WarehouseStock stock, int wanted, List<Allocation> allocations) {
+        int taken = Math.min(wanted, stock.getQuantity());
+        if (taken > 0) {
+            stock.setQuantity(stock.getQuantity() - taken);
+            allocations.add(new Allocation(stock.getWarehouseId(), taken));
+        }
+        return taken;
+    }
+}
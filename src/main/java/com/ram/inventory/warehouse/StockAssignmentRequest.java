@@ -0,0 +1,12 @@
+package com.ram.inventory.warehouse;
+
+import java.util.UUID;
+
+import lombok.Data;
+
+@Data
+public class StockAssignmentRequest {
+    private UUID warehouseId;
+    private UUID productId;
+    private Integer quantity;
+}
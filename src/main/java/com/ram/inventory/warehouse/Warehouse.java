@@ -0,0 +1,45 @@
+package com.ram.inventory.warehouse;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class Warehouse {
+    /**
+     * Assigned by the application rather than generated, so the copies of a warehouse on
+     * every shard share the same id.
+     */
+    @Id
+    private UUID warehouseId;
+    private String code;
+    private String name;
+    private Double latitude;
+    private Double longitude;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime modifiedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.modifiedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.modifiedAt = LocalDateTime.now();
+    }
+}
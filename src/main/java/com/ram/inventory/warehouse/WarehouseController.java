@@ -0,0 +1,47 @@
+package com.ram.inventory.warehouse;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ram.inventory.util.ApiResponse;
+
+@RestController
+@RequestMapping("/warehouse")
+public class WarehouseController {
+
+	private final WarehouseService warehouseService;
+
+	public WarehouseController(WarehouseService warehouseService) {
+		this.warehouseService = warehouseService;
+	}
+
+	@PostMapping
+	public ResponseEntity<ApiResponse<WarehouseDTO>> createWarehouse(@RequestBody WarehouseDTO request) {
+		return ResponseEntity
+				.ok(new ApiResponse<>(200, "Warehouse Created", warehouseService.createWarehouse(request)));
+	}
+
+	@GetMapping(value = "/get-warehouses")
+	public ResponseEntity<ApiResponse<List<WarehouseDTO>>> getWarehouses() {
+		return ResponseEntity.ok(new ApiResponse<>(200, "Warehouses Found", warehouseService.getWarehouses()));
+	}
+
+	@PostMapping(value = "/stock")
+	public ResponseEntity<ApiResponse<ProductAvailability>> assignStock(@RequestBody StockAssignmentRequest request) {
+		return ResponseEntity.ok(new ApiResponse<>(200, "Stock Assigned", warehouseService.assignStock(request)));
+	}
+
+	@GetMapping(value = "/availability")
+	public ResponseEntity<ApiResponse<ProductAvailability>> getAvailability(@RequestParam UUID productId) {
+		return ResponseEntity
+				.ok(new ApiResponse<>(200, "Availability Found", warehouseService.getAvailability(productId)));
+	}
+}
@@ -0,0 +1,17 @@
+package com.ram.inventory.warehouse;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.Data;
+
+@Data
+public class WarehouseDTO {
+    private UUID warehouseId;
+    private String code;
+    private String name;
+    private Double latitude;
+    private Double longitude;
+    private LocalDateTime createdAt;
+    private LocalDateTime modifiedAt;
+}
@@ -0,0 +1,8 @@
+package com.ram.inventory.warehouse;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+interface WarehouseRepository extends JpaRepository<Warehouse, UUID> {
+}
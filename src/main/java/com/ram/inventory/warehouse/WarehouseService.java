@@ -0,0 +1,112 @@
+package com.ram.inventory.warehouse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.exception.ResourceNotFoundException;
+import com.ram.inventory.product.Product;
+import com.ram.inventory.product.ProductRepository;
+import com.ram.inventory.shard.ShardRouter;
+
+@Service
+public class WarehouseService {
+
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final ProductRepository productRepository;
+    private final ModelMapper modelMapper;
+    private final ShardRouter shardRouter;
+
+    public WarehouseService(WarehouseRepository warehouseRepository,
+            WarehouseStockRepository warehouseStockRepository, ProductRepository productRepository,
+            ModelMapper modelMapper, ShardRouter shardRouter) {
+        this.warehouseRepository = warehouseRepository;
+        this.warehouseStockRepository = warehouseStockRepository;
+        this.productRepository = productRepository;
+        this.modelMapper = modelMapper;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Creates the warehouse on every shard, so products of any shard can be stocked there.
+     */
+    WarehouseDTO createWarehouse(WarehouseDTO request) {
+        if (request.getCode() == null || request.getName() == null) {
+            throw new ApiException("Warehouse code and name are required", 400);
+        }
+        if ((request.getLatitude() == null) != (request.getLongitude() == null)) {
+            throw new ApiException("Latitude and longitude go together", 400);
+        }
+        UUID warehouseId = UUID.randomUUID();
+        shardRouter.forEachShard(false, shard -> warehouseRepository.save(Warehouse.builder()
+                .warehouseId(warehouseId)
+                .code(request.getCode())
+                .name(request.getName())
+                .latitude(request.getLatitude())
+                .longitude(request.getLongitude())
+                .build()));
+        return shardRouter.readOnShard(0, () -> warehouseRepository.findById(warehouseId)
+                .map(warehouse -> modelMapper.map(warehouse, WarehouseDTO.class))
+                .orElseThrow(() -> new ResourceNotFoundException("Warehouse not found")));
+    }
+
+    List<WarehouseDTO> getWarehouses() {
+        return shardRouter.readOnShard(0, () -> warehouseRepository.findAll(Sort.by("code")).stream()
+                .map(warehouse -> modelMapper.map(warehouse, WarehouseDTO.class))
+                .toList());
+    }
+
+    /**
+     * Sets how many units of a product a warehouse holds. Units put there come out of the
+     * product's unassigned stock and units taken away go back to it, so receiving goods
+     * into a warehouse is a top-up transaction followed by an assignment.
+     */
+    @Transactional
+    ProductAvailability assignStock(StockAssignmentRequest request) {
+        if (request.getWarehouseId() == null || request.getProductId() == null || request.getQuantity() == null
+                || request.getQuantity() < 0) {
+            throw new ApiException("A warehouseId, a productId and a quantity of zero or more are required", 400);
+        }
+        shardRouter.bindTransaction(shardRouter.shardFor(request.getProductId()));
+        if (!productRepository.existsById(request.getProductId())) {
+            throw new ResourceNotFoundException("Product not found");
+        }
+        if (!warehouseRepository.existsById(request.getWarehouseId())) {
+            throw new ResourceNotFoundException("Warehouse not found");
+        }
+        WarehouseStock stock = warehouseStockRepository
+                .findForUpdate(request.getProductId(), request.getWarehouseId())
+                .orElseGet(() -> new WarehouseStock(request.getProductId(), request.getWarehouseId(), 0, null));
+        int delta = request.getQuantity() - stock.getQuantity();
+        stock.setQuantity(request.getQuantity());
+        warehouseStockRepository.save(stock);
+        if (delta != 0 && productRepository.adjustStock(request.getProductId(), 0, delta, LocalDateTime.now()) == 0) {
+            throw new ApiException("Not enough unassigned stock", 409);
+        }
+        return availability(request.getProductId());
+    }
+
+    @Transactional(readOnly = true)
+    ProductAvailability getAvailability(UUID productId) {
+        shardRouter.bindTransaction(shardRouter.shardFor(productId));
+        return availability(productId);
+    }
+
+    private ProductAvailability availability(UUID productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        List<ProductAvailability.Location> locations = warehouseStockRepository.findLocations(productId).stream()
+                .map(row -> new ProductAvailability.Location(row.getWarehouseId(), row.getCode(), row.getName(),
+                        row.getQuantity()))
+                .toList();
+        return new ProductAvailability(productId, product.getCurrentQuantity(), product.getReservedQuantity(),
+                product.getAvailableQuantity(), product.getUnassignedQuantity(), locations);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ram.inventory.warehouse;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Units of a product held at one warehouse. Each row is locked on its own when stock is
+ * taken from it, so orders for the same product at different warehouses do not wait for
+ * each other.
+ */
+@Data
+@Entity
+@IdClass(WarehouseStock.Key.class)
+@AllArgsConstructor
+@NoArgsConstructor
+public class WarehouseStock {
+    @Id
+    private UUID productId;
+    @Id
+    private UUID warehouseId;
+    private Integer quantity;
+    private LocalDateTime modifiedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onChange() {
+        this.modifiedAt = LocalDateTime.now();
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private UUID productId;
+        private UUID warehouseId;
+    }
+}
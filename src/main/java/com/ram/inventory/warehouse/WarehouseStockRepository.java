@@ -0,0 +1,67 @@
+package com.ram.inventory.warehouse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+
+interface WarehouseStockRepository extends JpaRepository<WarehouseStock, WarehouseStock.Key> {
+
+    /**
+     * Warehouses holding some of the product, with their coordinates to rank them by.
+     */
+    @Query("select s.warehouseId as warehouseId, s.quantity as quantity, w.latitude as latitude,"
+            + " w.longitude as longitude from WarehouseStock s join Warehouse w on w.warehouseId = s.warehouseId"
+            + " where s.productId = :productId and s.quantity > 0")
+    List<Candidate> findCandidates(@Param("productId") UUID productId);
+
+    /**
+     * Locks a warehouse's stock of the product unless another transaction holds it, in
+     * which case nothing is returned rather than waiting. Native, because the dialect
+     * drops a skip-locked hint on H2.
+     */
+    @Query(value = "select s.* from warehouse_stock s where s.product_id = :productId"
+            + " and s.warehouse_id = :warehouseId for update skip locked", nativeQuery = true)
+    Optional<WarehouseStock> lockIfFree(@Param("productId") UUID productId, @Param("warehouseId") UUID warehouseId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from WarehouseStock s where s.productId = :productId and s.warehouseId = :warehouseId")
+    Optional<WarehouseStock> findForUpdate(@Param("productId") UUID productId, @Param("warehouseId") UUID warehouseId);
+
+    boolean existsByProductIdAndQuantityGreaterThan(UUID productId, int quantity);
+
+    @Query("select distinct s.productId from WarehouseStock s where s.productId in :ids and s.quantity > 0")
+    List<UUID> findLocatedProductIds(@Param("ids") Collection<UUID> productIds);
+
+    @Query("select s.warehouseId as warehouseId, w.code as code, w.name as name, s.quantity as quantity"
+            + " from WarehouseStock s join Warehouse w on w.warehouseId = s.warehouseId"
+            + " where s.productId = :productId order by w.code")
+    List<LocationRow> findLocations(@Param("productId") UUID productId);
+
+    interface Candidate {
+        UUID getWarehouseId();
+
+        int getQuantity();
+
+        Double getLatitude();
+
+        Double getLongitude();
+    }
+
+    interface LocationRow {
+        UUID getWarehouseId();
+
+        String getCode();
+
+        String getName();
+
+        int getQuantity();
+    }
+}
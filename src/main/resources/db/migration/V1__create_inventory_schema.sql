@@ -0,0 +1,88 @@
+-- Inventory schema. Stock columns can never go negative, and reserved stock never
+-- exceeds what is on hand. Enum columns hold ordinals, see the matching Java enums.
+
+create table product (
+    product_id        uuid          not null,
+    name              varchar(200)  not null,
+    description       varchar(1000),
+    price             numeric(12,2) not null,
+    current_quantity  integer       not null default 0,
+    reserved_quantity integer       not null default 0,
+    reorder_threshold integer,
+    created_at        timestamp(6)  not null,
+    modified_at       timestamp(6)  not null,
+    constraint pk_product primary key (product_id),
+    constraint ck_product_price check (price >= 0),
+    constraint ck_product_current_quantity check (current_quantity >= 0),
+    constraint ck_product_reserved_quantity check (reserved_quantity >= 0 and reserved_quantity <= current_quantity),
+    constraint ck_product_reorder_threshold check (reorder_threshold >= 0)
+);
+
+-- default product listing sorts by name with productId as tie breaker
+create index ix_product_name on product (name, product_id);
+
+-- a multi-line order header has no product or price of its own; its lines do
+create table order (
+    order_id    uuid          not null,
+    product_id  uuid,
+    quantity    integer       not null,
+    price       numeric(12,2),
+    created_at  timestamp(6)  not null,
+    modified_at timestamp(6)  not null,
+    constraint pk_order primary key (order_id),
+    constraint fk_order_product foreign key (product_id) references product (product_id),
+    constraint ck_order_quantity check (quantity >= 0),
+    constraint ck_order_price check (price >= 0)
+);
+
+create index ix_order_product on order (product_id);
+
+create table order_line (
+    order_line_id uuid          not null,
+    order_id      uuid          not null,
+    product_id    uuid          not null,
+    quantity      integer       not null,
+    price         numeric(12,2) not null,
+    constraint pk_order_line primary key (order_line_id),
+    constraint fk_order_line_order foreign key (order_id) references order (order_id),
+    constraint fk_order_line_product foreign key (product_id) references product (product_id),
+    constraint ck_order_line_quantity check (quantity >= 0),
+    constraint ck_order_line_price check (price >= 0)
+);
+
+create index ix_order_line_order on order_line (order_id);
+create index ix_order_line_product on order_line (product_id);
+
+create table inventory_transaction (
+    transaction_id uuid         not null,
+    product_id     uuid         not null,
+    type           tinyint      not null,
+    quantity       integer      not null,
+    created_at     timestamp(6) not null,
+    constraint pk_inventory_transaction primary key (transaction_id),
+    constraint fk_inventory_transaction_product foreign key (product_id) references product (product_id),
+    constraint ck_inventory_transaction_type check (type between 0 and 1),
+    constraint ck_inventory_transaction_quantity check (quantity >= 0)
+);
+
+-- a product's history in time order
+create index ix_inventory_transaction_product on inventory_transaction (product_id, created_at);
+
+create table reservation (
+    reservation_id uuid         not null,
+    product_id     uuid         not null,
+    quantity       integer      not null,
+    status         tinyint      not null,
+    expires_at     timestamp(6) not null,
+    order_id       uuid,
+    created_at     timestamp(6) not null,
+    modified_at    timestamp(6) not null,
+    constraint pk_reservation primary key (reservation_id),
+    constraint fk_reservation_product foreign key (product_id) references product (product_id),
+    constraint ck_reservation_status check (status between 0 and 3),
+    constraint ck_reservation_quantity check (quantity > 0)
+);
+
+create index ix_reservation_product on reservation (product_id);
+-- active reservations are re-armed by expiry at startup
+create index ix_reservation_status_expiry on reservation (status, expires_at);
@@ -0,0 +1,23 @@
+-- Direct stock edits become signed ADJUSTMENT (2) ledger entries, so that the ledger of a
+-- product (transactions minus ordered units) always adds up to its current quantity.
+
+alter table inventory_transaction drop constraint ck_inventory_transaction_type;
+alter table inventory_transaction add constraint ck_inventory_transaction_type check (type between 0 and 2);
+alter table inventory_transaction drop constraint ck_inventory_transaction_quantity;
+alter table inventory_transaction add constraint ck_inventory_transaction_quantity check (type = 2 or quantity >= 0);
+
+-- opening balance: whatever stock the existing ledger does not explain
+insert into inventory_transaction (transaction_id, product_id, type, quantity, created_at)
+select random_uuid(), product_id, 2, difference, current_timestamp
+from (
+    select p.product_id,
+           p.current_quantity - coalesce(t.net, 0) + coalesce(o.ordered, 0) + coalesce(l.ordered, 0) as difference
+    from product p
+    left join (select product_id, sum(case when type = 1 then -quantity else quantity end) as net
+               from inventory_transaction group by product_id) t on t.product_id = p.product_id
+    left join (select product_id, sum(quantity) as ordered
+               from order where product_id is not null group by product_id) o on o.product_id = p.product_id
+    left join (select product_id, sum(quantity) as ordered
+               from order_line group by product_id) l on l.product_id = p.product_id
+) opening
+where difference <> 0;
@@ -0,0 +1,8 @@
+-- Indexes behind the filters and sort keys of the product listing. Each leads with the
+-- filtered or sorted column and ends with product_id, the listing's tie breaker, so a
+-- range filter on a column sorted by that same column is read in index order without a
+-- sort. Name prefixes use ix_product_name.
+create index ix_product_price on product (price, product_id);
+create index ix_product_current_quantity on product (current_quantity, product_id);
+create index ix_product_modified_at on product (modified_at, product_id);
+create index ix_product_created_at on product (created_at, product_id);
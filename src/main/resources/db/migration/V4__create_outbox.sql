@@ -0,0 +1,18 @@
+-- Stock changes waiting to be handed to other services. A row is written in the same
+-- transaction as the change it describes and deleted once it has been published. There is
+-- no foreign key on product_id: a product can be deleted before its last change is sent.
+-- Ids come from a sequence in blocks of 50 so the inserts of one transaction can be batched.
+
+create sequence outbox_event_seq start with 1 increment by 50;
+
+create table outbox_event (
+    event_id          bigint       not null,
+    product_id        uuid         not null,
+    reason            tinyint      not null,
+    previous_quantity integer      not null,
+    current_quantity  integer      not null,
+    reference_id      uuid,
+    created_at        timestamp(6) not null,
+    constraint pk_outbox_event primary key (event_id),
+    constraint ck_outbox_event_reason check (reason between 0 and 4)
+);
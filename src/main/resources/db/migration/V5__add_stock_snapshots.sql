@@ -0,0 +1,27 @@
+-- Stock of a product at a past moment: the latest snapshot at or before it plus the ledger
+-- entries between the two. A snapshot holds the stock made by every change before
+-- taken_at, and is only written for products that changed since their previous one, so
+-- the replay after any snapshot never spans more than one snapshot interval of changes.
+-- There is no foreign key on product_id: the history outlives a deleted product.
+
+create table stock_snapshot (
+    product_id uuid         not null,
+    taken_at   timestamp(6) not null,
+    quantity   integer      not null,
+    constraint pk_stock_snapshot primary key (product_id, taken_at),
+    constraint ck_stock_snapshot_quantity check (quantity >= 0)
+);
+
+-- order lines carry their order's time, so that a product's lines can be read by time range
+alter table order_line add column created_at timestamp(6);
+update order_line l set created_at = (select o.created_at from order o where o.order_id = l.order_id);
+alter table order_line alter column created_at set not null;
+
+-- the ledger of a product in time order, as ix_inventory_transaction_product already is
+create index ix_order_product_created_at on order (product_id, created_at);
+drop index ix_order_product;
+create index ix_order_line_product_created_at on order_line (product_id, created_at);
+-- the old index backs the foreign key, which moves to the new one
+alter table order_line drop constraint fk_order_line_product;
+drop index ix_order_line_product;
+alter table order_line add constraint fk_order_line_product foreign key (product_id) references product (product_id);
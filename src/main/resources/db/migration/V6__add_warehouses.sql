@@ -0,0 +1,51 @@
+-- Stock per warehouse. A product's stock splits into what is reserved, what sits at a
+-- warehouse (located_quantity, the sum of its warehouse_stock rows) and the unassigned
+-- rest. Orders take from warehouses first, one row lock per warehouse, so concurrent
+-- orders for a popular product spread over several rows; reservations and changes
+-- without a warehouse only draw on the unassigned rest.
+-- Warehouses are reference data and are written to every shard under the same id.
+
+create table warehouse (
+    warehouse_id uuid         not null,
+    code         varchar(50)  not null,
+    name         varchar(200) not null,
+    latitude     double precision,
+    longitude    double precision,
+    created_at   timestamp(6) not null,
+    modified_at  timestamp(6) not null,
+    constraint pk_warehouse primary key (warehouse_id),
+    constraint uq_warehouse_code unique (code),
+    constraint ck_warehouse_coordinates check (latitude between -90 and 90 and longitude between -180 and 180)
+);
+
+create table warehouse_stock (
+    product_id   uuid         not null,
+    warehouse_id uuid         not null,
+    quantity     integer      not null,
+    modified_at  timestamp(6) not null,
+    constraint pk_warehouse_stock primary key (product_id, warehouse_id),
+    constraint fk_warehouse_stock_product foreign key (product_id) references product (product_id),
+    constraint fk_warehouse_stock_warehouse foreign key (warehouse_id) references warehouse (warehouse_id),
+    constraint ck_warehouse_stock_quantity check (quantity >= 0)
+);
+
+create index ix_warehouse_stock_warehouse on warehouse_stock (warehouse_id);
+
+alter table product add column located_quantity integer not null default 0;
+alter table product add constraint ck_product_located_quantity
+    check (located_quantity >= 0 and located_quantity + reserved_quantity <= current_quantity);
+
+-- which warehouse filled how much of an order
+create table order_allocation (
+    allocation_id uuid    not null,
+    order_id      uuid    not null,
+    product_id    uuid    not null,
+    warehouse_id  uuid    not null,
+    quantity      integer not null,
+    constraint pk_order_allocation primary key (allocation_id),
+    constraint fk_order_allocation_order foreign key (order_id) references order (order_id),
+    constraint fk_order_allocation_warehouse foreign key (warehouse_id) references warehouse (warehouse_id),
+    constraint ck_order_allocation_quantity check (quantity > 0)
+);
+
+create index ix_order_allocation_order on order_allocation (order_id);
@@ -0,0 +1,7 @@
+-- Edit versions for optimistic concurrency through If-Match. A version counts the edits
+-- made through the catalog, order and transaction APIs; stock movements leave it alone,
+-- so an edit of a busy product is not refused because of orders placed meanwhile.
+
+alter table product add column version bigint default 0 not null;
+alter table order add column version bigint default 0 not null;
+alter table inventory_transaction add column version bigint default 0 not null;
@@ -0,0 +1,5 @@
+-- Stock changes may also be CORRECTION (5): an edited ledger entry moving the stock by the
+-- difference, which writes no ledger entry of its own.
+
+alter table outbox_event drop constraint ck_outbox_event_reason;
+alter table outbox_event add constraint ck_outbox_event_reason check (reason between 0 and 5);
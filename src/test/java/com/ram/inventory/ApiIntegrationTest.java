@@ -0,0 +1,54 @@
+package com.ram.inventory;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Calls the API of a running application context through MockMvc and hands back the
+ * {@code data} of the {@code ApiResponse}. Subclasses bring their own
+ * {@code @SpringBootTest} and {@code @AutoConfigureMockMvc}.
+ */
+public abstract class ApiIntegrationTest {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    /**
+     * Performs the request, expecting 200.
+     */
+    protected JsonNode call(RequestBuilder request) throws Exception {
+        return call(request, status().isOk());
+    }
+
+    protected JsonNode call(RequestBuilder request, ResultMatcher... expected) throws Exception {
+        ResultActions result = mockMvc.perform(request);
+        for (ResultMatcher matcher : expected) {
+            result.andExpect(matcher);
+        }
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString()).get("data");
+    }
+
+    /**
+     * Posts the JSON body, expecting 200.
+     */
+    protected JsonNode send(String path, String body) throws Exception {
+        return send(path, body, status().isOk());
+    }
+
+    protected JsonNode send(String path, String body, ResultMatcher... expected) throws Exception {
+        return call(post(path).contentType(MediaType.APPLICATION_JSON).content(body), expected);
+    }
+}
@@ -0,0 +1,55 @@
+package com.ram.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class SchemaMigrationTest {
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private void insertProduct(UUID id, int current, int reserved) {
+		jdbcTemplate.update("insert into product (product_id, name, price, current_quantity, reserved_quantity, "
+				+ "created_at, modified_at) values (?, 'Checked', 1.00, ?, ?, current_timestamp, current_timestamp)",
+				id, current, reserved);
+	}
+
+	@Test
+	void migrations_shouldBeApplied() {
+		assertThat(flyway.info().pending()).isEmpty();
+		assertThat(flyway.info().applied()).isNotEmpty();
+	}
+
+	@Test
+	void stockConstraints_shouldRejectNegativeAndOverReservedStock() {
+		insertProduct(UUID.randomUUID(), 5, 5);
+
+		assertThatThrownBy(() -> insertProduct(UUID.randomUUID(), -1, 0))
+				.isInstanceOf(DataIntegrityViolationException.class);
+		assertThatThrownBy(() -> insertProduct(UUID.randomUUID(), 5, 6))
+				.isInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	@Test
+	void transactionQuantity_shouldNotBeNegative() {
+		UUID productId = UUID.randomUUID();
+		insertProduct(productId, 5, 0);
+
+		assertThatThrownBy(() -> jdbcTemplate.update("insert into inventory_transaction (transaction_id, product_id, "
+				+ "type, quantity, created_at) values (?, ?, 0, -3, current_timestamp)", UUID.randomUUID(), productId))
+				.isInstanceOf(DataIntegrityViolationException.class);
+	}
+}
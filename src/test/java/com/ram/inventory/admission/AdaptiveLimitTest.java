@@ -0,0 +1,75 @@
+package com.ram.inventory.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveLimitTest {
+
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void tryAcquire_shouldShed_onceTheLimitIsInFlight() {
+        AdaptiveLimit limit = new AdaptiveLimit(2, 1, 10, TARGET);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(2);
+        assertThat(limit.getAdmitted()).isEqualTo(2);
+        assertThat(limit.getShed()).isEqualTo(1);
+    }
+
+    @Test
+    void release_shouldGrowTheLimit_whileFastRequestsUseIt() {
+        AdaptiveLimit limit = new AdaptiveLimit(4, 1, 6, TARGET);
+
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j < limit.getLimit(); j++) {
+                limit.tryAcquire();
+            }
+            while (limit.getInFlight() > 0) {
+                limit.release(TARGET / 2);
+            }
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(6);
+    }
+
+    @Test
+    void release_shouldBackOff_onceForABurstOfSlowRequests() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 2, 20, TimeUnit.MILLISECONDS.toNanos(50));
+        sleep(60);
+        for (int i = 0; i < 5; i++) {
+            limit.tryAcquire();
+        }
+        for (int i = 0; i < 5; i++) {
+            limit.release(TimeUnit.SECONDS.toNanos(1));
+        }
+        assertThat(limit.getLimit()).isEqualTo(9);
+
+        for (int round = 0; round < 20; round++) {
+            sleep(60);
+            limit.tryAcquire();
+            limit.release(TimeUnit.SECONDS.toNanos(1));
+        }
+        assertThat(limit.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void constructor_shouldRejectInconsistentLimits() {
+        assertThatThrownBy(() -> new AdaptiveLimit(1, 2, 10, TARGET)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveLimit(5, 0, 10, TARGET)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
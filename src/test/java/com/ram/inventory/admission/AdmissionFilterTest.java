@@ -0,0 +1,84 @@
+package com.ram.inventory.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class AdmissionFilterTest {
+
+    private static AdmissionProperties properties() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setRetryAfter(Duration.ofSeconds(2));
+        properties.setOrders(new AdmissionProperties.Group(1, 1, 1, Duration.ofSeconds(10)));
+        return properties;
+    }
+
+    @Test
+    void group_shouldSeparateOrdersOtherWritesAndReads() {
+        assertThat(AdmissionFilter.group(new MockHttpServletRequest("POST", "/order"))).isEqualTo("orders");
+        assertThat(AdmissionFilter.group(new MockHttpServletRequest("POST", "/reservation/confirm")))
+                .isEqualTo("orders");
+        assertThat(AdmissionFilter.group(new MockHttpServletRequest("POST", "/transaction"))).isEqualTo("writes");
+        assertThat(AdmissionFilter.group(new MockHttpServletRequest("GET", "/order/get-orders"))).isEqualTo("reads");
+    }
+
+    @Test
+    void doFilter_shouldShedExcessOrders_withRetryAfter_whileReadsPass() throws Exception {
+        AdmissionFilter filter = new AdmissionFilter(properties(), new ObjectMapper());
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServlet slowOrder = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                running.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<?> first = pool.submit(() -> {
+            filter.doFilter(new MockHttpServletRequest("POST", "/order"), new MockHttpServletResponse(),
+                    new MockFilterChain(slowOrder));
+            return null;
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/order/cart"), shed, new MockFilterChain());
+        MockHttpServletResponse read = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/order/get-orders"), read, new MockFilterChain());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertThat(shed.getStatus()).isEqualTo(429);
+        assertThat(shed.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(shed.getContentAsString()).contains("\"status\":429");
+        assertThat(read.getStatus()).isEqualTo(200);
+        assertThat(filter.metrics()).filteredOn(metrics -> metrics.group().equals("orders")).singleElement()
+                .satisfies(metrics -> {
+                    assertThat(metrics.admitted()).isEqualTo(1);
+                    assertThat(metrics.shed()).isEqualTo(1);
+                    assertThat(metrics.inFlight()).isZero();
+                });
+    }
+}
@@ -0,0 +1,102 @@
+package com.ram.inventory.alert;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.ram.inventory.product.StockChangeReason;
+import com.ram.inventory.product.StockLevelChangedEvent;
+
+class LowStockAlertServiceTest {
+
+    private static LowStockAlert alert(UUID productId, int quantity) {
+        return new LowStockAlert(productId, "Item", quantity, 5, LocalDateTime.now());
+    }
+
+    private static StockLevelChangedEvent event(UUID productId, int previous, int current, Integer threshold) {
+        return new StockLevelChangedEvent(productId, "Item", previous, current, threshold, StockChangeReason.ORDER,
+                UUID.randomUUID(), BigDecimal.ONE);
+    }
+
+    @Test
+    void crossedBelowThreshold_shouldOnlyFireOnDownwardCrossing() {
+        UUID id = UUID.randomUUID();
+
+        assertThat(event(id, 6, 5, 5).crossedBelowThreshold()).isTrue();
+        assertThat(event(id, 9, 0, 5).crossedBelowThreshold()).isTrue();
+        assertThat(event(id, 5, 4, 5).crossedBelowThreshold()).isFalse();
+        assertThat(event(id, 4, 9, 5).crossedBelowThreshold()).isFalse();
+        assertThat(event(id, 9, 0, null).crossedBelowThreshold()).isFalse();
+    }
+
+    @Test
+    void onStockLevelChanged_shouldPushAlertsOnlyForCrossings() {
+        LowStockAlertService service = new LowStockAlertService(8, 60_000);
+        List<LowStockAlert> received = new CopyOnWriteArrayList<>();
+        service.register(new AlertSubscriber(received::add, 8, Runnable::run, s -> { }));
+        UUID crossing = UUID.randomUUID();
+
+        service.onStockLevelChanged(event(UUID.randomUUID(), 20, 10, 5));
+        service.onStockLevelChanged(event(crossing, 7, 3, 5));
+
+        assertThat(received).extracting(LowStockAlert::getProductId).containsExactly(crossing);
+        assertThat(received.get(0).getCurrentQuantity()).isEqualTo(3);
+        assertThat(service.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void offer_shouldCoalescePerProduct_andDropOldest_whileSinkIsBlocked() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch firstSent = new CountDownLatch(1);
+        List<LowStockAlert> received = new CopyOnWriteArrayList<>();
+        AlertSubscriber subscriber = new AlertSubscriber(alert -> {
+            firstSent.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(alert);
+        }, 2, Executors.newSingleThreadExecutor(), s -> { });
+
+        UUID first = UUID.randomUUID();
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        subscriber.offer(alert(first, 4));
+        assertThat(firstSent.await(1, TimeUnit.SECONDS)).isTrue();
+
+        subscriber.offer(alert(a, 3));
+        subscriber.offer(alert(b, 3));
+        subscriber.offer(alert(a, 1));
+        subscriber.offer(alert(c, 2));
+        release.countDown();
+
+        Thread.sleep(200);
+        assertThat(received).extracting(LowStockAlert::getProductId).containsExactly(first, b, c);
+        assertThat(subscriber.getCoalesced()).isEqualTo(1);
+        assertThat(subscriber.getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    void failingSink_shouldRemoveSubscriber() throws Exception {
+        CountDownLatch failed = new CountDownLatch(1);
+        AlertSubscriber subscriber = new AlertSubscriber(alert -> {
+            throw new IOException("closed");
+        }, 4, Runnable::run, s -> failed.countDown());
+
+        subscriber.offer(alert(UUID.randomUUID(), 1));
+
+        assertThat(failed.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,159 @@
+package com.ram.inventory.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ram.inventory.ApiIntegrationTest;
+import com.ram.inventory.inventorytransaction.InventoryTransactionType;
+
+/**
+ * Archives backdated transactions and checks they leave the table but stay visible to the
+ * history and lookup endpoints.
+ */
+@SpringBootTest(properties = "inventory.archive.segment-rows=4")
+@AutoConfigureMockMvc
+class TransactionArchivalIntegrationTest extends ApiIntegrationTest {
+
+    @TempDir
+    static Path archiveDirectory;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("inventory.archive.directory", archiveDirectory::toString);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionArchive archive;
+
+    @Autowired
+    private TransactionArchivalJob job;
+
+    private UUID createProduct() throws Exception {
+        JsonNode product = call(post("/product").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Archived\",\"price\":10,\"currentQuantity\":0}"));
+        return UUID.fromString(product.get("productId").asText());
+    }
+
+    private UUID topUp(UUID productId, int quantity) throws Exception {
+        JsonNode transaction = call(post("/transaction").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"productId\":\"" + productId + "\",\"quantity\":" + quantity + ",\"type\":\"T\"}"));
+        return UUID.fromString(transaction.get("transactionId").asText());
+    }
+
+    private int countInTable(UUID productId) {
+        return jdbcTemplate.queryForObject("select count(*) from inventory_transaction where product_id = ?",
+                Integer.class, productId);
+    }
+
+    @Test
+    @DisplayName("Old transactions move to segments and stay queryable")
+    void oldTransactionsAreArchivedAndQueryable() throws Exception {
+        UUID productId = createProduct();
+        List<UUID> old = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            UUID transactionId = topUp(productId, i);
+            jdbcTemplate.update("update inventory_transaction set created_at = ? where transaction_id = ?",
+                    LocalDateTime.of(2019, 6, i, 10, 0), transactionId);
+            old.add(transactionId);
+        }
+        UUID recent = topUp(productId, 99);
+
+        int archived = job.archiveOlderThan(LocalDateTime.of(2020, 1, 1, 0, 0));
+
+        assertThat(archived).isGreaterThanOrEqualTo(10);
+        assertThat(countInTable(productId)).isEqualTo(1);
+        assertThat(archive.pending()).isEmpty();
+        assertThat(Files.list(archiveDirectory).filter(file -> file.toString().endsWith(".seg"))).hasSizeGreaterThan(2);
+
+        JsonNode history = call(get("/transaction/history").param("productId", productId.toString()));
+        assertThat(history.size()).isEqualTo(11);
+        for (int i = 0; i < 10; i++) {
+            assertThat(history.get(i).get("transactionId").asText()).isEqualTo(old.get(i).toString());
+            assertThat(history.get(i).get("quantity").asInt()).isEqualTo(i + 1);
+        }
+        assertThat(history.get(10).get("transactionId").asText()).isEqualTo(recent.toString());
+
+        JsonNode window = call(get("/transaction/history").param("productId", productId.toString())
+                .param("from", "2019-06-03T00:00:00").param("to", "2019-06-05T00:00:00"));
+        assertThat(window.size()).isEqualTo(2);
+
+        JsonNode found = call(get("/transaction/get-transaction").param("id", old.get(3).toString()));
+        assertThat(found.get("quantity").asInt()).isEqualTo(4);
+        assertThat(found.get("product").get("productId").asText()).isEqualTo(productId.toString());
+    }
+
+    @Test
+    @DisplayName("The ledger merges archived transactions into its pages and keeps every balance")
+    void ledgerPagesIncludeArchivedTransactions() throws Exception {
+        UUID productId = createProduct();
+        UUID first = topUp(productId, 10);
+        UUID order = UUID.fromString(call(post("/order").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"productId\":\"" + productId + "\",\"quantity\":3}")).get("orderId").asText());
+        UUID second = topUp(productId, 5);
+        UUID recent = topUp(productId, 7);
+        jdbcTemplate.update("update inventory_transaction set created_at = ? where transaction_id = ?",
+                LocalDateTime.of(2019, 6, 1, 10, 0), first);
+        jdbcTemplate.update("update order set created_at = ? where order_id = ?",
+                LocalDateTime.of(2019, 6, 2, 10, 0), order);
+        jdbcTemplate.update("update inventory_transaction set created_at = ? where transaction_id = ?",
+                LocalDateTime.of(2019, 6, 3, 10, 0), second);
+
+        job.archiveOlderThan(LocalDateTime.of(2020, 1, 1, 0, 0));
+        assertThat(countInTable(productId)).isEqualTo(1);
+
+        List<String> entries = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/product/ledger").param("id", productId.toString()).param("limit", "2");
+            JsonNode page = call(cursor == null ? request : request.param("cursor", cursor));
+            page.get("entries").forEach(entry -> entries.add(entry.get("entryId").asText() + " "
+                    + entry.get("quantity").asInt() + " " + entry.get("balance").asLong()));
+            cursor = page.get("next").isNull() ? null : page.get("next").asText();
+        } while (cursor != null);
+
+        assertThat(entries).containsExactly(recent + " 7 19", second + " 5 12", order + " -3 7", first + " 10 10");
+    }
+
+    @Test
+    @DisplayName("Segments left by an interrupted run are published or discarded")
+    void pendingSegmentsAreRecovered() throws Exception {
+        UUID productId = createProduct();
+        UUID stillInTable = topUp(productId, 1);
+        Path orphan = archive.stage(List.of(new ArchivedTransaction(stillInTable, productId,
+                InventoryTransactionType.TOPUP, 1, LocalDateTime.now())));
+        UUID deleted = UUID.randomUUID();
+        Path committed = archive.stage(List.of(new ArchivedTransaction(deleted, productId,
+                InventoryTransactionType.TOPUP, 5, LocalDateTime.of(2018, 1, 1, 0, 0))));
+
+        job.archiveOlderThan(LocalDateTime.of(2000, 1, 1, 0, 0));
+
+        assertThat(orphan).doesNotExist();
+        assertThat(committed).doesNotExist();
+        assertThat(archive.findById(stillInTable)).isEmpty();
+        assertThat(archive.findById(deleted)).isPresent();
+        assertThat(countInTable(productId)).isEqualTo(1);
+    }
+}
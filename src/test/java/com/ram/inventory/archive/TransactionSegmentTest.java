@@ -0,0 +1,136 @@
+package com.ram.inventory.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.ram.inventory.inventorytransaction.InventoryTransactionType;
+
+class TransactionSegmentTest {
+
+    @TempDir
+    Path directory;
+
+    private static List<ArchivedTransaction> rows(List<UUID> products, int count, LocalDateTime start) {
+        Random random = new Random(42);
+        List<ArchivedTransaction> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new ArchivedTransaction(UUID.randomUUID(), products.get(random.nextInt(products.size())),
+                    random.nextBoolean() ? InventoryTransactionType.TOPUP : InventoryTransactionType.WITHDRAW,
+                    1 + random.nextInt(500), start.plusSeconds(i * 37L).plusNanos(123_000)));
+        }
+        return rows;
+    }
+
+    @Test
+    void writtenRowsReadBackUnchanged() throws IOException {
+        List<UUID> products = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        List<ArchivedTransaction> rows = rows(products, 5_000, LocalDateTime.of(2023, 3, 1, 8, 0));
+        Path file = directory.resolve("a.seg");
+
+        TransactionSegment.write(file, rows);
+        TransactionSegment segment = TransactionSegment.open(file);
+
+        List<ArchivedTransaction> read = new ArrayList<>();
+        segment.forEach(read::add);
+        assertThat(read).containsExactlyInAnyOrderElementsOf(rows);
+        assertThat(segment.summary().rows()).isEqualTo(5_000);
+        assertThat(segment.summary().minCreatedAt()).isEqualTo(rows.get(0).createdAt());
+        assertThat(segment.summary().maxCreatedAt()).isEqualTo(rows.get(rows.size() - 1).createdAt());
+        assertThat(segment.summary().minProductId())
+                .isEqualTo(products.stream().min(TransactionSegment::compare).orElseThrow());
+        // 16 bytes of id alone per row; everything else should compress well below that
+        assertThat(Files.size(file)).isLessThan(5_000L * 24);
+    }
+
+    @Test
+    void findByProductReturnsOnlyThatProductInTheWindow() throws IOException {
+        List<UUID> products = List.of(UUID.randomUUID(), UUID.randomUUID());
+        LocalDateTime start = LocalDateTime.of(2023, 3, 1, 8, 0);
+        List<ArchivedTransaction> rows = rows(products, 1_000, start);
+        Path file = directory.resolve("b.seg");
+        TransactionSegment.write(file, rows);
+        TransactionSegment segment = TransactionSegment.open(file);
+
+        LocalDateTime from = start.plusHours(2);
+        LocalDateTime to = start.plusHours(5);
+        List<ArchivedTransaction> expected = rows.stream()
+                .filter(row -> row.productId().equals(products.get(1)))
+                .filter(row -> !row.createdAt().isBefore(from) && row.createdAt().isBefore(to))
+                .sorted(Comparator.comparing(ArchivedTransaction::createdAt))
+                .toList();
+
+        assertThat(segment.findByProduct(products.get(1), from, to)).containsExactlyElementsOf(expected);
+        assertThat(segment.findByProduct(UUID.randomUUID(), from, to)).isEmpty();
+        assertThat(segment.findByProduct(products.get(1), start.minusDays(2), start.minusDays(1))).isEmpty();
+    }
+
+    @Test
+    void findByIdUsesBloomFilterAndFindsEveryRow() throws IOException {
+        List<ArchivedTransaction> rows = rows(List.of(UUID.randomUUID(), UUID.randomUUID()), 2_000,
+                LocalDateTime.of(2022, 1, 1, 0, 0));
+        Path file = directory.resolve("c.seg");
+        TransactionSegment.write(file, rows);
+        TransactionSegment segment = TransactionSegment.open(file);
+
+        for (ArchivedTransaction row : rows.subList(0, 200)) {
+            assertThat(segment.findById(row.transactionId())).contains(row);
+        }
+        long falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            UUID unknown = UUID.randomUUID();
+            assertThat(segment.findById(unknown)).isEmpty();
+            falsePositives += segment.mightContain(unknown) ? 1 : 0;
+        }
+        assertThat(falsePositives).isLessThan(500);
+    }
+
+    @Test
+    void readsVersionOneSegmentsWithUnsignedQuantities() throws IOException, URISyntaxException {
+        Path fixture = Path.of(getClass().getResource("/archive/v1.seg").toURI());
+        UUID first = UUID.fromString("00000000-0000-0000-0000-0000000000a1");
+        UUID second = UUID.fromString("00000000-0000-0000-0000-0000000000b2");
+        LocalDateTime start = LocalDateTime.of(2023, 3, 1, 8, 0);
+        List<ArchivedTransaction> expected = List.of(
+                new ArchivedTransaction(UUID.fromString("00000000-0000-0000-0000-000000000001"), first,
+                        InventoryTransactionType.TOPUP, 5, start),
+                new ArchivedTransaction(UUID.fromString("00000000-0000-0000-0000-000000000002"), first,
+                        InventoryTransactionType.WITHDRAW, 64, start.plusMinutes(1)),
+                new ArchivedTransaction(UUID.fromString("00000000-0000-0000-0000-000000000003"), second,
+                        InventoryTransactionType.TOPUP, 300, start.plusSeconds(90).plusNanos(123_000)));
+
+        TransactionSegment segment = TransactionSegment.open(fixture);
+
+        List<ArchivedTransaction> read = new ArrayList<>();
+        segment.forEach(read::add);
+        assertThat(read).containsExactlyElementsOf(expected);
+        assertThat(segment.findByProduct(first, start, start.plusHours(1)))
+                .containsExactlyElementsOf(expected.subList(0, 2));
+        assertThat(segment.findById(expected.get(2).transactionId())).contains(expected.get(2));
+    }
+
+    @Test
+    void writesTheCurrentVersionWithSignedQuantities() throws IOException {
+        UUID product = UUID.randomUUID();
+        ArchivedTransaction adjustment = new ArchivedTransaction(UUID.randomUUID(), product,
+                InventoryTransactionType.ADJUSTMENT, -7, LocalDateTime.of(2023, 3, 1, 8, 0));
+        Path file = directory.resolve("d.seg");
+        TransactionSegment.write(file, List.of(adjustment));
+
+        assertThat(ByteBuffer.wrap(Files.readAllBytes(file)).getInt(4)).isEqualTo(TransactionSegment.VERSION);
+        assertThat(TransactionSegment.open(file).findById(adjustment.transactionId())).contains(adjustment);
+    }
+}
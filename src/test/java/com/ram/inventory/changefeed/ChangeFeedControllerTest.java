@@ -0,0 +1,70 @@
+package com.ram.inventory.changefeed;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@WebMvcTest(ChangeFeedController.class)
+class ChangeFeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ChangeFeedService changeFeedService;
+
+    private ChangeBatch batch() {
+        ChangeRecord record = new ChangeRecord(5, ChangeType.STOCK_ORDERED, UUID.randomUUID(), UUID.randomUUID(), -1,
+                9, LocalDateTime.now());
+        return new ChangeBatch("epoch", List.of(record), 5, false);
+    }
+
+    @Test
+    @DisplayName(value = "get changes should return changes after the cursor")
+    void getChanges() throws Exception {
+        Mockito.when(changeFeedService.getChanges(4, 100)).thenReturn(batch());
+
+        mockMvc.perform(get("/changes").param("since", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Changes Found"))
+                .andExpect(jsonPath("$.data.changes[0].sequence").value(5))
+                .andExpect(jsonPath("$.data.nextSince").value(5));
+    }
+
+    @Test
+    @DisplayName(value = "poll changes should complete once changes are available")
+    @SuppressWarnings("unchecked")
+    void pollChanges() throws Exception {
+        Mockito.when(changeFeedService.awaitChanges(anyLong(), anyInt(), any())).thenAnswer(invocation -> {
+            invocation.getArgument(2, Consumer.class).accept(batch());
+            return (Runnable) () -> { };
+        });
+
+        MvcResult result = mockMvc.perform(get("/changes/poll").param("since", "4"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.changes[0].type").value("STOCK_ORDERED"));
+    }
+}
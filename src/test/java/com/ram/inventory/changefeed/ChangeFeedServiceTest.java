@@ -0,0 +1,92 @@
+package com.ram.inventory.changefeed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.product.ProductChangedEvent;
+import com.ram.inventory.product.StockChangeReason;
+import com.ram.inventory.product.StockLevelChangedEvent;
+
+class ChangeFeedServiceTest {
+
+    private ChangeFeedService changeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        changeFeedService = new ChangeFeedService(8);
+    }
+
+    private void order(UUID productId, int previous, int current) {
+        changeFeedService.onStockLevelChanged(new StockLevelChangedEvent(productId, "Item", previous, current, null,
+                StockChangeReason.ORDER, UUID.randomUUID(), BigDecimal.ONE));
+    }
+
+    @Test
+    void getChanges_shouldReturnRecordsInSequenceOrder_andResumeFromCursor() {
+        UUID productId = UUID.randomUUID();
+        changeFeedService.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, productId));
+        order(productId, 10, 7);
+        order(productId, 7, 6);
+
+        ChangeBatch first = changeFeedService.getChanges(0, 2);
+        assertThat(first.getChanges()).extracting(ChangeRecord::getType)
+                .containsExactly(ChangeType.PRODUCT_CREATED, ChangeType.STOCK_ORDERED);
+        assertThat(first.getChanges().get(1).getQuantityDelta()).isEqualTo(-3);
+        assertThat(first.getNextSince()).isEqualTo(2);
+        assertThat(first.isHasMore()).isTrue();
+
+        ChangeBatch second = changeFeedService.getChanges(first.getNextSince(), 2);
+        assertThat(second.getChanges()).extracting(ChangeRecord::getSequence).containsExactly(3L);
+        assertThat(second.getChanges().get(0).getCurrentQuantity()).isEqualTo(6);
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getEpoch()).isEqualTo(first.getEpoch());
+
+        ChangeBatch empty = changeFeedService.getChanges(second.getNextSince(), 2);
+        assertThat(empty.getChanges()).isEmpty();
+        assertThat(empty.getNextSince()).isEqualTo(3);
+    }
+
+    @Test
+    void getChanges_shouldRejectCursorsOlderThanTheRing() {
+        UUID productId = UUID.randomUUID();
+        for (int i = 0; i < 12; i++) {
+            order(productId, 100 - i, 99 - i);
+        }
+
+        assertThat(changeFeedService.getChanges(4, 100).getChanges()).hasSize(8);
+        assertThatThrownBy(() -> changeFeedService.getChanges(3, 100))
+                .isInstanceOf(ApiException.class)
+                .extracting("status").isEqualTo(410);
+    }
+
+    @Test
+    void awaitChanges_shouldCompleteWhenNextChangeIsAppended() {
+        AtomicReference<ChangeBatch> received = new AtomicReference<>();
+        changeFeedService.awaitChanges(0, 10, received::set);
+        assertThat(received.get()).isNull();
+
+        changeFeedService.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.DELETED, UUID.randomUUID()));
+
+        assertThat(received.get().getChanges()).extracting(ChangeRecord::getType)
+                .containsExactly(ChangeType.PRODUCT_DELETED);
+    }
+
+    @Test
+    void awaitChanges_shouldNotDeliverAfterCancel() {
+        AtomicReference<ChangeBatch> received = new AtomicReference<>();
+        Runnable cancel = changeFeedService.awaitChanges(0, 10, received::set);
+
+        cancel.run();
+        changeFeedService.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, UUID.randomUUID()));
+
+        assertThat(received.get()).isNull();
+    }
+}
@@ -0,0 +1,74 @@
+package com.ram.inventory.exception;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of rejecting an order for lack of stock, thrown {@code depth} frames below the
+ * catch site the way a request handler sits below the servlet stack. Compares the
+ * stackless {@link InsufficientStockException} with the exceptions it replaced.
+ * <p>
+ * Run with {@code scripts/benchmark.sh RejectionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectionBenchmark {
+
+    @Param({ "10", "100" })
+    int depth;
+
+    private final UUID productId = UUID.randomUUID();
+
+    @Benchmark
+    public Object bareException() {
+        try {
+            return reject(depth, 0);
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object apiException() {
+        try {
+            return reject(depth, 1);
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object insufficientStockException() {
+        try {
+            return reject(depth, 2);
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    private Object reject(int remaining, int kind) throws Exception {
+        if (remaining > 0) {
+            return reject(remaining - 1, kind);
+        }
+        throw switch (kind) {
+            case 0 -> new Exception();
+            case 1 -> new ApiException("Insufficient stock for product " + productId, 409);
+            default -> new InsufficientStockException(productId, 5, 2);
+        };
+    }
+}
@@ -1,15 +1,24 @@
 package com.ram.inventory.inventorytransaction;
 
+import com.ram.inventory.archive.ArchivedTransaction;
+import com.ram.inventory.archive.TransactionArchive;
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.exception.InsufficientStockException;
 import com.ram.inventory.exception.ResourceNotFoundException;
 import com.ram.inventory.product.Product;
 import com.ram.inventory.product.ProductRepository;
+import com.ram.inventory.product.StockWriteCombiner;
+import com.ram.inventory.shard.ShardRouter;
+import com.ram.inventory.util.PartialUpdates;
 import com.ram.inventory.util.PaginationResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,6 +31,7 @@ class InventoryTransactionServiceTest {
 
     private InventoryTransactionRepository inventoryTransactionRepository;
     private ProductRepository productRepository;
+    private TransactionArchive transactionArchive;
     private ModelMapper modelMapper;
     private InventoryTransactionService inventoryTransactionService;
 
@@ -29,9 +39,11 @@ class InventoryTransactionServiceTest {
     void setUp() {
         inventoryTransactionRepository = mock(InventoryTransactionRepository.class);
         productRepository = mock(ProductRepository.class);
+        transactionArchive = mock(TransactionArchive.class);
         modelMapper = new ModelMapper();
         inventoryTransactionService = new InventoryTransactionService(inventoryTransactionRepository, productRepository,
-                modelMapper);
+                modelMapper, mock(ApplicationEventPublisher.class), ShardRouter.single(), transactionArchive,
+                new StockWriteCombiner(productRepository, ShardRouter.single(), 0, 1), mock(PartialUpdates.class));
     }
 
     @Test
@@ -49,7 +61,7 @@ class InventoryTransactionServiceTest {
         request.setType("W");
         request.setQuantity(5);
 
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.findByIdForUpdate(productId)).thenReturn(Optional.of(product));
         when(inventoryTransactionRepository.save(any(InventoryTransaction.class)))
                 .thenAnswer(inv -> inv.getArgument(0));
         when(productRepository.save(product)).thenReturn(product);
@@ -78,7 +90,7 @@ class InventoryTransactionServiceTest {
         request.setType("T");
         request.setQuantity(5);
 
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.findByIdForUpdate(productId)).thenReturn(Optional.of(product));
         when(inventoryTransactionRepository.save(any(InventoryTransaction.class)))
                 .thenAnswer(inv -> inv.getArgument(0));
         when(productRepository.save(product)).thenReturn(product);
@@ -102,7 +114,7 @@ class InventoryTransactionServiceTest {
         Product product = new Product();
         product.setCurrentQuantity(10);
 
-        when(productRepository.findById(any())).thenReturn(Optional.of(product));
+        when(productRepository.findByIdForUpdate(any())).thenReturn(Optional.of(product));
 
         assertThatThrownBy(() -> inventoryTransactionService.createInventoryTransaction(request))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -203,19 +215,99 @@ class InventoryTransactionServiceTest {
     @Test
     void deleteTransaction_shouldCallDeleteById() throws Exception {
         UUID id = UUID.randomUUID();
-        doNothing().when(inventoryTransactionRepository).deleteById(id);
+        when(inventoryTransactionRepository.deleteAllByIdIn(List.of(id))).thenReturn(1);
 
         inventoryTransactionService.deleteTransaction(id);
 
-        verify(inventoryTransactionRepository).deleteById(id);
+        verify(inventoryTransactionRepository).deleteAllByIdIn(List.of(id));
     }
 
     @Test
     void deleteTransaction_shouldThrow_whenDeleteFails() {
         UUID id = UUID.randomUUID();
-        doThrow(new RuntimeException("fail")).when(inventoryTransactionRepository).deleteById(id);
+        doThrow(new RuntimeException("fail")).when(inventoryTransactionRepository).deleteAllByIdIn(List.of(id));
 
         assertThatThrownBy(() -> inventoryTransactionService.deleteTransaction(id))
                 .isInstanceOf(Exception.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteTransaction_shouldThrowNotFound_whenNothingDeleted() {
+        UUID id = UUID.randomUUID();
+
+        assertThatThrownBy(() -> inventoryTransactionService.deleteTransaction(id))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Transaction not found");
+    }
+
+    @Test
+    void createInventoryTransaction_shouldRejectWithdrawal_whenStockIsInsufficient() {
+        UUID productId = UUID.randomUUID();
+        Product product = new Product();
+        product.setProductId(productId);
+        product.setCurrentQuantity(10);
+        product.setReservedQuantity(4);
+
+        InventoryTransactionRequest request = new InventoryTransactionRequest();
+        request.setProductId(productId);
+        request.setType("W");
+        request.setQuantity(7);
+
+        when(productRepository.findByIdForUpdate(productId)).thenReturn(Optional.of(product));
+
+        assertThatThrownBy(() -> inventoryTransactionService.createInventoryTransaction(request))
+                .isInstanceOfSatisfying(InsufficientStockException.class, e -> {
+                    assertThat(e.getShortage()).isEqualTo(new InsufficientStockException.Shortage(productId, 7, 6));
+                    assertThat(e.getStackTrace()).isEmpty();
+                });
+        assertThat(product.getCurrentQuantity()).isEqualTo(10);
+        verify(inventoryTransactionRepository, never()).save(any(InventoryTransaction.class));
+    }
+
+    @Test
+    void getTransaction_shouldFallBackToArchive_whenNotInDatabase() throws Exception {
+        UUID id = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        Product product = new Product();
+        product.setProductId(productId);
+        when(inventoryTransactionRepository.findById(id)).thenReturn(Optional.empty());
+        when(transactionArchive.findById(id)).thenReturn(Optional.of(new ArchivedTransaction(id, productId,
+                InventoryTransactionType.TOPUP, 4, LocalDateTime.of(2020, 1, 1, 12, 0))));
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+
+        InventoryTransactionDTO dto = inventoryTransactionService.getTransaction(id);
+
+        assertThat(dto.getTransactionId()).isEqualTo(id);
+        assertThat(dto.getProduct()).isSameAs(product);
+        assertThat(dto.getQuantity()).isEqualTo(4);
+    }
+
+    @Test
+    void getHistory_shouldMergeArchivedAndHotRowsByCreationTime() {
+        UUID productId = UUID.randomUUID();
+        Product product = new Product();
+        product.setProductId(productId);
+        LocalDateTime from = LocalDateTime.of(2020, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 1, 0, 0);
+        ArchivedTransaction archived = new ArchivedTransaction(UUID.randomUUID(), productId,
+                InventoryTransactionType.WITHDRAW, 2, LocalDateTime.of(2021, 1, 1, 0, 0));
+        InventoryTransaction hot = InventoryTransaction.builder().transactionId(UUID.randomUUID()).product(product)
+                .type(InventoryTransactionType.TOPUP).quantity(7).createdAt(LocalDateTime.of(2025, 1, 1, 0, 0)).build();
+        when(transactionArchive.findByProduct(productId, from, to)).thenReturn(List.of(archived));
+        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        when(inventoryTransactionRepository.findHistory(productId, from, to, Limit.of(10))).thenReturn(List.of(hot));
+
+        List<InventoryTransactionDTO> history = inventoryTransactionService.getHistory(productId, from, to, 10);
+
+        assertThat(history).extracting(InventoryTransactionDTO::getQuantity).containsExactly(2, 7);
+        assertThat(history.get(0).getProduct().getProductId()).isEqualTo(productId);
+    }
+
+    @Test
+    void getHistory_shouldRejectOversizedLimit() {
+        assertThatThrownBy(() -> inventoryTransactionService.getHistory(UUID.randomUUID(),
+                LocalDateTime.of(2020, 1, 1, 0, 0), LocalDateTime.of(2021, 1, 1, 0, 0),
+                InventoryTransactionService.MAX_HISTORY + 1))
+                .isInstanceOf(ApiException.class);
+    }
+}
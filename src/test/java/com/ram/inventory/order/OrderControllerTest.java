@@ -3,12 +3,14 @@ package com.ram.inventory.order;
 import static org.mockito.ArgumentMatchers.any;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -17,15 +19,18 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.exception.InsufficientStockException;
 import com.ram.inventory.product.Product;
 import com.ram.inventory.util.PaginationResponse;
 
-@WebMvcTest(OrderController.class)
+@WebMvcTest(controllers = OrderController.class, properties = "inventory.admission.retry-after=2s")
 class OrderControllerTest {
 
     @Autowired
@@ -34,6 +39,12 @@ class OrderControllerTest {
     @MockitoBean
     private OrderService orderService;
 
+    @MockitoBean
+    private TopProductsService topProductsService;
+
+    @MockitoBean
+    private OrderIntake orderIntake;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -66,6 +77,55 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.data.orderId").value(orderDTOId.toString()));
     }
 
+    @Test
+    @DisplayName(value = "create order should return 409 with the available quantity when stock is short")
+    void createOrderInsufficientStock() throws Exception {
+        UUID productId = UUID.randomUUID();
+        OrderRequest request = new OrderRequest();
+        request.setProductId(productId);
+        request.setQuantity(5);
+
+        Mockito.when(orderService.createOrder(any(OrderRequest.class)))
+                .thenThrow(new InsufficientStockException(productId, 5, 2));
+
+        mockMvc.perform(post("/order")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.data.productId").value(productId.toString()))
+                .andExpect(jsonPath("$.data.requested").value(5))
+                .andExpect(jsonPath("$.data.available").value(2));
+    }
+
+    @Test
+    @DisplayName(value = "create cart order should create a multi-line order")
+    void createCartOrder() throws Exception {
+        UUID orderDTOId = UUID.randomUUID();
+        CartOrderRequest.Line line = new CartOrderRequest.Line();
+        line.setProductId(UUID.randomUUID());
+        line.setQuantity(2);
+        CartOrderRequest request = new CartOrderRequest();
+        request.setLines(Collections.singletonList(line));
+
+        OrderLineDTO lineDTO = new OrderLineDTO();
+        lineDTO.setQuantity(2);
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setOrderId(orderDTOId);
+        orderDTO.setQuantity(2);
+        orderDTO.setLines(Collections.singletonList(lineDTO));
+
+        Mockito.when(orderService.createCartOrder(any(CartOrderRequest.class))).thenReturn(orderDTO);
+
+        mockMvc.perform(post("/order/cart")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Order Created"))
+                .andExpect(jsonPath("$.data.orderId").value(orderDTOId.toString()))
+                .andExpect(jsonPath("$.data.lines[0].quantity").value(2));
+    }
+
     @Test
     @DisplayName(value = "get order should return order based on id")
     void getOrder() throws Exception {
@@ -157,4 +217,58 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.status").value(200))
                 .andExpect(jsonPath("$.message").value("Order Deleted"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName(value = "top products should parse the window and return the best sellers")
+    void getTopProducts() throws Exception {
+        UUID productId = UUID.randomUUID();
+        Mockito.when(topProductsService.getTopProducts("24h", 10))
+                .thenReturn(List.of(new TopProduct(productId, 42, 0)));
+
+        mockMvc.perform(get("/order/top-products").param("window", "24h").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Top Products Found"))
+                .andExpect(jsonPath("$.data[0].productId").value(productId.toString()))
+                .andExpect(jsonPath("$.data[0].unitsSold").value(42));
+    }
+
+    @Test
+    @DisplayName(value = "async order should be accepted with a ticket to poll")
+    void submitOrder() throws Exception {
+        UUID ticket = UUID.randomUUID();
+        OrderRequest request = new OrderRequest();
+        request.setProductId(UUID.randomUUID());
+        request.setQuantity(1);
+        Mockito.when(orderIntake.submit(any(OrderRequest.class))).thenReturn(OrderTicket.pending(ticket));
+
+        mockMvc.perform(post("/order").param("async", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.message").value("Order Accepted"))
+                .andExpect(jsonPath("$.data.ticket").value(ticket.toString()))
+                .andExpect(jsonPath("$.data.status").value("PENDING"));
+
+        Mockito.when(orderIntake.submit(any(OrderRequest.class)))
+                .thenThrow(new ApiException("Too many orders queued, please retry later", 429));
+        mockMvc.perform(post("/order").param("async", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+    }
+
+    @Test
+    @DisplayName(value = "order status should return the outcome of a ticket")
+    void getOrderStatus() throws Exception {
+        UUID ticket = UUID.randomUUID();
+        Mockito.when(orderIntake.getStatus(ticket))
+                .thenReturn(OrderTicket.pending(ticket).rejected("Insufficient stock"));
+
+        mockMvc.perform(get("/order/status").param("ticket", ticket.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Order Status Found"))
+                .andExpect(jsonPath("$.data.status").value("REJECTED"))
+                .andExpect(jsonPath("$.data.message").value("Insufficient stock"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.ram.inventory.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderIntakeIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private JsonNode data(String body) throws Exception {
+        return objectMapper.readTree(body).get("data");
+    }
+
+    private JsonNode awaitDecided(String ticket) throws Exception {
+        for (int attempt = 0; attempt < 500; attempt++) {
+            JsonNode status = data(mockMvc.perform(get("/order/status").param("ticket", ticket))
+                    .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+            if (!status.get("status").asText().equals("PENDING")) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Ticket " + ticket + " still pending");
+    }
+
+    @Test
+    @DisplayName("async orders should be placed in the background until the stock runs out")
+    void placesQueuedOrders() throws Exception {
+        String productId = data(mockMvc.perform(post("/product").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Queued\",\"price\":4,\"currentQuantity\":10}"))
+                .andReturn().getResponse().getContentAsString()).get("productId").asText();
+
+        List<String> tickets = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            tickets.add(data(mockMvc.perform(post("/order").param("async", "true")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"productId\":\"" + productId + "\",\"quantity\":2}"))
+                    .andExpect(status().isAccepted()).andReturn().getResponse().getContentAsString())
+                    .get("ticket").asText());
+        }
+
+        int placed = 0;
+        for (String ticket : tickets) {
+            JsonNode outcome = awaitDecided(ticket);
+            if (outcome.get("status").asText().equals("PLACED")) {
+                assertThat(outcome.get("order").get("quantity").asInt()).isEqualTo(2);
+                placed++;
+            }
+        }
+        assertThat(placed).isEqualTo(5);
+        JsonNode product = data(mockMvc.perform(get("/product/get-product").param("id", productId))
+                .andReturn().getResponse().getContentAsString());
+        assertThat(product.get("currentQuantity").asInt()).isZero();
+    }
+}
@@ -0,0 +1,118 @@
+package com.ram.inventory.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.exception.InsufficientStockException;
+import com.ram.inventory.exception.ResourceNotFoundException;
+import com.ram.inventory.shard.ShardRouter;
+
+class OrderIntakeTest {
+
+    private OrderService orderService;
+    private OrderIntake orderIntake;
+
+    @BeforeEach
+    void setUp() {
+        orderService = mock(OrderService.class);
+        orderIntake = new OrderIntake(orderService, ShardRouter.single(), 1, 2, 10, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderIntake.stop();
+    }
+
+    private static OrderRequest request(UUID productId, int quantity) {
+        OrderRequest request = new OrderRequest();
+        request.setProductId(productId);
+        request.setQuantity(quantity);
+        return request;
+    }
+
+    private OrderTicket awaitDecided(UUID ticket) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        OrderTicket status = orderIntake.getStatus(ticket);
+        while (status.status() == OrderTicket.Status.PENDING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            status = orderIntake.getStatus(ticket);
+        }
+        return status;
+    }
+
+    @Test
+    void submit_shouldPlaceQueuedOrders_andReportEachOutcome() throws Exception {
+        UUID productId = UUID.randomUUID();
+        OrderDTO order = new OrderDTO();
+        order.setOrderId(UUID.randomUUID());
+        when(orderService.placeQueuedOrders(anyInt(), anyList())).thenAnswer(invocation -> {
+            List<OrderRequest> requests = invocation.getArgument(1);
+            List<Placement> placements = new ArrayList<>();
+            for (OrderRequest request : requests) {
+                placements.add(request.getQuantity() > 5
+                        ? Placement.refused(new InsufficientStockException(productId, request.getQuantity(), 5))
+                        : Placement.placed(order));
+            }
+            return placements;
+        });
+        orderIntake.start();
+
+        OrderTicket placed = orderIntake.submit(request(productId, 2));
+        OrderTicket refused = orderIntake.submit(request(productId, 9));
+
+        assertThat(placed.status()).isEqualTo(OrderTicket.Status.PENDING);
+        assertThat(awaitDecided(placed.ticket()).order().getOrderId()).isEqualTo(order.getOrderId());
+        OrderTicket rejected = awaitDecided(refused.ticket());
+        assertThat(rejected.status()).isEqualTo(OrderTicket.Status.REJECTED);
+        assertThat(rejected.message()).isEqualTo("Insufficient stock for product " + productId);
+    }
+
+    @Test
+    void submit_shouldPushBackWith429_whenThePartitionIsFull() throws Exception {
+        CountDownLatch placing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.placeQueuedOrders(anyInt(), anyList())).thenAnswer(invocation -> {
+            placing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            List<OrderRequest> requests = invocation.getArgument(1);
+            return requests.stream().map(request -> Placement.placed(new OrderDTO())).toList();
+        });
+        orderIntake.start();
+        UUID productId = UUID.randomUUID();
+
+        OrderTicket first = orderIntake.submit(request(productId, 1));
+        assertThat(placing.await(5, TimeUnit.SECONDS)).isTrue();
+        orderIntake.submit(request(productId, 1));
+        OrderTicket last = orderIntake.submit(request(productId, 1));
+
+        assertThatThrownBy(() -> orderIntake.submit(request(productId, 1)))
+                .isInstanceOfSatisfying(ApiException.class, e -> assertThat(e.getStatus()).isEqualTo(429));
+        release.countDown();
+        assertThat(awaitDecided(first.ticket()).status()).isEqualTo(OrderTicket.Status.PLACED);
+        assertThat(awaitDecided(last.ticket()).status()).isEqualTo(OrderTicket.Status.PLACED);
+    }
+
+    @Test
+    void submit_shouldRejectInvalidRequests_andUnknownTickets() {
+        assertThatThrownBy(() -> orderIntake.submit(request(UUID.randomUUID(), 0)))
+                .isInstanceOfSatisfying(ApiException.class, e -> assertThat(e.getStatus()).isEqualTo(400));
+        assertThatThrownBy(() -> orderIntake.getStatus(UUID.randomUUID()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
@@ -0,0 +1,130 @@
+package com.ram.inventory.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.product.Product;
+import com.ram.inventory.product.ProductRepository;
+
+/**
+ * Stress test for multi-line orders: many threads place carts over the same products,
+ * listing the lines in random order. Ordered locking must prevent deadlocks, and the
+ * all-or-nothing semantics must keep stock equal to what was actually sold.
+ */
+@SpringBootTest
+class OrderServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int CARTS_PER_THREAD = 40;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private List<UUID> createProducts(int count, int quantity) {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setName("Stress " + i);
+            product.setPrice(BigDecimal.TEN);
+            product.setCurrentQuantity(quantity);
+            ids.add(productRepository.save(product).getProductId());
+        }
+        return ids;
+    }
+
+    private CartOrderRequest randomCart(List<UUID> productIds) {
+        List<UUID> shuffled = new ArrayList<>(productIds);
+        Collections.shuffle(shuffled);
+        int lineCount = ThreadLocalRandom.current().nextInt(2, 6);
+        List<CartOrderRequest.Line> lines = new ArrayList<>();
+        for (UUID productId : shuffled.subList(0, lineCount)) {
+            CartOrderRequest.Line line = new CartOrderRequest.Line();
+            line.setProductId(productId);
+            line.setQuantity(ThreadLocalRandom.current().nextInt(1, 4));
+            lines.add(line);
+        }
+        CartOrderRequest request = new CartOrderRequest();
+        request.setLines(lines);
+        return request;
+    }
+
+    private Map<UUID, Integer> runCarts(List<UUID> productIds, AtomicInteger rejected) throws Exception {
+        Map<UUID, Integer> sold = new ConcurrentHashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < CARTS_PER_THREAD; i++) {
+                    CartOrderRequest cart = randomCart(productIds);
+                    try {
+                        orderService.createCartOrder(cart);
+                        cart.getLines().forEach(line -> sold.merge(line.getProductId(), line.getQuantity(),
+                                Integer::sum));
+                    } catch (ApiException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        return sold;
+    }
+
+    @Test
+    void overlappingCarts_shouldNeverDeadlock_andKeepStockConsistent() throws Exception {
+        List<UUID> productIds = createProducts(8, 10_000);
+        AtomicInteger rejected = new AtomicInteger();
+
+        Map<UUID, Integer> sold = runCarts(productIds, rejected);
+
+        assertThat(rejected.get()).isZero();
+        for (UUID productId : productIds) {
+            int remaining = productRepository.findById(productId).orElseThrow().getCurrentQuantity();
+            assertThat(remaining).isEqualTo(10_000 - sold.getOrDefault(productId, 0));
+        }
+    }
+
+    @Test
+    void overlappingCarts_shouldNeverOversell_whenStockRunsOut() throws Exception {
+        List<UUID> productIds = createProducts(6, 40);
+        AtomicInteger rejected = new AtomicInteger();
+
+        Map<UUID, Integer> sold = runCarts(productIds, rejected);
+
+        assertThat(rejected.get()).isPositive();
+        for (UUID productId : productIds) {
+            int remaining = productRepository.findById(productId).orElseThrow().getCurrentQuantity();
+            assertThat(remaining).isGreaterThanOrEqualTo(0);
+            assertThat(remaining).isEqualTo(40 - sold.getOrDefault(productId, 0));
+        }
+    }
+}
@@ -3,33 +3,49 @@ package com.ram.inventory.order;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.exception.InsufficientStockException;
 import com.ram.inventory.exception.ResourceNotFoundException;
 import com.ram.inventory.product.Product;
 import com.ram.inventory.product.ProductRepository;
+import com.ram.inventory.product.StockWriteCombiner;
+import com.ram.inventory.product.StockChangeReason;
+import com.ram.inventory.product.StockLevelChangedEvent;
+import com.ram.inventory.shard.ShardRouter;
+import com.ram.inventory.util.PartialUpdates;
 import com.ram.inventory.util.PaginationResponse;
+import com.ram.inventory.warehouse.Allocation;
+import com.ram.inventory.warehouse.StockAllocator;
 
 class OrderServiceTest {
 
     private OrderRepository orderRepository;
     private ProductRepository productRepository;
     private ModelMapper modelMapper;
+    private ApplicationEventPublisher eventPublisher;
+    private StockAllocator stockAllocator;
     private OrderService orderService;
 
     @BeforeEach
@@ -37,7 +53,11 @@ class OrderServiceTest {
         orderRepository = mock(OrderRepository.class);
         productRepository = mock(ProductRepository.class);
         modelMapper = new ModelMapper();
-        orderService = new OrderService(orderRepository, modelMapper, productRepository);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        stockAllocator = mock(StockAllocator.class);
+        orderService = new OrderService(orderRepository, modelMapper, productRepository, eventPublisher,
+                ShardRouter.single(), stockAllocator,
+                new StockWriteCombiner(productRepository, ShardRouter.single(), 0, 1), mock(PartialUpdates.class));
     }
 
     @Test
@@ -53,7 +73,7 @@ class OrderServiceTest {
         request.setProductId(productId);
         request.setQuantity(5);
 
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.findByIdForUpdate(productId)).thenReturn(Optional.of(product));
         when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
 
         OrderDTO result = orderService.createOrder(request);
@@ -62,6 +82,9 @@ class OrderServiceTest {
         assertThat(result.getQuantity()).isEqualTo(5);
         assertThat(result.getPrice()).isEqualTo(BigDecimal.valueOf(200));
         verify(productRepository).save(product);
+        verify(eventPublisher).publishEvent(
+                new StockLevelChangedEvent(productId, "Phone", 10, 5, null, StockChangeReason.ORDER, null,
+                        BigDecimal.valueOf(200)));
     }
 
     @Test
@@ -77,10 +100,112 @@ class OrderServiceTest {
         request.setProductId(productId);
         request.setQuantity(5);
 
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.findByIdForUpdate(productId)).thenReturn(Optional.of(product));
 
         assertThatThrownBy(() -> orderService.createOrder(request))
-                .isInstanceOf(Exception.class);
+                .isInstanceOfSatisfying(InsufficientStockException.class, e -> {
+                    assertThat(e.getStatus()).isEqualTo(409);
+                    assertThat(e.getShortage().available()).isEqualTo(2);
+                    assertThat(e.getShortage().requested()).isEqualTo(5);
+                });
+    }
+
+    @Test
+    void createOrder_shouldTakeFromWarehouses_whenProductIsLocated() {
+        UUID productId = UUID.randomUUID();
+        UUID warehouseId = UUID.randomUUID();
+        Product product = new Product();
+        product.setProductId(productId);
+        product.setName("Phone");
+        product.setPrice(BigDecimal.valueOf(200));
+        product.setCurrentQuantity(5);
+
+        OrderRequest request = new OrderRequest();
+        request.setProductId(productId);
+        request.setQuantity(5);
+
+        when(stockAllocator.isLocated(productId)).thenReturn(true);
+        when(stockAllocator.allocate(productId, 5, null, null, null))
+                .thenReturn(List.of(new Allocation(warehouseId, 5)));
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        OrderDTO result = orderService.createOrder(request);
+
+        assertThat(result.getAllocations()).singleElement().satisfies(allocation -> {
+            assertThat(allocation.getWarehouseId()).isEqualTo(warehouseId);
+            assertThat(allocation.getQuantity()).isEqualTo(5);
+        });
+        verify(productRepository, never()).findByIdForUpdate(any());
+        verify(productRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(
+                new StockLevelChangedEvent(productId, "Phone", 10, 5, null, StockChangeReason.ORDER, null,
+                        BigDecimal.valueOf(200)));
+    }
+
+    private CartOrderRequest cart(Object... productIdAndQuantity) {
+        CartOrderRequest request = new CartOrderRequest();
+        List<CartOrderRequest.Line> lines = new ArrayList<>();
+        for (int i = 0; i < productIdAndQuantity.length; i += 2) {
+            CartOrderRequest.Line line = new CartOrderRequest.Line();
+            line.setProductId((UUID) productIdAndQuantity[i]);
+            line.setQuantity((Integer) productIdAndQuantity[i + 1]);
+            lines.add(line);
+        }
+        request.setLines(lines);
+        return request;
+    }
+
+    private Product product(int quantity) {
+        Product product = new Product();
+        product.setProductId(UUID.randomUUID());
+        product.setPrice(BigDecimal.valueOf(10));
+        product.setCurrentQuantity(quantity);
+        return product;
+    }
+
+    @Test
+    void createCartOrder_shouldFillAllLines_andMergeDuplicates() {
+        Product phone = product(10);
+        Product cable = product(5);
+        CartOrderRequest request = cart(phone.getProductId(), 2, cable.getProductId(), 1, phone.getProductId(), 3);
+
+        when(productRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(phone, cable));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        OrderDTO result = orderService.createCartOrder(request);
+
+        assertThat(result.getQuantity()).isEqualTo(6);
+        assertThat(result.getLines()).hasSize(2);
+        assertThat(phone.getCurrentQuantity()).isEqualTo(5);
+        assertThat(cable.getCurrentQuantity()).isEqualTo(4);
+        verify(productRepository).findAllByIdForUpdate(Set.of(phone.getProductId(), cable.getProductId()));
+    }
+
+    @Test
+    void createCartOrder_shouldChangeNothing_whenAnyLineIsShort() {
+        Product phone = product(10);
+        Product cable = product(1);
+        CartOrderRequest request = cart(phone.getProductId(), 2, cable.getProductId(), 2);
+
+        when(productRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(phone, cable));
+
+        assertThatThrownBy(() -> orderService.createCartOrder(request))
+                .isInstanceOf(ApiException.class);
+        assertThat(phone.getCurrentQuantity()).isEqualTo(10);
+        assertThat(cable.getCurrentQuantity()).isEqualTo(1);
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void createCartOrder_shouldThrow_whenProductMissing() {
+        Product phone = product(10);
+        CartOrderRequest request = cart(phone.getProductId(), 2, UUID.randomUUID(), 1);
+
+        when(productRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(phone));
+
+        assertThatThrownBy(() -> orderService.createCartOrder(request))
+                .isInstanceOf(ResourceNotFoundException.class);
     }
 
     @Test
@@ -0,0 +1,84 @@
+package com.ram.inventory.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.product.StockChangeReason;
+import com.ram.inventory.product.StockLevelChangedEvent;
+
+class TopProductsServiceTest {
+
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    private static final long NOW = 1_000 * HOUR + 30 * MINUTE;
+
+    private TopProductsService topProductsService;
+
+    private final UUID cable = UUID.randomUUID();
+    private final UUID lamp = UUID.randomUUID();
+    private final UUID desk = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        topProductsService = new TopProductsService(100);
+    }
+
+    @Test
+    void getTopProducts_shouldRankBySalesWithinWindow() {
+        topProductsService.record(cable, 5, NOW - 2 * MINUTE);
+        topProductsService.record(lamp, 3, NOW - 10 * MINUTE);
+        topProductsService.record(lamp, 4, NOW - 20 * MINUTE);
+        topProductsService.record(desk, 50, NOW - 3 * HOUR);
+
+        assertThat(topProductsService.getTopProducts(Duration.ofMinutes(5), 10, NOW))
+                .containsExactly(new TopProduct(cable, 5, 0));
+        assertThat(topProductsService.getTopProducts(Duration.ofHours(1), 10, NOW))
+                .containsExactly(new TopProduct(lamp, 7, 0), new TopProduct(cable, 5, 0));
+        assertThat(topProductsService.getTopProducts(Duration.ofHours(24), 2, NOW))
+                .containsExactly(new TopProduct(desk, 50, 0), new TopProduct(lamp, 7, 0));
+    }
+
+    @Test
+    void getTopProducts_shouldForgetBucketsOnceTheRingComesRound() {
+        topProductsService.record(desk, 50, NOW - 25 * HOUR);
+        topProductsService.record(cable, 1, NOW - HOUR);
+        topProductsService.record(lamp, 2, NOW);
+
+        assertThat(topProductsService.getTopProducts(Duration.ofHours(24), 10, NOW))
+                .extracting(TopProduct::productId)
+                .containsExactly(lamp, cable);
+    }
+
+    @Test
+    void getTopProducts_shouldRejectWindowsBeyondOneDay() {
+        assertThatThrownBy(() -> topProductsService.getTopProducts(Duration.ofDays(2), 10, NOW))
+                .isInstanceOf(ApiException.class);
+        assertThatThrownBy(() -> topProductsService.getTopProducts(Duration.ZERO, 10, NOW))
+                .isInstanceOf(ApiException.class);
+        assertThatThrownBy(() -> topProductsService.getTopProducts("an hour", 10))
+                .isInstanceOf(ApiException.class)
+                .hasMessage("Invalid window: an hour");
+    }
+
+    @Test
+    void onStockLevelChanged_shouldCountOrdersAndWithdrawalsOnly() {
+        topProductsService.onStockLevelChanged(
+                new StockLevelChangedEvent(cable, "Cable", 10, 7, null, StockChangeReason.ORDER, null, null));
+        topProductsService.onStockLevelChanged(
+                new StockLevelChangedEvent(cable, "Cable", 7, 5, null, StockChangeReason.WITHDRAW, null, null));
+        topProductsService.onStockLevelChanged(
+                new StockLevelChangedEvent(lamp, "Lamp", 10, 2, null, StockChangeReason.ADJUSTMENT, null, null));
+        topProductsService.onStockLevelChanged(
+                new StockLevelChangedEvent(lamp, "Lamp", 2, 20, null, StockChangeReason.TOPUP, null, null));
+
+        assertThat(topProductsService.getTopProducts("1m", 10))
+                .containsExactly(new TopProduct(cable, 5, 0));
+    }
+}
@@ -0,0 +1,158 @@
+package com.ram.inventory.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ram.inventory.product.StockChangeReason;
+
+/**
+ * Runs on a database of its own, so the pollers of other test contexts cannot publish its
+ * events, and with a poll interval long enough that the test decides when to publish.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxdb;NON_KEYWORDS=order",
+        "inventory.outbox.sink=memory",
+        "inventory.outbox.poll-interval=1h",
+        "inventory.outbox.batch-size=2" })
+@AutoConfigureMockMvc
+class OutboxIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OutboxPublisher publisher;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void drain() {
+        publisher.publishPending();
+        sink.clear();
+    }
+
+    private ResultActions send(String path, String body) throws Exception {
+        return mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+
+    private UUID createProduct(int quantity) throws Exception {
+        String body = send("/product", "{\"name\":\"Outboxed\",\"price\":3,\"currentQuantity\":" + quantity + "}")
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return UUID.fromString(objectMapper.readTree(body).get("data").get("productId").asText());
+    }
+
+    private long pending() {
+        return jdbcTemplate.queryForObject("select count(*) from outbox_event", Long.class);
+    }
+
+    @Test
+    @DisplayName("stock changes should be written with their commit and published in batches")
+    void publishesCommittedChanges() throws Exception {
+        UUID productId = createProduct(10);
+        send("/order", "{\"productId\":\"" + productId + "\",\"quantity\":4}").andExpect(status().isOk());
+        send("/transaction", "{\"productId\":\"" + productId + "\",\"quantity\":2,\"type\":\"W\"}")
+                .andExpect(status().isOk());
+        // rejected for lack of stock, so nothing may reach the outbox
+        send("/order", "{\"productId\":\"" + productId + "\",\"quantity\":50}").andExpect(status().isConflict());
+
+        assertThat(pending()).isEqualTo(3);
+        assertThat(sink.messages()).isEmpty();
+
+        assertThat(publisher.publishPending()).isEqualTo(3);
+
+        List<OutboxMessage> messages = sink.messages();
+        assertThat(messages).extracting(OutboxMessage::reason)
+                .containsExactly(StockChangeReason.ADJUSTMENT, StockChangeReason.ORDER, StockChangeReason.WITHDRAW);
+        assertThat(messages).extracting(OutboxMessage::currentQuantity).containsExactly(10, 6, 4);
+        assertThat(messages).extracting(OutboxMessage::productId).containsOnly(productId);
+        assertThat(messages.get(1).referenceId()).isNotNull();
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("a cart order should add one outbox row per line in the same commit")
+    void cartOrderWritesOneRowPerLine() throws Exception {
+        UUID first = createProduct(5);
+        UUID second = createProduct(5);
+        UUID third = createProduct(5);
+        publisher.publishPending();
+        sink.clear();
+
+        send("/order/cart", "{\"lines\":[{\"productId\":\"" + first + "\",\"quantity\":1},"
+                + "{\"productId\":\"" + second + "\",\"quantity\":2},"
+                + "{\"productId\":\"" + third + "\",\"quantity\":3}]}").andExpect(status().isOk());
+
+        assertThat(pending()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("select count(distinct reference_id) from outbox_event", Long.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("concurrent publishers should skip rows another publisher has claimed")
+    void claimSkipsLockedRows() throws Exception {
+        UUID productId = createProduct(10);
+        for (int i = 0; i < 3; i++) {
+            send("/order", "{\"productId\":\"" + productId + "\",\"quantity\":1}").andExpect(status().isOk());
+        }
+        assertThat(pending()).isEqualTo(4);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<Long>> first = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            List<Long> ids = outboxRepository.claim(2).stream().map(OutboxEvent::getEventId).toList();
+            claimed.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ids;
+        }));
+        assertThat(claimed.await(10, TimeUnit.SECONDS)).isTrue();
+
+        List<Long> second;
+        try {
+            second = transaction.execute(status ->
+                    outboxRepository.claim(10).stream().map(OutboxEvent::getEventId).toList());
+        } finally {
+            release.countDown();
+        }
+
+        assertThat(second).hasSize(2).doesNotContainAnyElementsOf(first.get(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,78 @@
+package com.ram.inventory.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ram.inventory.ApiIntegrationTest;
+
+/**
+ * Reprices products selected by a filter and redescribes products selected by id, in
+ * chunks smaller than the selection, and checks the rows, their modification time and the
+ * search index afterwards.
+ */
+@SpringBootTest(properties = "inventory.bulk-update.chunk-size=2")
+@AutoConfigureMockMvc
+class ProductBulkUpdateIntegrationTest extends ApiIntegrationTest {
+
+    private JsonNode product(String id) throws Exception {
+        return call(get("/product/get-product").param("id", id), status().isOk());
+    }
+
+    @Test
+    @DisplayName("bulk update should change every selected product in chunks and keep caches in step")
+    void updatesSelectedProducts() throws Exception {
+        String prefix = "Bulk" + UUID.randomUUID().toString().substring(0, 8);
+        List<String> ids = new ArrayList<>();
+        for (int price : new int[] { 10, 20, 30, 40, 50 }) {
+            ids.add(send("/product", "{\"name\":\"" + prefix + price + "\",\"price\":" + price
+                    + ",\"currentQuantity\":1}", status().isOk()).get("productId").asText());
+        }
+        LocalDateTime modifiedBefore = LocalDateTime.parse(product(ids.get(0)).get("modifiedAt").asText());
+
+        JsonNode repriced = send("/product/bulk-update", "{\"filter\":{\"namePrefix\":\"" + prefix
+                + "\",\"maxPrice\":40},\"priceMultiplier\":1.105}", status().isOk());
+        assertThat(repriced.get("matched").asLong()).isEqualTo(4);
+        assertThat(repriced.get("changed").asLong()).isEqualTo(4);
+        assertThat(product(ids.get(0)).get("price").decimalValue()).isEqualByComparingTo("11.05");
+        assertThat(product(ids.get(3)).get("price").decimalValue()).isEqualByComparingTo("44.20");
+        assertThat(product(ids.get(4)).get("price").decimalValue()).isEqualByComparingTo("50");
+        assertThat(LocalDateTime.parse(product(ids.get(0)).get("modifiedAt").asText())).isAfter(modifiedBefore);
+
+        String word = "restyled" + UUID.randomUUID().toString().substring(0, 8);
+        JsonNode described = send("/product/bulk-update", "{\"ids\":[\"" + ids.get(1) + "\",\"" + ids.get(2)
+                + "\",\"" + UUID.randomUUID() + "\"],\"description\":\"" + word + "\",\"reorderThreshold\":3}",
+                status().isOk());
+        assertThat(described.get("matched").asLong()).isEqualTo(2);
+        assertThat(product(ids.get(2)).get("description").asText()).isEqualTo(word);
+        assertThat(product(ids.get(2)).get("price").decimalValue()).isEqualByComparingTo("33.15");
+        JsonNode found = call(get("/product/search").param("q", word), status().isOk());
+        assertThat(found).extracting(node -> node.get("productId").asText())
+                .containsExactlyInAnyOrder(ids.get(1), ids.get(2));
+
+        JsonNode unchanged = send("/product/bulk-update", "{\"ids\":[\"" + ids.get(1) + "\"],\"reorderThreshold\":3}",
+                status().isOk());
+        assertThat(unchanged.get("matched").asLong()).isEqualTo(1);
+        assertThat(unchanged.get("changed").asLong()).isZero();
+    }
+
+    @Test
+    @DisplayName("bulk update should reject requests without a selection or a change")
+    void rejectsInvalidRequests() throws Exception {
+        send("/product/bulk-update", "{\"priceMultiplier\":2}", status().isBadRequest());
+        send("/product/bulk-update", "{\"ids\":[]}", status().isBadRequest());
+        send("/product/bulk-update", "{\"ids\":[],\"price\":1,\"priceMultiplier\":2}", status().isBadRequest());
+        send("/product/bulk-update", "{\"filter\":{},\"priceMultiplier\":0}", status().isBadRequest());
+    }
+}
@@ -7,6 +7,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -33,6 +34,9 @@ class ProductControllerTest {
     @MockitoBean
     private ProductService productService;
 
+    @MockitoBean
+    private ProductBulkUpdater bulkUpdater;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -98,7 +102,7 @@ class ProductControllerTest {
                         1,
                         1L));
 
-        Mockito.when(productService.getProducts(0, 10, "name")).thenReturn(response);
+        Mockito.when(productService.getProducts(0, 10, "name", new ProductFilter())).thenReturn(response);
 
         mockMvc.perform(get("/product/get-products"))
                 .andExpect(status().isOk())
@@ -108,6 +112,44 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.data.data[0].price").value(99.99));
     }
 
+    @Test
+    @DisplayName(value = "get products should bind filter parameters")
+    void getProductsWithFilter() throws Exception {
+        ProductFilter filter = new ProductFilter();
+        filter.setMaxQuantity(0);
+        filter.setNamePrefix("Cab");
+        filter.setModifiedFrom(LocalDateTime.of(2025, 1, 1, 0, 0));
+        PaginationResponse<ProductDTO> response = new PaginationResponse<>(Collections.emptyList(),
+                new PaginationResponse.PaginationInfo(0, 20, 0, 0L));
+
+        Mockito.when(productService.getProducts(0, 20, "currentQuantity", filter)).thenReturn(response);
+
+        mockMvc.perform(get("/product/get-products")
+                        .param("pageSize", "20")
+                        .param("sortBy", "currentQuantity")
+                        .param("maxQuantity", "0")
+                        .param("namePrefix", "Cab")
+                        .param("modifiedFrom", "2025-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.data.length()").value(0));
+    }
+
+    @Test
+    @DisplayName(value = "search products should return matching products")
+    void searchProducts() throws Exception {
+        ProductDTO productDTO = new ProductDTO();
+        productDTO.setProductId(UUID.randomUUID());
+        productDTO.setName("Test Product");
+
+        Mockito.when(productService.searchProducts("test", 20)).thenReturn(Collections.singletonList(productDTO));
+
+        mockMvc.perform(get("/product/search").param("q", "test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Products Found"))
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].name").value("Test Product"));
+    }
+
     @Test
     @DisplayName(value = "update product should update fields in product")
     void updateProduct() throws Exception {
@@ -0,0 +1,143 @@
+package com.ram.inventory.product;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of the first page of the filtered product listing over {@code rows} products,
+ * with the filter indexes of V3 in place and with them dropped. The statements have the
+ * shape Hibernate generates for {@link ProductFilter}.
+ * <p>
+ * Run with {@code scripts/benchmark.sh ProductFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductFilterBenchmark {
+
+    private static final String[] FILTER_INDEXES = { "ix_product_price", "ix_product_current_quantity",
+            "ix_product_modified_at", "ix_product_created_at" };
+
+    private static final String PAGE = " order by %s, product_id offset 0 rows fetch first 20 rows only";
+
+    @Param({ "200000" })
+    int rows;
+
+    @Param({ "true", "false" })
+    boolean indexed;
+
+    private Connection connection;
+    private PreparedStatement outOfStock;
+    private PreparedStatement priceRange;
+    private PreparedStatement recentlyModified;
+
+    @Setup(Level.Trial)
+    public void load() throws SQLException {
+        String url = "jdbc:h2:mem:filter-benchmark-" + indexed + ";DB_CLOSE_DELAY=-1;NON_KEYWORDS=order;OPTIMIZE_REUSE_RESULTS=FALSE";
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+        connection = DriverManager.getConnection(url, "sa", "");
+        if (!indexed) {
+            try (Statement statement = connection.createStatement()) {
+                for (String index : FILTER_INDEXES) {
+                    statement.execute("drop index " + index);
+                }
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime now = LocalDateTime.now();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("insert into product (product_id, name, price, "
+                + "current_quantity, reserved_quantity, created_at, modified_at) values (?, ?, ?, ?, 0, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                Timestamp modified = Timestamp.valueOf(now.minusMinutes(random.nextInt(365 * 24 * 60)));
+                insert.setObject(1, UUID.randomUUID());
+                insert.setString(2, "Product " + random.nextInt(rows));
+                insert.setBigDecimal(3, BigDecimal.valueOf(random.nextInt(100_000), 2));
+                // about one product in fifty is out of stock
+                insert.setInt(4, random.nextInt(50) == 0 ? 0 : 1 + random.nextInt(500));
+                insert.setTimestamp(5, modified);
+                insert.setTimestamp(6, modified);
+                insert.addBatch();
+                if (i % 10_000 == 9_999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("analyze");
+        }
+
+        String select = "select product_id, name, price, current_quantity from product where ";
+        outOfStock = connection.prepareStatement(
+                select + "current_quantity <= ?" + PAGE.formatted("current_quantity"));
+        outOfStock.setInt(1, 0);
+        priceRange = connection.prepareStatement(select + "price >= ? and price <= ?" + PAGE.formatted("price"));
+        priceRange.setBigDecimal(1, BigDecimal.valueOf(100));
+        priceRange.setBigDecimal(2, BigDecimal.valueOf(120));
+        recentlyModified = connection.prepareStatement(select + "modified_at >= ?" + PAGE.formatted("modified_at"));
+        recentlyModified.setTimestamp(1, Timestamp.valueOf(now.minusDays(7)));
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("shutdown");
+        }
+    }
+
+    @Benchmark
+    public int outOfStock() throws SQLException {
+        return count(outOfStock);
+    }
+
+    @Benchmark
+    public int priceRange() throws SQLException {
+        return count(priceRange);
+    }
+
+    @Benchmark
+    public int recentlyModified() throws SQLException {
+        return count(recentlyModified);
+    }
+
+    private static int count(PreparedStatement statement) throws SQLException {
+        int count = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,136 @@
+package com.ram.inventory.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Filters the product listing through the endpoint, then asks H2 how it executes the very
+ * statements Hibernate generated for the common filter and sort combinations. Literals are
+ * inlined so the captured SQL can be explained as is.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.ram.inventory.product.ProductFilterIntegrationTest$RecordingInspector",
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline" })
+@AutoConfigureMockMvc
+class ProductFilterIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private void create(String name, int price, int quantity) throws Exception {
+        mockMvc.perform(post("/product").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"" + name + "\",\"price\":" + price + ",\"currentQuantity\":" + quantity + "}"))
+                .andExpect(status().isOk());
+    }
+
+    private List<String> names(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse()
+                .getContentAsString();
+        List<String> names = new ArrayList<>();
+        for (JsonNode product : objectMapper.readTree(body).get("data").get("data")) {
+            names.add(product.get("name").asText());
+        }
+        return names;
+    }
+
+    /**
+     * Runs a listing request and returns H2's plan for the page query it issued.
+     */
+    private String plan(MockHttpServletRequestBuilder request) throws Exception {
+        RecordingInspector.STATEMENTS.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        String select = RecordingInspector.STATEMENTS.stream()
+                .filter(sql -> sql.startsWith("select") && sql.contains("order by"))
+                .findFirst()
+                .orElseThrow();
+        // only the page size is still bound as a parameter
+        return jdbcTemplate.query("explain " + select, statement -> {
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setInt(i, 10);
+            }
+        }, (resultSet, row) -> resultSet.getString(1)).get(0).toUpperCase();
+    }
+
+    @Test
+    @DisplayName("get products should combine range, prefix and window filters")
+    void filtersProducts() throws Exception {
+        String prefix = "Filter" + UUID.randomUUID().toString().substring(0, 8);
+        create(prefix + "-A", 10, 0);
+        create(prefix + "-B", 20, 5);
+        create(prefix + "-C", 30, 0);
+        create(prefix + "-D", 40, 50);
+
+        assertThat(names(get("/product/get-products").param("namePrefix", prefix).param("maxQuantity", "0")))
+                .containsExactly(prefix + "-A", prefix + "-C");
+        assertThat(names(get("/product/get-products").param("namePrefix", prefix)
+                .param("minPrice", "15").param("maxPrice", "40").param("sortBy", "price")))
+                .containsExactly(prefix + "-B", prefix + "-C", prefix + "-D");
+        assertThat(names(get("/product/get-products").param("namePrefix", prefix)
+                .param("modifiedFrom", "2100-01-01T00:00:00")))
+                .isEmpty();
+        // wildcards in the prefix are matched literally
+        assertThat(names(get("/product/get-products").param("namePrefix", "Filter%"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("get products should reject sorting by a field that is not whitelisted")
+    void rejectsUnknownSort() throws Exception {
+        mockMvc.perform(get("/product/get-products").param("sortBy", "description"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    @DisplayName("filtered listings should read the matching index in sort order")
+    void filtersUseIndexes() throws Exception {
+        assertThat(plan(get("/product/get-products").param("maxQuantity", "0").param("sortBy", "currentQuantity")))
+                .contains("IX_PRODUCT_CURRENT_QUANTITY").contains("INDEX SORTED");
+        assertThat(plan(get("/product/get-products").param("minPrice", "10").param("maxPrice", "20")
+                .param("sortBy", "price")))
+                .contains("IX_PRODUCT_PRICE").contains("INDEX SORTED");
+        assertThat(plan(get("/product/get-products").param("modifiedFrom", "2025-01-01T00:00:00")
+                .param("sortBy", "modifiedAt")))
+                .contains("IX_PRODUCT_MODIFIED_AT").contains("INDEX SORTED");
+        assertThat(plan(get("/product/get-products").param("namePrefix", "Cab")))
+                .contains("IX_PRODUCT_NAME").contains("INDEX SORTED");
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new java.util.concurrent.CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
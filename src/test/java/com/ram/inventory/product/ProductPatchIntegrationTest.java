@@ -0,0 +1,111 @@
+package com.ram.inventory.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ram.inventory.ApiIntegrationTest;
+
+/**
+ * Edits products, orders and transactions with PATCH and If-Match, and checks that stale
+ * versions are refused while stock movements leave a product's version alone, and that an
+ * edited transaction moves the product's stock by the difference.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductPatchIntegrationTest extends ApiIntegrationTest {
+
+    private JsonNode patchWith(String path, String id, String ifMatch, String body, ResultMatcher... expected)
+            throws Exception {
+        var request = patch(path).param("id", id).contentType(MediaType.APPLICATION_JSON).content(body);
+        if (ifMatch != null) {
+            request.header(HttpHeaders.IF_MATCH, ifMatch);
+        }
+        return call(request, expected);
+    }
+
+    @Test
+    @DisplayName("patching a product should change only the given fields of the version it names")
+    void patchesProducts() throws Exception {
+        String id = send("/product", "{\"name\":\"Lamp\",\"description\":\"desk lamp\",\"price\":20,"
+                + "\"currentQuantity\":10}").get("productId").asText();
+        call(get("/product/get-product").param("id", id), status().isOk(), header().string(HttpHeaders.ETAG, "\"0\""));
+
+        patchWith("/product", id, null, "{\"price\":25}", status().isPreconditionRequired());
+        JsonNode patched = patchWith("/product", id, "\"0\"", "{\"price\":25}", status().isOk(),
+                header().string(HttpHeaders.ETAG, "\"1\""));
+        assertThat(patched.get("price").decimalValue()).isEqualByComparingTo("25");
+        assertThat(patched.get("description").asText()).isEqualTo("desk lamp");
+        patchWith("/product", id, "\"0\"", "{\"name\":\"Stale\"}", status().isPreconditionFailed());
+
+        // stock movements do not count as edits
+        send("/order", "{\"productId\":\"" + id + "\",\"quantity\":2}");
+        patched = patchWith("/product", id, "\"1\"", "{\"name\":\"Floor lamp\"}", status().isOk(),
+                header().string(HttpHeaders.ETAG, "\"2\""));
+        assertThat(patched.get("name").asText()).isEqualTo("Floor lamp");
+        assertThat(patched.get("currentQuantity").asInt()).isEqualTo(8);
+        assertThat(patched.get("price").decimalValue()).isEqualByComparingTo("25");
+
+        // a full update counts as an edit too
+        send("/product/update", "{\"productId\":\"" + id + "\",\"reorderThreshold\":2}");
+        patchWith("/product", id, "\"2\"", "{\"price\":30}", status().isPreconditionFailed());
+        patchWith("/product", id, "*", "{\"price\":30}", status().isOk(), header().string(HttpHeaders.ETAG, "\"4\""));
+        patchWith("/product", "00000000-0000-0000-0000-000000000001", "*", "{\"price\":1}", status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("orders and transactions should be patched under the same version check")
+    void patchesOrdersAndTransactions() throws Exception {
+        String productId = send("/product", "{\"name\":\"Desk\",\"price\":100,\"currentQuantity\":10}")
+                .get("productId").asText();
+        String orderId = send("/order", "{\"productId\":\"" + productId + "\",\"quantity\":1}").get("orderId")
+                .asText();
+        call(get("/order/get-order").param("id", orderId), status().isOk(), header().string(HttpHeaders.ETAG, "\"0\""));
+        JsonNode order = patchWith("/order", orderId, "\"0\"", "{\"price\":90}", status().isOk(),
+                header().string(HttpHeaders.ETAG, "\"1\""));
+        assertThat(order.get("price").decimalValue()).isEqualByComparingTo("90");
+        assertThat(order.get("quantity").asInt()).isEqualTo(1);
+        patchWith("/order", orderId, "\"0\"", "{\"price\":80}", status().isPreconditionFailed());
+        // the quantity of an order is not editable
+        patchWith("/order", orderId, "\"1\"", "{\"quantity\":3}", status().isBadRequest());
+
+        String transactionId = send("/transaction", "{\"productId\":\"" + productId + "\",\"quantity\":4,"
+                + "\"type\":\"T\"}").get("transactionId").asText();
+        assertThat(currentQuantity(productId)).isEqualTo(13);
+        JsonNode transaction = patchWith("/transaction", transactionId, "\"0\"", "{\"quantity\":5}",
+                status().isOk(), header().string(HttpHeaders.ETAG, "\"1\""));
+        assertThat(transaction.get("quantity").asInt()).isEqualTo(5);
+        assertThat(transaction.get("type").asText()).isEqualTo("TOPUP");
+        assertThat(currentQuantity(productId)).isEqualTo(14);
+        patchWith("/transaction", transactionId, "W/\"1\"", "{\"quantity\":6}", status().isBadRequest());
+
+        // turning the top-up of 5 into a withdrawal takes 10 units
+        patchWith("/transaction", transactionId, "\"1\"", "{\"type\":\"WITHDRAW\"}", status().isOk());
+        assertThat(currentQuantity(productId)).isEqualTo(4);
+        patchWith("/transaction", transactionId, "*", "{\"quantity\":10}", status().isConflict());
+        patchWith("/transaction", transactionId, "*", "{\"quantity\":-1}", status().isBadRequest());
+        assertThat(currentQuantity(productId)).isEqualTo(4);
+
+        // the edited rows alone still add up to the stock
+        JsonNode report = call(post("/reconciliation/run"));
+        assertThat(report.get("discrepancies").valueStream()
+                .filter(discrepancy -> discrepancy.get("productId").asText().equals(productId))).isEmpty();
+    }
+
+    private int currentQuantity(String productId) throws Exception {
+        return call(get("/product/get-product").param("id", productId), status().isOk()).get("currentQuantity")
+                .asInt();
+    }
+}
@@ -0,0 +1,122 @@
+package com.ram.inventory.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+    }
+
+    private static ProductRepository.SearchDocument document(UUID id, String name, String description) {
+        return new ProductRepository.SearchDocument() {
+            public UUID getProductId() {
+                return id;
+            }
+
+            public String getName() {
+                return name;
+            }
+
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
+
+    @Test
+    void search_shouldMatchPrefixesAcrossNameAndDescription() {
+        UUID phone = UUID.randomUUID();
+        UUID charger = UUID.randomUUID();
+        index.index(phone, "Smart Phone X", "OLED display, 128GB");
+        index.index(charger, "Phone Charger", "USB-C fast charging");
+
+        assertThat(index.search("pho", 10)).containsExactlyInAnyOrder(phone, charger);
+        assertThat(index.search("phone oled", 10)).containsExactly(phone);
+        assertThat(index.search("USB-c", 10)).containsExactly(charger);
+        assertThat(index.search("tablet", 10)).isEmpty();
+        assertThat(index.search("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void index_shouldReplaceTermsOnUpdate_andRemoveOnDelete() {
+        UUID id = UUID.randomUUID();
+        index.index(id, "Red Mug", null);
+        index.index(id, "Blue Mug", null);
+
+        assertThat(index.search("red", 10)).isEmpty();
+        assertThat(index.search("blue mug", 10)).containsExactly(id);
+
+        index.remove(id);
+        assertThat(index.search("mug", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void search_shouldStopAtLimit() {
+        IntStream.range(0, 50).forEach(i -> index.index(UUID.randomUUID(), "Cable " + i, null));
+
+        assertThat(index.search("cable", 10)).hasSize(10);
+    }
+
+    @Test
+    void search_shouldFindMatchesBeyondThePrefixExpansion() {
+        int products = ProductSearchIndex.MAX_PREFIX_EXPANSION + 50;
+        IntStream.range(0, products).forEach(i -> index.index(UUID.randomUUID(), "Part" + i, "spare"));
+
+        assertThat(index.search("part", products + 1)).hasSize(products);
+        assertThat(index.search("par spa", products + 1)).hasSize(products);
+        assertThat(index.search("part", 10)).hasSize(10);
+    }
+
+    @Test
+    void onProductChanged_shouldApplyOnlyTheSearchTextItCarries() {
+        Product lamp = new Product();
+        lamp.setProductId(UUID.randomUUID());
+        lamp.setName("Desk Lamp");
+        lamp.setCurrentQuantity(1);
+        index.onProductChanged(ProductChangedEvent.created(lamp));
+
+        index.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, lamp.getProductId(),
+                null, null, 0));
+        assertThat(index.search("desk", 10)).containsExactly(lamp.getProductId());
+
+        lamp.setName("Floor Lamp");
+        index.onProductChanged(ProductChangedEvent.updated(lamp, null, 0));
+        assertThat(index.search("desk", 10)).isEmpty();
+        assertThat(index.search("floor", 10)).containsExactly(lamp.getProductId());
+
+        index.onProductChanged(ProductChangedEvent.deleted(lamp));
+        assertThat(index.search("lamp", 10)).isEmpty();
+    }
+
+    @Test
+    void rebuild_shouldIndexSnapshotInParallel_withoutOverridingLiveUpdates() {
+        UUID live = UUID.randomUUID();
+        index.index(live, "Renamed Lamp", null);
+
+        List<ProductRepository.SearchDocument> snapshot = new ArrayList<>();
+        snapshot.add(document(live, "Old Lamp", null));
+        for (int i = 0; i < 10_000; i++) {
+            snapshot.add(document(UUID.randomUUID(), "Item " + i, "bulk catalog"));
+        }
+
+        index.rebuild(snapshot.stream());
+
+        assertThat(index.size()).isEqualTo(10_001);
+        assertThat(index.search("renamed", 10)).containsExactly(live);
+        assertThat(index.search("old", 10)).isEmpty();
+        assertThat(index.search("bulk item", 5)).hasSize(5);
+    }
+}
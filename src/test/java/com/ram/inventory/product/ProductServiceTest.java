@@ -1,32 +1,49 @@
 package com.ram.inventory.product;
 
+import com.ram.inventory.exception.ApiException;
 import com.ram.inventory.exception.ResourceNotFoundException;
+import com.ram.inventory.shard.ShardRouter;
 import com.ram.inventory.util.PaginationResponse;
+import com.ram.inventory.util.PartialUpdates;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ProductServiceTest {
 
     private ProductRepository productRepository;
     private ModelMapper modelMapper;
+    private ProductSearchIndex searchIndex;
+    private ApplicationEventPublisher eventPublisher;
+    private PartialUpdates partialUpdates;
     private ProductService productService;
 
     @BeforeEach
     void setUp() {
         productRepository = mock(ProductRepository.class);
         modelMapper = new ModelMapper();
-        productService = new ProductService(productRepository, modelMapper);
+        searchIndex = new ProductSearchIndex();
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        partialUpdates = mock(PartialUpdates.class);
+        productService = new ProductService(productRepository, modelMapper, searchIndex, eventPublisher,
+                ShardRouter.single(), partialUpdates, new ProductReadCache(Duration.ZERO, 100));
     }
 
     @Test
@@ -90,15 +107,34 @@ class ProductServiceTest {
 
         Page<Product> page = new PageImpl<>(List.of(product), PageRequest.of(0, 10), 1);
 
-        when(productRepository.findAll(any(Pageable.class))).thenReturn(page);
+        when(productRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
 
-        PaginationResponse<ProductDTO> response = productService.getProducts(0, 10, "name");
+        PaginationResponse<ProductDTO> response = productService.getProducts(0, 10, "name", new ProductFilter());
 
         assertThat(response.getData()).hasSize(1);
         assertThat(response.getPagination().getTotalElements()).isEqualTo(1);
         assertThat(response.getData().get(0).getName()).isEqualTo("Monitor");
     }
 
+    @Test
+    void getProducts_shouldRejectUnknownSortField() {
+        assertThatThrownBy(() -> productService.getProducts(0, 10, "description", new ProductFilter()))
+                .isInstanceOf(ApiException.class)
+                .hasMessageStartingWith("Cannot sort products by description");
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getProducts_shouldRejectInvertedRange() {
+        ProductFilter filter = new ProductFilter();
+        filter.setMinPrice(BigDecimal.TEN);
+        filter.setMaxPrice(BigDecimal.ONE);
+
+        assertThatThrownBy(() -> productService.getProducts(0, 10, "price", filter))
+                .isInstanceOf(ApiException.class)
+                .hasMessage("minPrice must not exceed maxPrice");
+    }
+
     @Test
     void updateProduct_shouldUpdateAndReturnDTO() {
         UUID id = UUID.randomUUID();
@@ -124,6 +160,9 @@ class ProductServiceTest {
         assertThat(updated.getName()).isEqualTo("New Name");
         assertThat(updated.getPrice()).isEqualTo(BigDecimal.valueOf(150));
         assertThat(updated.getCurrentQuantity()).isEqualTo(5);
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, id,
+                BigDecimal.valueOf(150), BigDecimal.valueOf(100), 2, "New Name", null));
+        verify(eventPublisher).publishEvent(any(StockLevelChangedEvent.class));
     }
 
     @Test
@@ -154,5 +193,86 @@ class ProductServiceTest {
         UUID id = UUID.randomUUID();
         productService.deleteProduct(id);
         verify(productRepository).deleteById(id);
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.DELETED, id));
+    }
+
+    @Test
+    void searchProducts_shouldFollowCreateUpdateAndDelete() {
+        Product product = new Product();
+        product.setProductId(UUID.randomUUID());
+        product.setName("Wireless Keyboard");
+        product.setDescription("Bluetooth, backlit");
+        product.setCurrentQuantity(4);
+
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productRepository.findAllById(List.of(product.getProductId()))).thenReturn(List.of(product));
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) instanceof ProductChangedEvent event) {
+                searchIndex.onProductChanged(event);
+            }
+            return null;
+        }).when(eventPublisher).publishEvent(any(Object.class));
+
+        productService.createProduct(new ProductDTO());
+        assertThat(productService.searchProducts("wire blue", 10))
+                .extracting(ProductDTO::getProductId).containsExactly(product.getProductId());
+
+        ProductDTO update = new ProductDTO();
+        update.setProductId(product.getProductId());
+        update.setName("Wired Keyboard");
+        when(productRepository.findById(product.getProductId())).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        productService.updateProduct(update);
+        assertThat(productService.searchProducts("wireless", 10)).isEmpty();
+        assertThat(productService.searchProducts("wired", 10)).hasSize(1);
+
+        productService.deleteProduct(product.getProductId());
+        assertThat(productService.searchProducts("keyboard", 10)).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void patchProduct_shouldWriteOnlyTheGivenFields_andPublishThePriceChange() {
+        UUID id = UUID.randomUUID();
+        ProductRepository.BulkRow previous = mock(ProductRepository.BulkRow.class);
+        when(previous.getPrice()).thenReturn(BigDecimal.valueOf(10));
+        when(previous.getCurrentQuantity()).thenReturn(3);
+        when(productRepository.lockBulkRows(List.of(id))).thenReturn(List.of(previous));
+        when(partialUpdates.update(eq(Product.class), eq("productId"), eq(id), eq(4L), anyMap())).thenReturn(1);
+        Product patched = new Product();
+        patched.setProductId(id);
+        patched.setPrice(BigDecimal.valueOf(12));
+        patched.setVersion(5L);
+        when(productRepository.findById(id)).thenReturn(Optional.of(patched));
+
+        ProductPatch patch = new ProductPatch();
+        patch.setPrice(BigDecimal.valueOf(12));
+        ProductDTO result = productService.patchProduct(id, patch, 4L);
+
+        assertThat(result.getVersion()).isEqualTo(5L);
+        ArgumentCaptor<Map<String, Object>> changes = ArgumentCaptor.forClass(Map.class);
+        verify(partialUpdates).update(eq(Product.class), eq("productId"), eq(id), eq(4L), changes.capture());
+        assertThat(changes.getValue()).containsOnlyKeys("price", "modifiedAt");
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, id,
+                BigDecimal.valueOf(12), BigDecimal.valueOf(10), 3));
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void patchProduct_shouldRefuseStaleVersions_andMissingProducts() {
+        UUID id = UUID.randomUUID();
+        ProductPatch patch = new ProductPatch();
+        patch.setName("Renamed");
+        when(partialUpdates.update(eq(Product.class), eq("productId"), eq(id), eq(1L), anyMap())).thenReturn(0);
+        when(productRepository.existsById(id)).thenReturn(true);
+
+        assertThatThrownBy(() -> productService.patchProduct(id, patch, 1L))
+                .isInstanceOfSatisfying(ApiException.class, e -> assertThat(e.getStatus()).isEqualTo(412));
+
+        when(productRepository.existsById(id)).thenReturn(false);
+        assertThatThrownBy(() -> productService.patchProduct(id, patch, 1L))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> productService.patchProduct(id, new ProductPatch(), 1L))
+                .isInstanceOfSatisfying(ApiException.class, e -> assertThat(e.getStatus()).isEqualTo(400));
     }
-}
\ No newline at end of file
+}
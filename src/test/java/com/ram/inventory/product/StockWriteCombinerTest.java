@@ -0,0 +1,217 @@
+package com.ram.inventory.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ram.inventory.exception.InsufficientStockException;
+import com.ram.inventory.exception.ResourceNotFoundException;
+import com.ram.inventory.shard.ShardRouter;
+
+class StockWriteCombinerTest {
+
+    private final UUID productId = UUID.randomUUID();
+    private ProductRepository productRepository;
+    private Product product;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        product = new Product();
+        product.setProductId(productId);
+        product.setCurrentQuantity(10);
+        product.setReservedQuantity(0);
+        when(productRepository.findByIdForUpdate(productId)).thenReturn(Optional.of(product));
+        pool = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static StockWrite<Integer> take(int quantity) {
+        return product -> {
+            if (product.getUnassignedQuantity() < quantity) {
+                throw new InsufficientStockException(product.getProductId(), quantity, product.getUnassignedQuantity());
+            }
+            product.setCurrentQuantity(product.getCurrentQuantity() - quantity);
+            return product.getCurrentQuantity();
+        };
+    }
+
+    @Test
+    void write_shouldApplyAlone_whenProductIsNotHot() {
+        StockWriteCombiner combiner = new StockWriteCombiner(productRepository, ShardRouter.single(), 0, 100);
+
+        assertThat(combiner.write(productId, take(3))).isEqualTo(7);
+        assertThatThrownBy(() -> combiner.write(productId, take(8))).isInstanceOf(InsufficientStockException.class);
+        verify(productRepository, times(1)).save(product);
+    }
+
+    @Test
+    void write_shouldFailWithNotFound_whenProductIsMissing() {
+        StockWriteCombiner combiner = new StockWriteCombiner(productRepository, ShardRouter.single(), 1, 100);
+
+        assertThatThrownBy(() -> combiner.write(UUID.randomUUID(), take(1)))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void write_shouldCombineQueuedChanges_intoOneBatch() throws Exception {
+        StockWriteCombiner combiner = new StockWriteCombiner(productRepository, ShardRouter.single(), 1, 100);
+        CountDownLatch combining = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> first = pool.submit(() -> combiner.write(productId, product -> {
+            combining.countDown();
+            await(release);
+            return take(1).apply(product);
+        }));
+        assertThat(combining.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // queued while the first caller is combining its own change
+        List<Future<Integer>> queued = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            queued.add(pool.submit(() -> combiner.write(productId, take(2))));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(9);
+        int placed = 0;
+        int refused = 0;
+        for (Future<Integer> future : queued) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                placed++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(InsufficientStockException.class);
+                refused++;
+            }
+        }
+        assertThat(placed).isEqualTo(4);
+        assertThat(refused).isEqualTo(2);
+        assertThat(product.getCurrentQuantity()).isEqualTo(1);
+        // one batch for the first change, one for all that queued behind it
+        verify(productRepository, times(2)).findByIdForUpdate(productId);
+        verify(productRepository, times(2)).save(product);
+    }
+
+    @Test
+    void write_shouldWithdrawQueuedChange_whenCallerIsInterrupted() throws Exception {
+        StockWriteCombiner combiner = new StockWriteCombiner(productRepository, ShardRouter.single(), 1, 100);
+        CountDownLatch combining = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> first = pool.submit(() -> combiner.write(productId, product -> {
+            combining.countDown();
+            await(release);
+            return take(1).apply(product);
+        }));
+        assertThat(combining.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread queued = new Thread(() -> {
+            try {
+                combiner.write(productId, take(2));
+            } catch (RuntimeException e) {
+                failure.set(e);
+            }
+        });
+        queued.start();
+        Thread.sleep(200);
+        queued.interrupt();
+        queued.join(5_000);
+        release.countDown();
+
+        assertThat(failure.get()).isInstanceOf(IllegalStateException.class);
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(9);
+        // the withdrawn change is never applied by a later combiner
+        assertThat(combiner.write(productId, take(3))).isEqualTo(6);
+    }
+
+    @Test
+    void write_shouldReportTakenChange_whenCallerIsInterrupted() throws Exception {
+        StockWriteCombiner combiner = new StockWriteCombiner(productRepository, ShardRouter.single(), 1, 100);
+        CountDownLatch combining = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> first = pool.submit(() -> combiner.write(productId, product -> {
+            combining.countDown();
+            await(release);
+            return take(1).apply(product);
+        }));
+        assertThat(combining.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // both queue behind the first change; whichever combines them stalls in the batch
+        CountDownLatch batching = new CountDownLatch(1);
+        CountDownLatch releaseBatch = new CountDownLatch(1);
+        AtomicReference<Thread> combiningThread = new AtomicReference<>();
+        Map<Thread, String> outcomes = new ConcurrentHashMap<>();
+        StockWrite<Integer> stalling = product -> {
+            combiningThread.set(Thread.currentThread());
+            batching.countDown();
+            await(releaseBatch);
+            return take(2).apply(product);
+        };
+        List<Thread> callers = new ArrayList<>();
+        for (StockWrite<Integer> write : List.of(stalling, take(3))) {
+            callers.add(new Thread(() -> outcomes.put(Thread.currentThread(),
+                    outcome(() -> combiner.write(productId, write)))));
+        }
+        callers.forEach(Thread::start);
+        Thread.sleep(200);
+        release.countDown();
+        assertThat(batching.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread waiting = callers.get(0) == combiningThread.get() ? callers.get(1) : callers.get(0);
+        waiting.interrupt();
+        Thread.sleep(50);
+        releaseBatch.countDown();
+        for (Thread caller : callers) {
+            caller.join(5_000);
+        }
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(9);
+        assertThat(product.getCurrentQuantity()).isEqualTo(4);
+        assertThat(outcomes.get(waiting)).endsWith("interrupted");
+        assertThat(outcomes.values()).allSatisfy(outcome -> assertThat(outcome).doesNotContain("Exception"));
+    }
+
+    private static String outcome(Callable<Integer> write) {
+        try {
+            return write.call() + (Thread.currentThread().isInterrupted() ? " interrupted" : "");
+        } catch (Exception e) {
+            return e.toString();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.ram.inventory.reconciliation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ram.inventory.ApiIntegrationTest;
+import com.ram.inventory.archive.TransactionArchivalJob;
+
+/**
+ * Builds up stock through every write path, then tampers with it behind the application's
+ * back and checks that reconciliation finds and repairs exactly those products.
+ */
+@SpringBootTest(properties = "inventory.reconciliation.partitions=16")
+@AutoConfigureMockMvc
+class ReconciliationIntegrationTest extends ApiIntegrationTest {
+
+    @TempDir
+    static Path archiveDirectory;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("inventory.archive.directory", archiveDirectory::toString);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionArchivalJob archivalJob;
+
+    /**
+     * Creates a product and moves its stock through transactions, orders, a cart, a
+     * reservation and a direct edit.
+     */
+    private UUID productWithHistory() throws Exception {
+        UUID productId = UUID.fromString(send("/product", "{\"name\":\"Ledger\",\"price\":5,\"currentQuantity\":40}")
+                .get("productId").asText());
+        send("/transaction", "{\"productId\":\"" + productId + "\",\"quantity\":15,\"type\":\"T\"}");
+        send("/transaction", "{\"productId\":\"" + productId + "\",\"quantity\":6,\"type\":\"W\"}");
+        send("/order", "{\"productId\":\"" + productId + "\",\"quantity\":3}");
+        send("/order/cart", "{\"lines\":[{\"productId\":\"" + productId + "\",\"quantity\":2}]}");
+        String reservationId = send("/reservation", "{\"productId\":\"" + productId + "\",\"quantity\":4}")
+                .get("reservationId").asText();
+        send("/reservation/confirm", "{\"id\":\"" + reservationId + "\"}");
+        send("/product/update", "{\"productId\":\"" + productId + "\",\"currentQuantity\":35}");
+        return productId;
+    }
+
+    private List<JsonNode> discrepanciesOf(JsonNode report, Set<UUID> products) {
+        return report.get("discrepancies").valueStream()
+                .filter(discrepancy -> products.contains(UUID.fromString(discrepancy.get("productId").asText())))
+                .toList();
+    }
+
+    private int currentQuantity(UUID productId) {
+        return jdbcTemplate.queryForObject("select current_quantity from product where product_id = ?",
+                Integer.class, productId);
+    }
+
+    @Test
+    @DisplayName("Stock changed through the API reconciles, tampered stock is found and repaired")
+    void findsAndRepairsTamperedStock() throws Exception {
+        UUID clean = productWithHistory();
+        UUID tampered = productWithHistory();
+        UUID reserved = productWithHistory();
+        Set<UUID> products = Set.of(clean, tampered, reserved);
+
+        assertThat(discrepanciesOf(call(post("/reconciliation/run")), products)).isEmpty();
+
+        jdbcTemplate.update("update product set current_quantity = 50 where product_id = ?", tampered);
+        jdbcTemplate.update("update product set current_quantity = 60 where product_id = ?", reserved);
+        send("/reservation", "{\"productId\":\"" + reserved + "\",\"quantity\":40}");
+
+        List<JsonNode> found = discrepanciesOf(call(post("/reconciliation/run")), products);
+        assertThat(found).extracting(discrepancy -> discrepancy.get("productId").asText())
+                .containsExactlyInAnyOrder(tampered.toString(), reserved.toString());
+        assertThat(found).allSatisfy(discrepancy -> {
+            assertThat(discrepancy.get("expectedQuantity").asLong()).isEqualTo(35);
+            assertThat(discrepancy.get("repaired").asBoolean()).isFalse();
+        });
+        assertThat(currentQuantity(tampered)).isEqualTo(50);
+
+        call(post("/reconciliation/run").param("repair", "true"));
+        assertThat(currentQuantity(tampered)).isEqualTo(35);
+        // 40 units are reserved, so resetting to 35 would break the reservation
+        assertThat(currentQuantity(reserved)).isEqualTo(60);
+
+        JsonNode last = call(get("/reconciliation/last-report"));
+        assertThat(discrepanciesOf(last, products))
+                .extracting(discrepancy -> discrepancy.get("productId").asText() + "=" + discrepancy.get("repaired"))
+                .containsExactlyInAnyOrder(tampered + "=true", reserved + "=false");
+        assertThat(discrepanciesOf(call(post("/reconciliation/run")), products)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Repair leaves stock alone that could not cover its reservations and warehouse stock")
+    void repairKeepsReservedAndLocatedStockCovered() throws Exception {
+        UUID productId = productWithHistory();
+        jdbcTemplate.update("update product set current_quantity = 60 where product_id = ?", productId);
+        String warehouseId = send("/warehouse", "{\"code\":\"REC-" + UUID.randomUUID()
+                + "\",\"name\":\"Reconciliation\",\"latitude\":52.5,\"longitude\":13.4}")
+                .get("warehouseId").asText();
+        send("/warehouse/stock", "{\"warehouseId\":\"" + warehouseId + "\",\"productId\":\"" + productId
+                + "\",\"quantity\":30}");
+        send("/reservation", "{\"productId\":\"" + productId + "\",\"quantity\":10}");
+
+        JsonNode report = call(post("/reconciliation/run").param("repair", "true"));
+
+        // 35 would cover the 10 reserved and the 30 located units on their own, but not together
+        assertThat(discrepanciesOf(report, Set.of(productId))).singleElement().satisfies(discrepancy -> {
+            assertThat(discrepancy.get("expectedQuantity").asLong()).isEqualTo(35);
+            assertThat(discrepancy.get("repaired").asBoolean()).isFalse();
+        });
+        assertThat(currentQuantity(productId)).isEqualTo(60);
+    }
+
+    @Test
+    @DisplayName("Archived transactions count towards the ledger")
+    void archivedTransactionsAreIncluded() throws Exception {
+        UUID productId = productWithHistory();
+        jdbcTemplate.update("update inventory_transaction set created_at = ? where product_id = ?",
+                LocalDateTime.of(2015, 1, 1, 0, 0), productId);
+        assertThat(archivalJob.archiveOlderThan(LocalDateTime.of(2016, 1, 1, 0, 0))).isGreaterThanOrEqualTo(4);
+
+        JsonNode report = call(post("/reconciliation/run"));
+
+        assertThat(report.get("archivedTransactions").asLong()).isGreaterThanOrEqualTo(4);
+        assertThat(discrepanciesOf(report, Set.of(productId))).isEmpty();
+    }
+}
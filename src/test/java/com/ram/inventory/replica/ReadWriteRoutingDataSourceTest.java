@@ -0,0 +1,102 @@
+package com.ram.inventory.replica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private ReadWriteRoutingDataSource dataSource;
+    private ReadYourWritesFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        dataSource = new ReadWriteRoutingDataSource(primary, replica);
+
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setStickyWindow(Duration.ofMinutes(1));
+        filter = new ReadYourWritesFilter(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaContext.clear();
+    }
+
+    private Connection connectionDuring(String method, String client) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/product/get-product");
+        request.addHeader("X-Client-Id", client);
+        Connection[] connection = new Connection[1];
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            try {
+                connection[0] = dataSource.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return connection[0];
+    }
+
+    @Test
+    void readOnlyTransactions_shouldUseReplica() throws Exception {
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void clientThatJustWrote_shouldReadFromPrimary() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(connectionDuring("GET", "writer")).isSameAs(replicaConnection);
+        assertThat(connectionDuring("POST", "writer")).isSameAs(primaryConnection);
+        assertThat(connectionDuring("GET", "writer")).isSameAs(primaryConnection);
+        assertThat(connectionDuring("GET", "someone-else")).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void stickiness_shouldExpireAfterWindow() throws Exception {
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setStickyWindow(Duration.ofMillis(50));
+        filter = new ReadYourWritesFilter(properties);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        connectionDuring("POST", "writer");
+        assertThat(connectionDuring("GET", "writer")).isSameAs(primaryConnection);
+        Thread.sleep(100);
+        assertThat(connectionDuring("GET", "writer")).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void primaryRequirement_shouldBeInheritedByScatterThreads() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaContext.requirePrimary();
+        AtomicBoolean required = new AtomicBoolean();
+
+        Thread worker = Thread.ofVirtual().start(() -> required.set(ReplicaContext.isPrimaryRequired()));
+        worker.join();
+
+        assertThat(required).isTrue();
+    }
+}
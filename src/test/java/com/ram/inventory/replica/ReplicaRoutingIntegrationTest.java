@@ -0,0 +1,87 @@
+package com.ram.inventory.replica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Boots with a separate read pool on the same in-memory database and checks that reads
+ * and writes keep working through the routing datasource.
+ */
+@SpringBootTest(properties = "inventory.replica.enabled=true")
+@AutoConfigureMockMvc
+class ReplicaRoutingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Read-only transactions get connections from the read pool")
+    void readOnlyTransactionsUseReadPool() {
+        ReadWriteRoutingDataSource routing = (ReadWriteRoutingDataSource) ((LazyConnectionDataSourceProxy) dataSource)
+                .getTargetDataSource();
+        HikariDataSource primary = (HikariDataSource) routing.getResolvedDataSources()
+                .get(ReadWriteRoutingDataSource.Target.PRIMARY);
+        HikariDataSource replica = (HikariDataSource) routing.getResolvedDataSources()
+                .get(ReadWriteRoutingDataSource.Target.REPLICA);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("select count(*) from product", Long.class);
+            assertThat(replica.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+        });
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("select count(*) from product", Long.class);
+            assertThat(primary.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            assertThat(replica.getHikariPoolMXBean().getActiveConnections()).isZero();
+        });
+    }
+
+    @Test
+    @DisplayName("Products written through the primary are readable by other clients")
+    void writesAreReadable() throws Exception {
+        String body = mockMvc.perform(post("/product").header("X-Client-Id", "writer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Replica\",\"price\":10,\"currentQuantity\":4}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(body).get("data").get("productId").asText();
+
+        mockMvc.perform(get("/product/get-product").header("X-Client-Id", "writer").param("id", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.currentQuantity").value(4));
+        mockMvc.perform(get("/product/get-product").header("X-Client-Id", "reader").param("id", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.name").value("Replica"));
+    }
+}
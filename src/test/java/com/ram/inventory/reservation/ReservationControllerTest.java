@@ -0,0 +1,130 @@
+package com.ram.inventory.reservation;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ram.inventory.exception.InsufficientStockException;
+import com.ram.inventory.order.OrderDTO;
+
+@WebMvcTest(ReservationController.class)
+class ReservationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReservationService reservationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName(value = "create reservation should hold stock")
+    void createReservation() throws Exception {
+        ReservationRequest request = new ReservationRequest();
+        request.setProductId(UUID.randomUUID());
+        request.setQuantity(2);
+        request.setTtlSeconds(300L);
+
+        ReservationDTO reservationDTO = new ReservationDTO();
+        reservationDTO.setReservationId(UUID.randomUUID());
+        reservationDTO.setQuantity(2);
+        reservationDTO.setStatus(ReservationStatus.ACTIVE);
+
+        Mockito.when(reservationService.createReservation(any(ReservationRequest.class))).thenReturn(reservationDTO);
+
+        mockMvc.perform(post("/reservation")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Reservation Created"))
+                .andExpect(jsonPath("$.data.status").value("ACTIVE"));
+    }
+
+    @Test
+    @DisplayName(value = "create reservation should return 409 with the available quantity when stock is short")
+    void createReservationConflict() throws Exception {
+        UUID productId = UUID.randomUUID();
+        ReservationRequest request = new ReservationRequest();
+        request.setProductId(productId);
+        request.setQuantity(2);
+
+        Mockito.when(reservationService.createReservation(any(ReservationRequest.class)))
+                .thenThrow(new InsufficientStockException(productId, 2, 1));
+
+        mockMvc.perform(post("/reservation")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.data.productId").value(productId.toString()))
+                .andExpect(jsonPath("$.data.requested").value(2))
+                .andExpect(jsonPath("$.data.available").value(1));
+    }
+
+    @Test
+    @DisplayName(value = "get reservation should return reservation based on id")
+    void getReservation() throws Exception {
+        UUID id = UUID.randomUUID();
+        ReservationDTO reservationDTO = new ReservationDTO();
+        reservationDTO.setReservationId(id);
+
+        Mockito.when(reservationService.getReservation(id)).thenReturn(reservationDTO);
+
+        mockMvc.perform(get("/reservation/get-reservation").param("id", id.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Reservation Found"))
+                .andExpect(jsonPath("$.data.reservationId").value(id.toString()));
+    }
+
+    @Test
+    @DisplayName(value = "confirm reservation should create an order")
+    void confirmReservation() throws Exception {
+        UUID id = UUID.randomUUID();
+        UUID orderId = UUID.randomUUID();
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setOrderId(orderId);
+
+        Mockito.when(reservationService.confirmReservation(id)).thenReturn(orderDTO);
+
+        mockMvc.perform(post("/reservation/confirm")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("id", id.toString()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Reservation Confirmed"))
+                .andExpect(jsonPath("$.data.orderId").value(orderId.toString()));
+    }
+
+    @Test
+    @DisplayName(value = "release reservation should release held stock")
+    void releaseReservation() throws Exception {
+        UUID id = UUID.randomUUID();
+        ReservationDTO reservationDTO = new ReservationDTO();
+        reservationDTO.setReservationId(id);
+        reservationDTO.setStatus(ReservationStatus.RELEASED);
+
+        Mockito.when(reservationService.releaseReservation(id)).thenReturn(reservationDTO);
+
+        mockMvc.perform(post("/reservation/release")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("id", id.toString()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Reservation Released"))
+                .andExpect(jsonPath("$.data.status").value("RELEASED"));
+    }
+}
@@ -0,0 +1,215 @@
+package com.ram.inventory.reservation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.ram.inventory.exception.ApiException;
+import com.ram.inventory.exception.InsufficientStockException;
+import com.ram.inventory.exception.ResourceNotFoundException;
+import com.ram.inventory.order.Order;
+import com.ram.inventory.order.OrderDTO;
+import com.ram.inventory.order.OrderRepository;
+import com.ram.inventory.product.Product;
+import com.ram.inventory.product.ProductRepository;
+import com.ram.inventory.shard.ShardRouter;
+
+class ReservationServiceTest {
+
+    private ReservationRepository reservationRepository;
+    private ProductRepository productRepository;
+    private OrderRepository orderRepository;
+    private ReservationExpiryScheduler expiryScheduler;
+    private ReservationService reservationService;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository = mock(ReservationRepository.class);
+        productRepository = mock(ProductRepository.class);
+        orderRepository = mock(OrderRepository.class);
+        expiryScheduler = mock(ReservationExpiryScheduler.class);
+        reservationService = new ReservationService(reservationRepository, productRepository, orderRepository,
+                expiryScheduler, new ModelMapper(), mock(ApplicationEventPublisher.class), ShardRouter.single());
+    }
+
+    private Product product(int current, int reserved) {
+        Product product = new Product();
+        product.setProductId(UUID.randomUUID());
+        product.setName("Phone");
+        product.setPrice(BigDecimal.valueOf(200));
+        product.setCurrentQuantity(current);
+        product.setReservedQuantity(reserved);
+        return product;
+    }
+
+    private Reservation reservation(Product product, int quantity, ReservationStatus status) {
+        return Reservation.builder()
+                .reservationId(UUID.randomUUID())
+                .product(product)
+                .quantity(quantity)
+                .status(status)
+                .expiresAt(LocalDateTime.now().plusMinutes(5))
+                .build();
+    }
+
+    @Test
+    void createReservation_shouldHoldStockAndScheduleExpiry() {
+        Product product = product(10, 2);
+        ReservationRequest request = new ReservationRequest();
+        request.setProductId(product.getProductId());
+        request.setQuantity(5);
+        request.setTtlSeconds(60L);
+
+        when(productRepository.findByIdForUpdate(product.getProductId())).thenReturn(Optional.of(product));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        ReservationDTO dto = reservationService.createReservation(request);
+
+        assertThat(dto.getStatus()).isEqualTo(ReservationStatus.ACTIVE);
+        assertThat(dto.getQuantity()).isEqualTo(5);
+        assertThat(product.getCurrentQuantity()).isEqualTo(10);
+        assertThat(product.getReservedQuantity()).isEqualTo(7);
+        verify(expiryScheduler).schedule(any(), eq(dto.getExpiresAt()));
+    }
+
+    @Test
+    void createReservation_shouldReject_whenAvailableStockIsInsufficient() {
+        Product product = product(10, 8);
+        ReservationRequest request = new ReservationRequest();
+        request.setProductId(product.getProductId());
+        request.setQuantity(5);
+
+        when(productRepository.findByIdForUpdate(product.getProductId())).thenReturn(Optional.of(product));
+
+        assertThatThrownBy(() -> reservationService.createReservation(request))
+                .isInstanceOfSatisfying(InsufficientStockException.class, e -> {
+                    assertThat(e.getStatus()).isEqualTo(409);
+                    assertThat(e.getShortage())
+                            .isEqualTo(new InsufficientStockException.Shortage(product.getProductId(), 5, 2));
+                });
+        assertThat(product.getReservedQuantity()).isEqualTo(8);
+    }
+
+    @Test
+    void createReservation_shouldReject_whenTtlTooLong() {
+        ReservationRequest request = new ReservationRequest();
+        request.setProductId(UUID.randomUUID());
+        request.setQuantity(1);
+        request.setTtlSeconds(ReservationService.MAX_TTL.toSeconds() + 1);
+
+        assertThatThrownBy(() -> reservationService.createReservation(request))
+                .isInstanceOf(ApiException.class);
+    }
+
+    @Test
+    void confirmReservation_shouldConvertHoldIntoOrder() {
+        Product product = product(10, 5);
+        Reservation reservation = reservation(product, 5, ReservationStatus.ACTIVE);
+
+        when(reservationRepository.findByIdForUpdate(reservation.getReservationId()))
+                .thenReturn(Optional.of(reservation));
+        when(productRepository.findByIdForUpdate(product.getProductId())).thenReturn(Optional.of(product));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        OrderDTO order = reservationService.confirmReservation(reservation.getReservationId());
+
+        assertThat(order.getQuantity()).isEqualTo(5);
+        assertThat(order.getPrice()).isEqualTo(BigDecimal.valueOf(200));
+        assertThat(product.getCurrentQuantity()).isEqualTo(5);
+        assertThat(product.getReservedQuantity()).isZero();
+        assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+        verify(expiryScheduler).cancel(reservation.getReservationId());
+    }
+
+    @Test
+    void confirmReservation_shouldReject_whenReservationExpired() {
+        Reservation reservation = reservation(product(10, 0), 5, ReservationStatus.EXPIRED);
+
+        when(reservationRepository.findByIdForUpdate(reservation.getReservationId()))
+                .thenReturn(Optional.of(reservation));
+
+        assertThatThrownBy(() -> reservationService.confirmReservation(reservation.getReservationId()))
+                .isInstanceOf(ApiException.class)
+                .hasMessage("Reservation is EXPIRED");
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void confirmReservation_shouldReject_whenHoldLapsedBeforeTimerFired() {
+        Product product = product(10, 5);
+        Reservation reservation = reservation(product, 5, ReservationStatus.ACTIVE);
+        reservation.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+
+        when(reservationRepository.findByIdForUpdate(reservation.getReservationId()))
+                .thenReturn(Optional.of(reservation));
+
+        assertThatThrownBy(() -> reservationService.confirmReservation(reservation.getReservationId()))
+                .isInstanceOf(ApiException.class)
+                .hasMessage("Reservation has expired");
+        assertThat(product.getCurrentQuantity()).isEqualTo(10);
+        assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.ACTIVE);
+        verify(orderRepository, never()).save(any());
+        verify(expiryScheduler, never()).cancel(any());
+    }
+
+    @Test
+    void releaseReservation_shouldReturnHeldStock() {
+        Product product = product(10, 5);
+        Reservation reservation = reservation(product, 5, ReservationStatus.ACTIVE);
+
+        when(reservationRepository.findByIdForUpdate(reservation.getReservationId()))
+                .thenReturn(Optional.of(reservation));
+        when(productRepository.findByIdForUpdate(product.getProductId())).thenReturn(Optional.of(product));
+
+        ReservationDTO dto = reservationService.releaseReservation(reservation.getReservationId());
+
+        assertThat(dto.getStatus()).isEqualTo(ReservationStatus.RELEASED);
+        assertThat(product.getReservedQuantity()).isZero();
+        assertThat(product.getCurrentQuantity()).isEqualTo(10);
+        verify(expiryScheduler).cancel(reservation.getReservationId());
+    }
+
+    @Test
+    void onReservationExpired_shouldReleaseOnlyActiveReservations() {
+        Product product = product(10, 5);
+        Reservation active = reservation(product, 5, ReservationStatus.ACTIVE);
+        Reservation confirmed = reservation(product, 3, ReservationStatus.CONFIRMED);
+
+        when(reservationRepository.findByIdForUpdate(active.getReservationId())).thenReturn(Optional.of(active));
+        when(reservationRepository.findByIdForUpdate(confirmed.getReservationId()))
+                .thenReturn(Optional.of(confirmed));
+        when(productRepository.findByIdForUpdate(product.getProductId())).thenReturn(Optional.of(product));
+
+        reservationService.onReservationExpired(new ReservationExpiredEvent(confirmed.getReservationId()));
+        reservationService.onReservationExpired(new ReservationExpiredEvent(active.getReservationId()));
+
+        assertThat(active.getStatus()).isEqualTo(ReservationStatus.EXPIRED);
+        assertThat(confirmed.getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+        assertThat(product.getReservedQuantity()).isZero();
+    }
+
+    @Test
+    void getReservation_shouldThrow_whenNotFound() {
+        UUID id = UUID.randomUUID();
+        when(reservationRepository.findById(id)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> reservationService.getReservation(id))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Reservation not found");
+    }
+}
@@ -0,0 +1,151 @@
+package com.ram.inventory.shard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ram.inventory.ApiIntegrationTest;
+
+/**
+ * Runs the application on three in-memory H2 shards and checks that rows land on the
+ * shard of their product and that list endpoints merge the shards into one sorted view.
+ */
+@SpringBootTest(properties = {
+        "inventory.sharding.enabled=true",
+        "inventory.sharding.shards[0].url=jdbc:h2:mem:shard0;NON_KEYWORDS=order;DB_CLOSE_DELAY=-1",
+        "inventory.sharding.shards[0].username=test",
+        "inventory.sharding.shards[1].url=jdbc:h2:mem:shard1;NON_KEYWORDS=order;DB_CLOSE_DELAY=-1",
+        "inventory.sharding.shards[1].username=test",
+        "inventory.sharding.shards[2].url=jdbc:h2:mem:shard2;NON_KEYWORDS=order;DB_CLOSE_DELAY=-1",
+        "inventory.sharding.shards[2].username=test" })
+@AutoConfigureMockMvc
+class ShardingIntegrationTest extends ApiIntegrationTest {
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardingConfig.ShardDataSources shards;
+
+    private UUID createProduct(String name, int quantity) throws Exception {
+        String body = "{\"name\":\"" + name + "\",\"price\":10,\"currentQuantity\":" + quantity + "}";
+        JsonNode product = call(post("/product").contentType(MediaType.APPLICATION_JSON).content(body));
+        return UUID.fromString(product.get("productId").asText());
+    }
+
+    private int countOnShard(int shard, String table, String column, UUID id) {
+        return new JdbcTemplate(shards.get(shard))
+                .queryForObject("select count(*) from " + table + " where " + column + " = ?", Integer.class, id);
+    }
+
+    @Test
+    @DisplayName("Products, orders and transactions are stored only on the shard of their product")
+    void rowsLandOnProductShard() throws Exception {
+        List<UUID> productIds = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            productIds.add(createProduct("Placement " + i, 50));
+        }
+        assertThat(productIds.stream().map(shardRouter::shardFor).distinct()).hasSize(3);
+
+        for (UUID productId : productIds) {
+            JsonNode order = call(post("/order").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"productId\":\"" + productId + "\",\"quantity\":2}"));
+            UUID orderId = UUID.fromString(order.get("orderId").asText());
+            JsonNode transaction = call(post("/transaction").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"productId\":\"" + productId + "\",\"quantity\":5,\"type\":\"T\"}"));
+            UUID transactionId = UUID.fromString(transaction.get("transactionId").asText());
+
+            int owner = shardRouter.shardFor(productId);
+            for (int shard = 0; shard < shards.size(); shard++) {
+                int expected = shard == owner ? 1 : 0;
+                assertThat(countOnShard(shard, "product", "product_id", productId)).isEqualTo(expected);
+                assertThat(countOnShard(shard, "\"ORDER\"", "order_id", orderId)).isEqualTo(expected);
+                assertThat(countOnShard(shard, "inventory_transaction", "transaction_id", transactionId))
+                        .isEqualTo(expected);
+            }
+
+            assertThat(call(get("/order/get-order").param("id", orderId.toString())).get("quantity").asInt())
+                    .isEqualTo(2);
+            assertThat(call(get("/product/get-product").param("id", productId.toString()))
+                    .get("currentQuantity").asInt()).isEqualTo(53);
+        }
+    }
+
+    @Test
+    @DisplayName("Reservations found by id are confirmed on the shard of their product")
+    void reservationConfirmedOnProductShard() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            UUID productId = createProduct("Reserved " + i, 10);
+            JsonNode reservation = call(post("/reservation").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"productId\":\"" + productId + "\",\"quantity\":3}"));
+            String reservationId = reservation.get("reservationId").asText();
+
+            JsonNode order = call(post("/reservation/confirm").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"id\":\"" + reservationId + "\"}"));
+            UUID orderId = UUID.fromString(order.get("orderId").asText());
+
+            assertThat(countOnShard(shardRouter.shardFor(productId), "\"ORDER\"", "order_id", orderId)).isEqualTo(1);
+            assertThat(call(get("/reservation/get-reservation").param("id", reservationId)).get("status").asText())
+                    .isEqualTo("CONFIRMED");
+            assertThat(call(get("/product/get-product").param("id", productId.toString()))
+                    .get("currentQuantity").asInt()).isEqualTo(7);
+        }
+    }
+
+    @Test
+    @DisplayName("Product pages are merged across shards in sort order")
+    void productPagesMergeAcrossShards() throws Exception {
+        for (int i = 0; i < 17; i++) {
+            createProduct(String.format("Merge %02d", i), 1);
+        }
+
+        List<String> names = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        long total = -1;
+        for (int page = 0; total < 0 || names.size() < total; page++) {
+            JsonNode response = call(get("/product/get-products").param("pageNumber", String.valueOf(page))
+                    .param("pageSize", "4").param("sortBy", "name"));
+            total = response.get("pagination").get("totalElements").asLong();
+            JsonNode content = response.get("data");
+            assertThat(content.size()).isPositive();
+            content.forEach(product -> {
+                names.add(product.get("name").asText());
+                ids.add(product.get("productId").asText());
+            });
+        }
+
+        assertThat(names).isSortedAccordingTo(Comparator.naturalOrder());
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(names.stream().filter(name -> name.startsWith("Merge "))).hasSize(17);
+    }
+
+    @Test
+    @DisplayName("A cart whose products live on different shards is rejected")
+    void cartAcrossShardsIsRejected() throws Exception {
+        UUID first = createProduct("Cart A", 10);
+        UUID second = createProduct("Cart B", 10);
+        while (shardRouter.shardFor(second) == shardRouter.shardFor(first)) {
+            second = createProduct("Cart B", 10);
+        }
+
+        mockMvc.perform(post("/order/cart").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lines\":[{\"productId\":\"" + first + "\",\"quantity\":1},{\"productId\":\"" + second
+                        + "\",\"quantity\":1}]}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,146 @@
+package com.ram.inventory.stockhistory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ram.inventory.ApiIntegrationTest;
+
+/**
+ * Moves stock through every kind of ledger entry, noting the time between steps, and checks
+ * that the stock at each noted time is answered the same before and after a snapshot is
+ * taken in the middle of the history.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StockHistoryIntegrationTest extends ApiIntegrationTest {
+
+    @Autowired
+    private StockSnapshotJob snapshotJob;
+
+    private JsonNode stockAt(String productId, LocalDateTime at) throws Exception {
+        return call(get("/product/stock-at").param("id", productId).param("at", at.toString()));
+    }
+
+    private Map<String, Long> allStockAt(LocalDateTime at) throws Exception {
+        MvcResult started = mockMvc.perform(get("/product/stock-at/all").param("at", at.toString()))
+                .andExpect(request().asyncStarted()).andReturn();
+        String body = mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn().getResponse()
+                .getContentAsString();
+        Map<String, Long> stock = new HashMap<>();
+        for (String line : body.split("\n")) {
+            JsonNode row = objectMapper.readTree(line);
+            stock.put(row.get("productId").asText(), row.get("quantity").asLong());
+        }
+        return stock;
+    }
+
+    @Test
+    @DisplayName("stock at a past moment should count transactions, orders and cart lines before it")
+    void answersFromSnapshotsAndLedger() throws Exception {
+        LocalDateTime beforeCreation = LocalDateTime.now();
+        String productId = send("/product", "{\"name\":\"Audited\",\"price\":2,\"currentQuantity\":10}")
+                .get("productId").asText();
+        String otherId = send("/product", "{\"name\":\"Other\",\"price\":2,\"currentQuantity\":5}")
+                .get("productId").asText();
+        LocalDateTime created = LocalDateTime.now();
+        send("/order", "{\"productId\":\"" + productId + "\",\"quantity\":3}");
+        LocalDateTime ordered = LocalDateTime.now();
+        send("/transaction", "{\"productId\":\"" + productId + "\",\"quantity\":8,\"type\":\"T\"}");
+        LocalDateTime toppedUp = LocalDateTime.now();
+        send("/order/cart", "{\"lines\":[{\"productId\":\"" + productId + "\",\"quantity\":4},"
+                + "{\"productId\":\"" + otherId + "\",\"quantity\":1}]}");
+        LocalDateTime cartOrdered = LocalDateTime.now();
+        send("/transaction", "{\"productId\":\"" + productId + "\",\"quantity\":6,\"type\":\"W\"}");
+        LocalDateTime withdrawn = LocalDateTime.now();
+
+        Map<LocalDateTime, Long> expected = new LinkedHashMap<>();
+        expected.put(beforeCreation, 0L);
+        expected.put(created, 10L);
+        expected.put(ordered, 7L);
+        expected.put(toppedUp, 15L);
+        expected.put(cartOrdered, 11L);
+        expected.put(withdrawn, 5L);
+        for (Map.Entry<LocalDateTime, Long> step : expected.entrySet()) {
+            assertThat(stockAt(productId, step.getKey()).get("quantity").asLong()).isEqualTo(step.getValue());
+        }
+
+        assertThat(snapshotJob.snapshot(toppedUp)).isPositive();
+        assertThat(snapshotJob.snapshot(toppedUp)).isZero();
+
+        for (Map.Entry<LocalDateTime, Long> step : expected.entrySet()) {
+            assertThat(stockAt(productId, step.getKey()).get("quantity").asLong()).isEqualTo(step.getValue());
+        }
+        JsonNode replayed = stockAt(productId, withdrawn);
+        LocalDateTime snapshotAt = toppedUp.truncatedTo(ChronoUnit.MICROS);
+        assertThat(LocalDateTime.parse(replayed.get("replayedFrom").asText())).isEqualTo(snapshotAt);
+        assertThat(LocalDateTime.parse(stockAt(productId, ordered).get("replayedFrom").asText()))
+                .isBefore(snapshotAt);
+
+        Map<String, Long> all = allStockAt(cartOrdered);
+        assertThat(all).containsEntry(productId, 11L).containsEntry(otherId, 4L);
+        assertThat(allStockAt(beforeCreation)).doesNotContainKeys(productId, otherId);
+    }
+
+    @Test
+    @DisplayName("the ledger should page newest first with the running balance after each entry")
+    void pagesTheLedgerWithRunningBalances() throws Exception {
+        String productId = send("/product", "{\"name\":\"Ledgered\",\"price\":2,\"currentQuantity\":10}")
+                .get("productId").asText();
+        String otherId = send("/product", "{\"name\":\"Other\",\"price\":2,\"currentQuantity\":5}")
+                .get("productId").asText();
+        send("/order", "{\"productId\":\"" + productId + "\",\"quantity\":3}");
+        send("/transaction", "{\"productId\":\"" + productId + "\",\"quantity\":8,\"type\":\"T\"}");
+        send("/order/cart", "{\"lines\":[{\"productId\":\"" + productId + "\",\"quantity\":4},"
+                + "{\"productId\":\"" + otherId + "\",\"quantity\":1}]}");
+        send("/transaction", "{\"productId\":\"" + productId + "\",\"quantity\":6,\"type\":\"W\"}");
+
+        List<JsonNode> entries = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode page = call(get("/product/ledger").param("id", productId).param("limit", "2")
+                    .param("cursor", cursor == null ? "" : cursor));
+            page.get("entries").forEach(entries::add);
+            cursor = page.get("next").isNull() ? null : page.get("next").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(entries).extracting(entry -> entry.get("kind").asText())
+                .containsExactly("WITHDRAW", "ORDER_LINE", "TOPUP", "ORDER", "ADJUSTMENT");
+        assertThat(entries).extracting(entry -> entry.get("quantity").asInt()).containsExactly(-6, -4, 8, -3, 10);
+        assertThat(entries).extracting(entry -> entry.get("balance").asLong()).containsExactly(5L, 11L, 15L, 7L, 10L);
+        assertThat(entries.get(1).get("orderId").isNull()).isFalse();
+
+        mockMvc.perform(get("/product/ledger").param("id", productId).param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/product/ledger").param("id", "00000000-0000-0000-0000-000000000001"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("stock at of an unknown product should be not found")
+    void unknownProduct() throws Exception {
+        mockMvc.perform(get("/product/stock-at").param("id", "00000000-0000-0000-0000-000000000001")
+                .param("at", LocalDateTime.now().toString())).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,78 @@
+package com.ram.inventory.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    void setUp() {
+        timer = new HashedWheelTimer("test-timer", Duration.ofMillis(10), 8, Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.close();
+    }
+
+    @Test
+    void schedule_shouldRunTaskAfterDelay() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        HashedWheelTimer.Timeout timeout = timer.schedule(latch::countDown, Duration.ofMillis(50));
+
+        assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(timeout.isExpired()).isTrue();
+        assertThat(timer.outstanding()).isZero();
+    }
+
+    @Test
+    void schedule_shouldHandleDelaysLongerThanOneRotation() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+
+        timer.schedule(latch::countDown, Duration.ofMillis(250));
+
+        assertThat(latch.await(100, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void cancel_shouldPreventTaskFromRunning() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch sentinel = new CountDownLatch(1);
+
+        HashedWheelTimer.Timeout timeout = timer.schedule(runs::incrementAndGet, Duration.ofMillis(30));
+        timer.schedule(sentinel::countDown, Duration.ofMillis(60));
+
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(sentinel.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(runs.get()).isZero();
+        assertThat(timeout.isCancelled()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+    }
+
+    @Test
+    void schedule_shouldFireEveryTimeoutOnce() throws InterruptedException {
+        int count = 10_000;
+        CountDownLatch latch = new CountDownLatch(count);
+
+        for (int i = 0; i < count; i++) {
+            timer.schedule(latch::countDown, Duration.ofMillis(i % 200));
+        }
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(timer.outstanding()).isZero();
+    }
+}
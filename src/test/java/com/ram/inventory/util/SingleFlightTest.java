@@ -0,0 +1,170 @@
+package com.ram.inventory.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private void awaitJoined(SingleFlight<?, ?> flight, long joined) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.getJoined() < joined && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void get_shouldShareOneLoad_betweenConcurrentCallers() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(0, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        List<Future<Integer>> callers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            callers.add(pool.submit(() -> flight.get("hot", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return 42;
+            })));
+        }
+        awaitJoined(flight, 7);
+        release.countDown();
+
+        for (Future<Integer> caller : callers) {
+            assertThat(caller.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(flight.getRequests()).isEqualTo(8);
+        assertThat(flight.getLoads()).isEqualTo(1);
+        // nothing is kept without a ttl
+        assertThat(flight.get("hot", () -> 43)).isEqualTo(43);
+    }
+
+    @Test
+    void get_shouldServeFromCache_untilInvalidated() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(MINUTE, 10);
+        assertThat(flight.get("a", () -> 1)).isEqualTo(1);
+        assertThat(flight.get("a", () -> 2)).isEqualTo(1);
+        assertThat(flight.getCacheHits()).isEqualTo(1);
+
+        flight.invalidate("a");
+        assertThat(flight.get("a", () -> 3)).isEqualTo(3);
+
+        // a load that began before an invalidation is not kept
+        assertThat(flight.get("b", () -> {
+            flight.invalidateAll();
+            return 4;
+        })).isEqualTo(4);
+        assertThat(flight.get("b", () -> 5)).isEqualTo(5);
+    }
+
+    @Test
+    void get_shouldNotJoinALoadThatBeganBeforeAnInvalidation() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(MINUTE, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> stale = pool.submit(() -> flight.get("a", () -> {
+            await(release);
+            return 1;
+        }));
+        awaitLoading(flight);
+
+        flight.invalidate("a");
+        assertThat(flight.get("a", () -> 2)).isEqualTo(2);
+        assertThat(flight.getJoined()).isZero();
+
+        release.countDown();
+        assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(flight.get("a", () -> 3)).isEqualTo(2);
+    }
+
+    @Test
+    void invalidate_shouldLeaveTheLoadsOfOtherKeysShared() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(MINUTE, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> leader = pool.submit(() -> flight.get("a", () -> {
+            await(release);
+            return 1;
+        }));
+        awaitLoading(flight);
+
+        flight.invalidate("b");
+        Future<Integer> follower = pool.submit(() -> flight.get("a", () -> 2));
+        awaitJoined(flight, 1);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(flight.getJoined()).isEqualTo(1);
+        assertThat(flight.get("a", () -> 3)).isEqualTo(1);
+
+        // more invalidated keys than entries fold into one stamp, which still refuses older loads
+        assertThat(flight.get("c", () -> {
+            flight.invalidate("x");
+            flight.invalidate("y");
+            flight.invalidate("z");
+            return 4;
+        })).isEqualTo(4);
+        assertThat(flight.get("c", () -> 5)).isEqualTo(5);
+    }
+
+    @Test
+    void get_shouldHandTheFailureToEveryWaitingCaller_andKeepNothing() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(MINUTE, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> leader = pool.submit(() -> flight.get("bad", () -> {
+            await(release);
+            throw new IllegalArgumentException("broken");
+        }));
+        awaitLoading(flight);
+        Future<Integer> follower = pool.submit(() -> flight.get("bad", () -> 0));
+        awaitJoined(flight, 1);
+        release.countDown();
+
+        for (Future<Integer> caller : List.of(leader, follower)) {
+            assertThatThrownBy(() -> caller.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(flight.get("bad", () -> 7)).isEqualTo(7);
+    }
+
+    private static void awaitLoading(SingleFlight<?, ?> flight) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.getLoads() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
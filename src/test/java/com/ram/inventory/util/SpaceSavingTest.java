@@ -0,0 +1,70 @@
+package com.ram.inventory.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SpaceSavingTest {
+
+    @Test
+    void add_shouldCountExactly_whileKeysFit() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(3);
+        sketch.add("a", 5);
+        sketch.add("b", 2);
+        sketch.add("a", 1);
+        sketch.add("c", 4);
+
+        assertThat(sketch.estimates()).containsExactly(new SpaceSaving.Estimate<>("a", 6, 0),
+                new SpaceSaving.Estimate<>("c", 4, 0), new SpaceSaving.Estimate<>("b", 2, 0));
+    }
+
+    @Test
+    void add_shouldReplaceSmallestCounter_andCarryItsCountAsError() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(2);
+        sketch.add("a", 5);
+        sketch.add("b", 2);
+        sketch.add("c", 1);
+
+        assertThat(sketch.size()).isEqualTo(2);
+        assertThat(sketch.estimates()).containsExactly(new SpaceSaving.Estimate<>("a", 5, 0),
+                new SpaceSaving.Estimate<>("c", 3, 2));
+    }
+
+    @Test
+    void estimates_shouldKeepHeavyHittersOfSkewedStream_withinTheirErrorBounds() {
+        SpaceSaving<Integer> sketch = new SpaceSaving<>(50);
+        Map<Integer, Long> exact = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            // ten hot keys take half of the stream, the rest is spread over 10 000 keys
+            int key = random.nextBoolean() ? random.nextInt(10) : 10 + random.nextInt(10_000);
+            long weight = 1 + random.nextInt(3);
+            sketch.add(key, weight);
+            exact.merge(key, weight, Long::sum);
+        }
+
+        assertThat(sketch.estimates().subList(0, 10))
+                .extracting(SpaceSaving.Estimate::key)
+                .containsExactlyInAnyOrder(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        for (SpaceSaving.Estimate<Integer> estimate : sketch.estimates()) {
+            long actual = exact.get(estimate.key());
+            assertThat(estimate.count()).isGreaterThanOrEqualTo(actual);
+            assertThat(estimate.count() - estimate.error()).isLessThanOrEqualTo(actual);
+        }
+    }
+
+    @Test
+    void clear_shouldForgetAllKeys() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(2);
+        sketch.add("a", 1);
+        sketch.add("b", 1);
+        sketch.clear();
+        sketch.add("c", 1);
+
+        assertThat(sketch.estimates()).containsExactly(new SpaceSaving.Estimate<>("c", 1, 0));
+    }
+}
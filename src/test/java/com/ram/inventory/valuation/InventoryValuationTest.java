@@ -0,0 +1,135 @@
+package com.ram.inventory.valuation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ram.inventory.product.Product;
+import com.ram.inventory.product.ProductChangedEvent;
+import com.ram.inventory.product.StockChangeReason;
+import com.ram.inventory.product.StockLevelChangedEvent;
+import com.ram.inventory.shard.ShardRouter;
+
+class InventoryValuationTest {
+
+    private ValuationRepository valuationRepository;
+    private InventoryValuation valuation;
+
+    @BeforeEach
+    void setUp() {
+        valuationRepository = mock(ValuationRepository.class);
+        valuation = new InventoryValuation(valuationRepository, ShardRouter.single());
+    }
+
+    private void databaseHolds(long products, long outOfStock, long units, String value) {
+        when(valuationRepository.computeTotals()).thenReturn(new ValuationRepository.Totals() {
+            public long getProducts() {
+                return products;
+            }
+
+            public long getOutOfStockProducts() {
+                return outOfStock;
+            }
+
+            public long getTotalUnits() {
+                return units;
+            }
+
+            public BigDecimal getTotalValue() {
+                return new BigDecimal(value);
+            }
+        });
+    }
+
+    private static Product product(String price, int quantity) {
+        Product product = new Product();
+        product.setProductId(UUID.randomUUID());
+        product.setPrice(new BigDecimal(price));
+        product.setCurrentQuantity(quantity);
+        return product;
+    }
+
+    private void stockChange(Product product, int previous, StockChangeReason reason) {
+        valuation.onStockLevelChanged(StockLevelChangedEvent.of(product, previous, reason, null));
+    }
+
+    @Test
+    void summary_shouldFollowCatalogAndStockChanges() {
+        databaseHolds(0, 0, 0, "0");
+        valuation.load();
+
+        Product cable = product("2.50", 10);
+        valuation.onProductChanged(ProductChangedEvent.created(cable));
+        stockChange(cable, 0, StockChangeReason.ADJUSTMENT);
+        Product lamp = product("19.99", 0);
+        valuation.onProductChanged(ProductChangedEvent.created(lamp));
+
+        InventorySummary summary = valuation.summary();
+        assertThat(summary.products()).isEqualTo(2);
+        assertThat(summary.outOfStockProducts()).isEqualTo(1);
+        assertThat(summary.totalUnits()).isEqualTo(10);
+        assertThat(summary.totalValue()).isEqualByComparingTo("25.00");
+
+        // an order empties the cable, then its price goes up while a top-up arrives
+        cable.setCurrentQuantity(0);
+        stockChange(cable, 10, StockChangeReason.ORDER);
+        cable.setPrice(new BigDecimal("3.00"));
+        cable.setCurrentQuantity(4);
+        valuation.onProductChanged(ProductChangedEvent.updated(cable, new BigDecimal("2.50"), 0));
+        stockChange(cable, 0, StockChangeReason.TOPUP);
+        lamp.setCurrentQuantity(1);
+        stockChange(lamp, 0, StockChangeReason.TOPUP);
+
+        summary = valuation.summary();
+        assertThat(summary.outOfStockProducts()).isZero();
+        assertThat(summary.totalUnits()).isEqualTo(5);
+        assertThat(summary.totalValue()).isEqualByComparingTo("31.99");
+
+        valuation.onProductChanged(ProductChangedEvent.deleted(lamp));
+        valuation.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.DELETED, UUID.randomUUID()));
+
+        summary = valuation.summary();
+        assertThat(summary.products()).isEqualTo(1);
+        assertThat(summary.totalUnits()).isEqualTo(4);
+        assertThat(summary.totalValue()).isEqualByComparingTo("12.00");
+    }
+
+    @Test
+    void verify_shouldCorrectOnlyDriftSeenTwice() {
+        databaseHolds(3, 1, 30, "300.00");
+        valuation.load();
+        assertThat(valuation.verify()).isTrue();
+
+        // a change the counters have not seen yet, which might still be on its way
+        databaseHolds(3, 1, 32, "320.00");
+        assertThat(valuation.verify()).isFalse();
+        assertThat(valuation.summary().totalUnits()).isEqualTo(30);
+
+        assertThat(valuation.verify()).isTrue();
+        InventorySummary summary = valuation.summary();
+        assertThat(summary.totalUnits()).isEqualTo(32);
+        assertThat(summary.totalValue()).isEqualByComparingTo("320.00");
+        assertThat(summary.driftCorrections()).isEqualTo(1);
+    }
+
+    @Test
+    void verify_shouldForgetDriftThatResolvedItself() {
+        databaseHolds(1, 0, 5, "50");
+        valuation.load();
+
+        databaseHolds(1, 0, 6, "60");
+        assertThat(valuation.verify()).isFalse();
+
+        // the late change arrives before the next check
+        Product product = product("10", 6);
+        stockChange(product, 5, StockChangeReason.TOPUP);
+        assertThat(valuation.verify()).isTrue();
+        assertThat(valuation.summary().driftCorrections()).isZero();
+    }
+}
@@ -0,0 +1,91 @@
+package com.ram.inventory.valuation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ram.inventory.ApiIntegrationTest;
+
+/**
+ * Moves stock and prices through the API and checks that the summary follows without a
+ * recompute, then changes the database behind the application's back and checks that the
+ * drift check brings the summary back in line. The database is shared with other test
+ * contexts, so the first part compares differences.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ValuationIntegrationTest extends ApiIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryValuation valuation;
+
+    private JsonNode summary() throws Exception {
+        return call(get("/valuation/summary"));
+    }
+
+    @Test
+    @DisplayName("summary should follow creates, orders, top-ups, price changes and deletes")
+    void followsChanges() throws Exception {
+        JsonNode before = summary();
+
+        String productId = send("/product", "{\"name\":\"Valued\",\"price\":4.00,\"currentQuantity\":10}")
+                .get("productId").asText();
+        String emptyId = send("/product", "{\"name\":\"Empty\",\"price\":7.00,\"currentQuantity\":0}")
+                .get("productId").asText();
+        send("/order", "{\"productId\":\"" + productId + "\",\"quantity\":3}");
+        send("/transaction", "{\"productId\":\"" + productId + "\",\"quantity\":5,\"type\":\"T\"}");
+        send("/product/update", "{\"productId\":\"" + productId + "\",\"name\":\"Valued\",\"price\":5.00,"
+                + "\"currentQuantity\":12}");
+
+        JsonNode during = summary();
+        assertThat(during.get("products").asLong() - before.get("products").asLong()).isEqualTo(2);
+        assertThat(during.get("outOfStockProducts").asLong() - before.get("outOfStockProducts").asLong())
+                .isEqualTo(1);
+        assertThat(during.get("totalUnits").asLong() - before.get("totalUnits").asLong()).isEqualTo(12);
+        assertThat(during.get("totalValue").decimalValue().subtract(before.get("totalValue").decimalValue()))
+                .isEqualByComparingTo("60.00");
+
+        send("/product/delete", "{\"id\":\"" + emptyId + "\"}");
+
+        JsonNode after = summary();
+        assertThat(after.get("products").asLong() - before.get("products").asLong()).isEqualTo(1);
+        assertThat(after.get("outOfStockProducts").asLong()).isEqualTo(before.get("outOfStockProducts").asLong());
+    }
+
+    @Test
+    @DisplayName("drift check should correct changes made behind the application's back")
+    void correctsDrift() throws Exception {
+        String productId = send("/product", "{\"name\":\"Drifting\",\"price\":1.00,\"currentQuantity\":2}")
+                .get("productId").asText();
+        jdbcTemplate.update("update product set price = 101.00 where product_id = ?",
+                UUID.fromString(productId));
+
+        valuation.verify();
+        assertThat(valuation.verify()).isTrue();
+
+        Map<String, Object> database = jdbcTemplate.queryForMap("select count(*) as products,"
+                + " sum(case when current_quantity = 0 then 1 else 0 end) as out_of_stock,"
+                + " sum(current_quantity) as units, sum(price * current_quantity) as total_value from product");
+        JsonNode summary = summary();
+        assertThat(summary.get("products").asLong()).isEqualTo(((Number) database.get("products")).longValue());
+        assertThat(summary.get("outOfStockProducts").asLong())
+                .isEqualTo(((Number) database.get("out_of_stock")).longValue());
+        assertThat(summary.get("totalUnits").asLong()).isEqualTo(((Number) database.get("units")).longValue());
+        assertThat(summary.get("totalValue").decimalValue()).isEqualByComparingTo((BigDecimal) database.get("total_value"));
+        assertThat(summary.get("driftCorrections").asLong()).isPositive();
+    }
+}
@@ -0,0 +1,151 @@
+package com.ram.inventory.warehouse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ram.inventory.ApiIntegrationTest;
+
+/**
+ * Places orders for products held at two warehouses and checks where their units came
+ * from, and that the product's stock, its warehouse stock and its unassigned rest add up.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class WarehouseIntegrationTest extends ApiIntegrationTest {
+
+    private String product(int quantity) throws Exception {
+        return send("/product", "{\"name\":\"Stocked\",\"price\":3,\"currentQuantity\":" + quantity + "}")
+                .get("productId").asText();
+    }
+
+    private String warehouse(String code, double latitude, double longitude) throws Exception {
+        return send("/warehouse", "{\"code\":\"" + code + "-" + UUID.randomUUID() + "\",\"name\":\"" + code
+                + "\",\"latitude\":" + latitude + ",\"longitude\":" + longitude + "}").get("warehouseId").asText();
+    }
+
+    private String assignment(String warehouseId, String productId, int quantity) {
+        return "{\"warehouseId\":\"" + warehouseId + "\",\"productId\":\"" + productId + "\",\"quantity\":"
+                + quantity + "}";
+    }
+
+    private JsonNode availability(String productId) throws Exception {
+        return call(get("/warehouse/availability").param("productId", productId), status().isOk());
+    }
+
+    private int located(JsonNode availability, String warehouseId) {
+        for (JsonNode location : availability.get("locations")) {
+            if (location.get("warehouseId").asText().equals(warehouseId)) {
+                return location.get("quantity").asInt();
+            }
+        }
+        return 0;
+    }
+
+    @Test
+    @DisplayName("orders should draw on warehouses by strategy and fall back to unassigned stock")
+    void allocatesByStrategy() throws Exception {
+        String productId = product(20);
+        String berlin = warehouse("BER", 52.52, 13.40);
+        String munich = warehouse("MUC", 48.14, 11.58);
+        send("/warehouse/stock", assignment(berlin, productId, 6));
+        JsonNode assigned = send("/warehouse/stock", assignment(munich, productId, 8));
+        assertThat(assigned.get("availableQuantity").asInt()).isEqualTo(20);
+        assertThat(assigned.get("unassignedQuantity").asInt()).isEqualTo(6);
+        send("/warehouse/stock", assignment(munich, productId, 15), status().isConflict());
+
+        send("/reservation", "{\"productId\":\"" + productId + "\",\"quantity\":7}", status().isConflict());
+        send("/reservation", "{\"productId\":\"" + productId + "\",\"quantity\":2}");
+        send("/transaction", "{\"productId\":\"" + productId + "\",\"quantity\":5,\"type\":\"W\"}",
+                status().isConflict());
+        send("/order", "{\"productId\":\"" + productId + "\",\"quantity\":1,\"allocation\":\"NEAREST\"}",
+                status().isBadRequest());
+
+        JsonNode mostStocked = send("/order", "{\"productId\":\"" + productId + "\",\"quantity\":3}");
+        assertThat(mostStocked.get("allocations")).hasSize(1);
+        assertThat(mostStocked.get("allocations").get(0).get("warehouseId").asText()).isEqualTo(munich);
+
+        // Hamburg is closer to Berlin than to Munich
+        JsonNode nearest = send("/order", "{\"productId\":\"" + productId
+                + "\",\"quantity\":2,\"allocation\":\"NEAREST\",\"latitude\":53.55,\"longitude\":9.99}");
+        assertThat(nearest.get("allocations").get(0).get("warehouseId").asText()).isEqualTo(berlin);
+
+        JsonNode overflow = send("/order", "{\"productId\":\"" + productId + "\",\"quantity\":12}");
+        int fromWarehouses = 0;
+        for (JsonNode allocation : overflow.get("allocations")) {
+            fromWarehouses += allocation.get("quantity").asInt();
+        }
+        assertThat(fromWarehouses).isEqualTo(9);
+
+        JsonNode after = availability(productId);
+        assertThat(after.get("currentQuantity").asInt()).isEqualTo(3);
+        assertThat(after.get("reservedQuantity").asInt()).isEqualTo(2);
+        assertThat(after.get("availableQuantity").asInt()).isEqualTo(1);
+        assertThat(after.get("unassignedQuantity").asInt()).isEqualTo(1);
+        assertThat(located(after, berlin)).isZero();
+        assertThat(located(after, munich)).isZero();
+        send("/order", "{\"productId\":\"" + productId + "\",\"quantity\":2}", status().isConflict());
+    }
+
+    @Test
+    @DisplayName("concurrent orders over several warehouses should never oversell")
+    void concurrentOrdersStayConsistent() throws Exception {
+        String productId = product(100);
+        List<String> warehouses = new ArrayList<>();
+        for (String code : List.of("A", "B", "C")) {
+            String warehouseId = warehouse(code, 50, 10);
+            send("/warehouse/stock", assignment(warehouseId, productId, 30));
+            warehouses.add(warehouseId);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            statuses.add(pool.submit(() -> {
+                start.await();
+                MvcResult result = mockMvc.perform(post("/order").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":\"" + productId + "\",\"quantity\":5}")).andReturn();
+                return result.getResponse().getStatus();
+            }));
+        }
+        start.countDown();
+        int placed = 0;
+        for (Future<Integer> status : statuses) {
+            int code = status.get(60, TimeUnit.SECONDS);
+            assertThat(code).isIn(200, 409, 429);
+            placed += code == 200 ? 1 : 0;
+        }
+        pool.shutdown();
+
+        JsonNode after = availability(productId);
+        int stillLocated = 0;
+        for (String warehouseId : warehouses) {
+            assertThat(located(after, warehouseId)).isBetween(0, 30);
+            stillLocated += located(after, warehouseId);
+        }
+        assertThat(placed).isBetween(1, 20);
+        assertThat(after.get("currentQuantity").asInt()).isEqualTo(100 - 5 * placed);
+        assertThat(after.get("unassignedQuantity").asInt()).isBetween(0, 10);
+        assertThat(stillLocated + after.get("unassignedQuantity").asInt())
+                .isEqualTo(after.get("availableQuantity").asInt());
+    }
+}